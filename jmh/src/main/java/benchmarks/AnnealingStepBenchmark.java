@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import network.modifiers.PredictionModifierOpt;
+import fitnessfunctions.PartitionFitnessFunction;
+
+
+/**
+ * AnnealingStepBenchmark times a single annealing step on a re-ranking: a seeded modification and the evaluation of the fitness,
+ * followed by the revert of the modification for a rejected step or by the commit of the modification for an accepted step.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class AnnealingStepBenchmark extends FixtureBenchmark {
+
+	private PredictionModifierOpt modifier;
+
+	private PartitionFitnessFunction fitness;
+
+	private Random random;
+
+
+	/**
+	 * A rejected step: modify, evaluate and revert
+	 *
+	 * @return	the fitness of the modification
+	 */
+	@Benchmark
+	public long modifyEvaluateRevert() {
+		this.modifier.modify(this.random.nextLong());
+		long fitness = this.fitness.getFitness();
+		this.modifier.revert();
+		return fitness;
+	}
+
+	/**
+	 * An accepted step: modify and evaluate. The modifier commits the previous modification at the start of every modification, so every step includes a commit.
+	 *
+	 * @return	the fitness of the modification
+	 */
+	@Benchmark
+	public long modifyEvaluateCommit() {
+		this.modifier.modify(this.random.nextLong());
+		return this.fitness.getFitness();
+	}
+
+	@Override
+	protected void setUp(Fixture fixture) {
+		this.modifier = fixture.getModifier();
+		this.fitness = fixture.getFitness();
+		this.random = fixture.getRandom();
+	}
+
+	@Override
+	protected void tearDown() {
+		this.modifier = null;
+		this.fitness = null;
+		this.random = null;
+	}
+
+}
@@ -0,0 +1,236 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import javax.management.RuntimeErrorException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import network.Network;
+import network.link.Link;
+import extractors.DirectedMotifExtractor;
+import extractors.DominatingExtractor;
+import extractors.GraphletCounterExtractor;
+import extractors.GraphletSampleExtractor;
+import extractors.IncGraphExtractor;
+import extractors.TranscriptionFactorExtractor;
+
+
+/**
+ * ExtractorBenchmark times the incremental update and revert of an extractor on a subnetwork, the way a penalty uses them for a rejected modification.
+ * 
+ * The middle subnetwork of the partition is used. Every operation deletes a batch of its links and adds a batch of links from further down the ranking,
+ * updates the extractor incrementally and reverts both the extractor and the subnetwork. The batch sizes are drawn from [1, modifyEachTurn].
+ * The extractor parameter selects the extractor: graphlet (GraphletCounterExtractor), incGraph (IncGraphExtractor), graphletSample (GraphletSampleExtractor),
+ * directedMotif (DirectedMotifExtractor), transcriptionFactor (TranscriptionFactorExtractor) or dominating (DominatingExtractor).
+ * 
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class ExtractorBenchmark extends FixtureBenchmark {
+
+	/**
+	 * Amount of prepared batches, re-used in turn
+	 */
+	private static final int BATCHES = 64;
+	
+	/**
+	 * Name of the extractor
+	 */
+	@Param({"graphlet", "incGraph", "graphletSample", "directedMotif", "transcriptionFactor", "dominating"})
+	public String extractor;
+	
+	/**
+	 * The incremental update and revert of the extractor
+	 */
+	private Target target;
+	
+	/**
+	 * The subnetwork the extractor works on
+	 */
+	private Network subnetwork;
+	
+	/**
+	 * Prepared batches of links to delete
+	 */
+	private ArrayList<ArrayList<Link>> deleted;
+	
+	/**
+	 * Prepared batches of links to add
+	 */
+	private ArrayList<ArrayList<Link>> added;
+	
+	/**
+	 * The next batch to use
+	 */
+	private int batch;
+	
+	
+	/**
+	 * An incremental update followed by a revert, of both the extractor and the subnetwork
+	 * 
+	 * @return	a value depending on the updated metric
+	 */
+	@Benchmark
+	public long incrementalUpdateRevert() {
+		
+		ArrayList<Link> delete = this.deleted.get(this.batch);
+		ArrayList<Link> add = this.added.get(this.batch);
+		this.batch = (this.batch+1) % BATCHES;
+		
+		for (Link a : delete){
+			this.subnetwork.removeNonCommitalLinkToNetwork(a);
+		}
+		for (Link a : add){
+			this.subnetwork.addNonCommitalLinkToNetwork(a);
+		}
+		long result = this.target.incrementalUpdate(this.subnetwork.getNonCommittalDeleted(), this.subnetwork.getNonCommitalAdded());
+		this.target.revert();
+		this.subnetwork.revert();
+		return result;
+	}
+
+	@Override
+	protected void setUp(Fixture fixture) {
+		
+		Network[] networks = fixture.getWrapper().getPartition().getNetworks();
+		this.subnetwork = networks[networks.length/2];
+		this.target = newTarget(this.extractor, this.subnetwork);
+		
+		// links below the subnetwork in the ranking can be added to it
+		ArrayList<Link> ranking = fixture.getWrapper().getNetwork().getLinks();
+		ArrayList<Link> inside = this.subnetwork.getLinks();
+		int outside = ranking.size() - inside.size();
+		
+		Random random = fixture.getRandom();
+		this.deleted = new ArrayList<ArrayList<Link>>();
+		this.added = new ArrayList<ArrayList<Link>>();
+		for (int i = 0 ; i < BATCHES ; i++){
+			int size = 1 + random.nextInt(Math.max(1, fixture.getModifyEachTurn()));
+			ArrayList<Link> delete = new ArrayList<Link>();
+			ArrayList<Link> add = new ArrayList<Link>();
+			for (int j = 0 ; j < size ; j++){
+				Link a = inside.get(random.nextInt(inside.size()));
+				if (!delete.contains(a)){
+					delete.add(a);
+				}
+				if (outside > 0){
+					Link b = ranking.get(inside.size() + random.nextInt(outside));
+					if (!add.contains(b)){
+						add.add(b);
+					}
+				}
+			}
+			this.deleted.add(delete);
+			this.added.add(add);
+		}
+		this.batch = 0;
+	}
+
+	@Override
+	protected void tearDown() {
+		this.target = null;
+		this.subnetwork = null;
+		this.deleted = null;
+		this.added = null;
+	}
+
+	
+	// private methods
+	
+	// creates the extractor with the given name on the subnetwork, calculated from scratch
+	private static Target newTarget(String name, Network subnetwork){
+		if (name.equals("graphlet")){
+			final GraphletCounterExtractor extractor = new GraphletCounterExtractor(subnetwork);
+			extractor.update();
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return extractor.getGraphletCounts()[4];
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		if (name.equals("incGraph")){
+			final IncGraphExtractor extractor = new IncGraphExtractor(subnetwork);
+			extractor.update();
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return extractor.getGraphletCounts()[4];
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		if (name.equals("graphletSample")){
+			final GraphletSampleExtractor extractor = new GraphletSampleExtractor(subnetwork);
+			extractor.update();
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return extractor.getGraphletCounts()[4];
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		if (name.equals("directedMotif")){
+			final DirectedMotifExtractor extractor = new DirectedMotifExtractor(subnetwork);
+			extractor.update();
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return extractor.getMotifCounts()[DirectedMotifExtractor.FEED_FORWARD_LOOPS];
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		if (name.equals("transcriptionFactor")){
+			final TranscriptionFactorExtractor extractor = new TranscriptionFactorExtractor(subnetwork);
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return extractor.getAmountOfTF();
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		if (name.equals("dominating")){
+			final DominatingExtractor extractor = new DominatingExtractor(subnetwork);
+			return new Target() {
+				long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded) {
+					extractor.incrementalUpdate(nonCommittalDeleted, nonCommittalAdded);
+					return Double.doubleToLongBits(extractor.getDominatorPercentage());
+				}
+				void revert() {
+					extractor.revert();
+				}
+			};
+		}
+		throw new RuntimeErrorException(null, "Unknown extractor: "+name);
+	}
+	
+	/**
+	 * The incremental update and revert of an extractor, the metric is returned by the update
+	 */
+	private static abstract class Target {
+		
+		abstract long incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded);
+		
+		abstract void revert();
+		
+	}
+
+}
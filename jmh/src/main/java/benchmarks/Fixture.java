@@ -0,0 +1,201 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import javax.management.RuntimeErrorException;
+
+import network.NetworkFileBackedWrapper;
+import network.generator.SyntheticNetworkGenerator;
+import network.modifiers.PredictionModifierOpt;
+import network.node.Node;
+import network.node.NodeCollection;
+import settings.LoggerOrPenaltyDefinition;
+import fitnessfunctions.PartitionFitnessFunction;
+
+
+/**
+ * Fixture builds a re-ranking the same way EnsembleSA prepares a worker: a copy of the ranking, a PredictionModifierOpt and a PartitionFitnessFunction
+ * with the default penalties. All randomness is derived from a fixed seed, so runs with the same parameters perform the same work.
+ * 
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class Fixture {
+
+	/**
+	 * Name of the ranking the fixture was read from, used in the report
+	 */
+	private String label;
+	
+	/**
+	 * Amount of links at the top of the ranking that are re-ranked
+	 */
+	private int cutoff;
+	
+	/**
+	 * Subnetwork size
+	 */
+	private int chuncks;
+	
+	/**
+	 * Maximum amount of links modified in a single network change
+	 */
+	private int modifyEachTurn;
+	
+	/**
+	 * Maximum amount of positions in the ranking a link can move during a network change
+	 */
+	private int moveEachTurn;
+	
+	/**
+	 * The ranking as read from file
+	 */
+	private NetworkFileBackedWrapper original;
+	
+	/**
+	 * The copy of the ranking that is modified
+	 */
+	private NetworkFileBackedWrapper wrapper;
+	
+	/**
+	 * The modifier of the copy
+	 */
+	private PredictionModifierOpt modifier;
+	
+	/**
+	 * The fitness function of the copy
+	 */
+	private PartitionFitnessFunction fitness;
+	
+	/**
+	 * Seeded random generator to be used by the benchmarks
+	 */
+	private Random random;
+	
+	
+	/**
+	 * Constructs a new Fixture
+	 * 
+	 * @param data	the ranking file to read
+	 * @param label	name of the ranking, used in the report
+	 * @param cutoff	amount of links at the top of the ranking that are re-ranked
+	 * @param chuncks	subnetwork size
+	 * @param modifyEachTurn	maximum amount of links modified in a single network change
+	 * @param moveEachTurn	maximum amount of positions a link can move during a network change
+	 * @param seed	seed of all randomness used by the benchmarks
+	 */
+	public Fixture(String data, String label, int cutoff, int chuncks, int modifyEachTurn, int moveEachTurn, long seed){
+		
+		this.label = label;
+		this.cutoff = cutoff;
+		this.chuncks = chuncks;
+		this.modifyEachTurn = modifyEachTurn;
+		this.moveEachTurn = moveEachTurn;
+		this.random = new Random(seed);
+		
+		this.original = new NetworkFileBackedWrapper(new File(data).getAbsolutePath(), cutoff, chuncks, 0.5, true);
+		this.wrapper = new NetworkFileBackedWrapper(this.original);
+		this.modifier = new PredictionModifierOpt(this.wrapper, modifyEachTurn, moveEachTurn);
+		this.fitness = new PartitionFitnessFunction(defaultPenalties(), this.wrapper, this.modifier);
+		this.modifier.setFitnessIncrementFunction(this.fitness);
+		this.fitness.setSeed(seed);
+		
+		// evaluate once, so the penalties are calculated from scratch before any timing
+		this.fitness.getFitness();
+	}
+	
+	
+	/**
+	 * Returns the penalties of the default Netter parameter file
+	 * 
+	 * @return	the definitions of the default penalties
+	 */
+	public static ArrayList<LoggerOrPenaltyDefinition> defaultPenalties(){
+		ArrayList<LoggerOrPenaltyDefinition> penalties = new ArrayList<LoggerOrPenaltyDefinition>();
+		penalties.add(new LoggerOrPenaltyDefinition("AntiDominatePenalty", new String[]{"75.0"}));
+		penalties.add(new LoggerOrPenaltyDefinition("GraphletG4Penalty", new String[]{"2.0"}));
+		penalties.add(new LoggerOrPenaltyDefinition("PredictionConfidencePenalty", new String[]{"0.00001"}));
+		penalties.add(new LoggerOrPenaltyDefinition("TFSparsityPenalty", new String[]{"25.0"}));
+		return penalties;
+	}
+	
+	/**
+	 * Returns the ranking file of a data argument, generating a synthetic ranking when needed
+	 * 
+	 * @param data	a ranking file, or a synthetic ranking given as scalefree:genes:links[:predictions], see SyntheticNetworkGenerator
+	 * @param seed	seed of the synthetic ranking
+	 * @return	the path of the ranking file
+	 */
+	public static String resolveData(String data, long seed){
+		if (data.startsWith("scalefree:")){
+			String[] split = data.split(":");
+			int links = Integer.parseInt(split[2]);
+			int predictions = split.length > 3 ? Integer.parseInt(split[3]) : 2*links;
+			try {
+				File file = File.createTempFile("scalefree-"+split[1]+"-"+links+"-", ".txt");
+				file.deleteOnExit();
+				new SyntheticNetworkGenerator(Integer.parseInt(split[1]), links, predictions, seed).writePredictions(file);
+				return file.getAbsolutePath();
+			} catch (IOException e) {
+				e.printStackTrace();
+				throw new RuntimeErrorException(null, "Could not create a file for the synthetic ranking "+data);
+			}
+		}
+		return data;
+	}
+	
+	/**
+	 * Completely clears all the resources registered by the fixture.
+	 */
+	public void clear(){
+		for (Node node: NodeCollection.returnAllRegisteredNodes()){
+			node.clearNetwork(this.wrapper.getNetwork());
+			node.clearNetwork(this.original.getNetwork());
+		}
+		this.fitness.clearNetworks();
+		this.wrapper.networkClear();
+		this.original.networkClear();
+	}
+	
+	/**
+	 * Describes the parameters of the fixture, used in the report
+	 * 
+	 * @return	the parameters separated by tabs
+	 */
+	public String describe(){
+		return this.label+"\t"+this.cutoff+"\t"+this.chuncks+"\t"+this.modifyEachTurn+"\t"+this.moveEachTurn;
+	}
+	
+	
+	// getters and setters
+	
+	public NetworkFileBackedWrapper getWrapper() {
+		return wrapper;
+	}
+	public PredictionModifierOpt getModifier() {
+		return modifier;
+	}
+	public PartitionFitnessFunction getFitness() {
+		return fitness;
+	}
+	public Random getRandom() {
+		return random;
+	}
+	public int getCutoff() {
+		return cutoff;
+	}
+	public int getChuncks() {
+		return chuncks;
+	}
+	public int getModifyEachTurn() {
+		return modifyEachTurn;
+	}
+	public int getMoveEachTurn() {
+		return moveEachTurn;
+	}
+	
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * FixtureBenchmark is the JMH state shared by the benchmarks of the annealing hot path: a Fixture built once per trial for every combination of the parameters.
+ *
+ * The parameters can be changed on the command line, e.g. -p cutoff=300,1000 -p data=jar/data/predictions/clr.txt,scalefree:5000:20000.
+ * Every trial runs in a forked JVM, so earlier trials do not change the ranking or the registered nodes of later ones.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class FixtureBenchmark {
+
+	/**
+	 * Ranking file, or a synthetic ranking given as scalefree:genes:links[:predictions], see SyntheticNetworkGenerator
+	 */
+	@Param({"jar/data/predictions/clr.txt"})
+	public String data;
+
+	/**
+	 * Amount of links that are re-ranked
+	 */
+	@Param({"300"})
+	public int cutoff;
+
+	/**
+	 * Subnetwork size
+	 */
+	@Param({"50"})
+	public int chuncks;
+
+	/**
+	 * Maximum amount of links modified in a single network change
+	 */
+	@Param({"50"})
+	public int modifyEachTurn;
+
+	/**
+	 * Maximum amount of positions a link can move
+	 */
+	@Param({"50"})
+	public int moveEachTurn;
+
+	/**
+	 * Seed of all randomness
+	 */
+	@Param({"42"})
+	public long seed;
+
+	/**
+	 * The re-ranking of the current trial
+	 */
+	private Fixture fixture;
+
+
+	/**
+	 * Prepares the benchmark for the fixture of a trial
+	 *
+	 * @param fixture	the re-ranking to benchmark
+	 */
+	protected abstract void setUp(Fixture fixture);
+
+	/**
+	 * Releases everything allocated by setUp
+	 */
+	protected abstract void tearDown();
+
+
+	@Setup(Level.Trial)
+	public void setUpFixture() {
+		this.fixture = new Fixture(Fixture.resolveData(this.data, this.seed), this.data, this.cutoff, this.chuncks, this.modifyEachTurn, this.moveEachTurn, this.seed);
+		this.setUp(this.fixture);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownFixture() {
+		this.tearDown();
+		this.fixture.clear();
+		this.fixture = null;
+	}
+
+}
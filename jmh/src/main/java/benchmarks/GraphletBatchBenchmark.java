@@ -0,0 +1,340 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import network.Network;
+import network.link.Link;
+import network.node.Node;
+import extractors.GraphletCounterExtractor;
+import extractors.GraphletSampleExtractor;
+import extractors.IncGraphExtractor;
+
+
+/**
+ * GraphletBatchBenchmark times the graphlet counts of a subnetwork after a batch of changed links: incrementally or from scratch, with GraphletCounterExtractor or with IncGraphExtractor.
+ *
+ * The middle subnetwork of the partition is used. Every batch deletes batchSize links of the subnetwork and adds batchSize links from further down the ranking.
+ * Incrementally an operation is GraphletCounterExtractor.incrementalUpdate (without recounting from scratch) followed by GraphletCounterExtractor.revert, the way a penalty handles a rejected change.
+ * From scratch an operation is GraphletCounterExtractor.update on a network holding the changed links, the counts before the change are kept so a revert is free.
+ * With IncGraph an operation is IncGraphExtractor.incrementalUpdate followed by IncGraphExtractor.revert, from scratch the update always takes its recount,
+ * so the scratch network holding the changed links is built in every operation.
+ *
+ * The batches double as correctness oracle: verify() compares the incremental counts of every batch of both extractors, with and without the recount of incrementalUpdate,
+ * and the counts of IncGraphExtractor from scratch with the counts of GraphletCounterExtractor from scratch.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class GraphletBatchBenchmark {
+
+	/**
+	 * Amount of prepared batches, re-used in turn
+	 */
+	private static final int BATCHES = 16;
+
+	/**
+	 * The ways to count: GraphletCounterExtractor incrementally or from scratch, or IncGraphExtractor incrementally or from scratch
+	 */
+	public static final int INCREMENTAL = 0, FROM_SCRATCH = 1, INCGRAPH = 2, INCGRAPH_FROM_SCRATCH = 3;
+
+	/**
+	 * Names of the ways to count, in index order
+	 */
+	public static final String[] WAYS = {"graphletIncremental", "graphletFromScratch", "incGraph", "incGraphFromScratch"};
+
+	/**
+	 * Amount of deleted and of added links in a batch
+	 */
+	private int batchSize;
+
+	/**
+	 * The way to count
+	 */
+	private int way;
+
+	/**
+	 * The subnetwork the batches change
+	 */
+	private Network subnetwork;
+
+	/**
+	 * Extractor of the subnetwork, updated incrementally
+	 */
+	private GraphletCounterExtractor extractor;
+
+	/**
+	 * IncGraph extractor of the subnetwork
+	 */
+	private IncGraphExtractor incGraph;
+
+	/**
+	 * Prepared batches of links to delete
+	 */
+	private ArrayList<ArrayList<Link>> deleted;
+
+	/**
+	 * Prepared batches of links to add
+	 */
+	private ArrayList<ArrayList<Link>> added;
+
+	/**
+	 * Per batch: a network holding the links of the subnetwork after the batch, with its own extractor
+	 */
+	private ArrayList<GraphletCounterExtractor> changed;
+
+	/**
+	 * Per batch: an IncGraph extractor of the network holding the links of the subnetwork after the batch
+	 */
+	private ArrayList<IncGraphExtractor> changedIncGraph;
+
+	/**
+	 * The next batch to use
+	 */
+	private int batch;
+
+
+	/**
+	 * Constructs a new GraphletBatchBenchmark
+	 *
+	 * @param batchSize	amount of deleted and of added links in a batch
+	 * @param way	the way to count: INCREMENTAL, FROM_SCRATCH, INCGRAPH or INCGRAPH_FROM_SCRATCH
+	 */
+	public GraphletBatchBenchmark(int batchSize, int way){
+		this.batchSize = batchSize;
+		this.way = way;
+	}
+
+
+	/**
+	 * The name of the way to count and the batch size
+	 *
+	 * @return	the benchmark name
+	 */
+	public String getName() {
+		return WAYS[this.way]+"-"+this.batchSize;
+	}
+
+	/**
+	 * Prepares the batches and the extractors on the middle subnetwork of a fixture
+	 *
+	 * @param fixture	the re-ranking to benchmark
+	 */
+	public void setUp(Fixture fixture) {
+
+		Network[] networks = fixture.getWrapper().getPartition().getNetworks();
+		this.subnetwork = networks[networks.length/2];
+		this.extractor = new GraphletCounterExtractor(this.subnetwork);
+		this.extractor.setRecountRatio(0);
+		this.extractor.update();
+		this.incGraph = new IncGraphExtractor(this.subnetwork);
+		// the smallest positive ratio makes every update recount
+		this.incGraph.setRecountRatio(this.way == INCGRAPH_FROM_SCRATCH ? Double.MIN_VALUE : 0);
+		this.incGraph.update();
+
+		// links below the subnetwork in the ranking can be added to it
+		ArrayList<Link> ranking = fixture.getWrapper().getNetwork().getLinks();
+		ArrayList<Link> inside = this.subnetwork.getLinks();
+		int outside = ranking.size() - inside.size();
+		int size = Math.min(this.batchSize, Math.min(inside.size(), outside));
+
+		Random random = fixture.getRandom();
+		this.deleted = new ArrayList<ArrayList<Link>>();
+		this.added = new ArrayList<ArrayList<Link>>();
+		this.changed = new ArrayList<GraphletCounterExtractor>();
+		this.changedIncGraph = new ArrayList<IncGraphExtractor>();
+		for (int i = 0 ; i < BATCHES ; i++){
+			LinkedHashSet<Link> delete = new LinkedHashSet<Link>();
+			LinkedHashSet<Link> add = new LinkedHashSet<Link>();
+			while (delete.size() < size){
+				delete.add(inside.get(random.nextInt(inside.size())));
+			}
+			while (add.size() < size){
+				add.add(ranking.get(inside.size() + random.nextInt(outside)));
+			}
+			this.deleted.add(new ArrayList<Link>(delete));
+			this.added.add(new ArrayList<Link>(add));
+
+			Network network = new Network();
+			for (Link a : inside){
+				if (!delete.contains(a)){
+					network.addLinkToNetwork(a);
+				}
+			}
+			for (Link a : add){
+				network.addLinkToNetwork(a);
+			}
+			this.changed.add(new GraphletCounterExtractor(network));
+			this.changedIncGraph.add(new IncGraphExtractor(network));
+		}
+		this.batch = 0;
+	}
+
+	/**
+	 * Counts the graphlets after the next batch in the way of this benchmark
+	 *
+	 * @return	the amount of G4 graphlets, consumed by GraphletCrossover so the operation cannot be optimized away
+	 */
+	public long operation() {
+
+		int batch = this.batch;
+		this.batch = (this.batch+1) % BATCHES;
+
+		if (this.way == FROM_SCRATCH){
+			GraphletCounterExtractor scratch = this.changed.get(batch);
+			scratch.update();
+			return scratch.getGraphletCounts()[4];
+		}
+		if (this.way == INCGRAPH || this.way == INCGRAPH_FROM_SCRATCH){
+			this.changeSubnetwork(batch);
+			this.incGraph.incrementalUpdate(this.subnetwork.getNonCommittalDeleted(), this.subnetwork.getNonCommitalAdded());
+			long result = this.incGraph.getGraphletCounts()[4];
+			this.incGraph.revert();
+			this.subnetwork.revert();
+			return result;
+		}
+
+		this.change(batch);
+		long result = this.extractor.getGraphletCounts()[4];
+		this.extractor.revert();
+		this.subnetwork.revert();
+		return result;
+	}
+
+	/**
+	 * Releases everything allocated by setUp
+	 */
+	public void tearDown() {
+		for (GraphletCounterExtractor scratch : this.changed){
+			for (Node node : scratch.getNetwork().getNodes()){
+				node.clearNetwork(scratch.getNetwork());
+			}
+		}
+		this.subnetwork = null;
+		this.extractor = null;
+		this.incGraph = null;
+		this.deleted = null;
+		this.added = null;
+		this.changed = null;
+		this.changedIncGraph = null;
+	}
+
+	/**
+	 * Compares the incremental graphlet counts of every prepared batch with the counts from scratch, and the reverted counts with the counts before the batch.
+	 * Every batch is checked with the case analysis of incrementalUpdate, with its recount from scratch and with IncGraphExtractor, with and without its recount.
+	 * GraphletSampleExtractor is checked to keep a full reservoir over a long run of committed random batches.
+	 *
+	 * @return	descriptions of the batches with different counts, empty if all counts match
+	 */
+	public ArrayList<String> verify(){
+
+		ArrayList<String> mismatches = new ArrayList<String>();
+		int[] before = this.extractor.getGraphletCounts().clone();
+		for (int check = 0 ; check < 4 * BATCHES ; check++){
+
+			// the smallest positive ratio makes every update recount
+			int batch = check % BATCHES;
+			String way = check < BATCHES ? "incremental" : check < 2 * BATCHES ? "recount" : check < 3 * BATCHES ? "incGraph" : "incGraph recount";
+			this.extractor.setRecountRatio(check < BATCHES ? 0 : Double.MIN_VALUE);
+			this.incGraph.setRecountRatio(check < 3 * BATCHES ? 0 : Double.MIN_VALUE);
+
+			int[] incremental;
+			int[] reverted;
+			if (check < 2 * BATCHES){
+				this.change(batch);
+				incremental = this.extractor.getGraphletCounts().clone();
+				this.extractor.revert();
+				reverted = this.extractor.getGraphletCounts().clone();
+			}else{
+				this.changeSubnetwork(batch);
+				this.incGraph.incrementalUpdate(this.subnetwork.getNonCommittalDeleted(), this.subnetwork.getNonCommitalAdded());
+				incremental = this.incGraph.getGraphletCounts().clone();
+				this.incGraph.revert();
+				reverted = this.incGraph.getGraphletCounts().clone();
+			}
+			this.subnetwork.revert();
+
+			GraphletCounterExtractor scratch = this.changed.get(batch);
+			scratch.update();
+			int[] expected = scratch.getGraphletCounts();
+
+			if (!Arrays.equals(incremental, expected)){
+				mismatches.add("batch "+batch+" of "+this.batchSize+": "+way+" "+Arrays.toString(incremental)+" from scratch "+Arrays.toString(expected));
+			}
+			if (!Arrays.equals(reverted, before)){
+				mismatches.add("batch "+batch+" of "+this.batchSize+": "+way+" reverted "+Arrays.toString(reverted)+" before "+Arrays.toString(before));
+			}
+			if (check >= 2 * BATCHES){
+				IncGraphExtractor incGraphScratch = this.changedIncGraph.get(batch);
+				incGraphScratch.update();
+				if (!Arrays.equals(incGraphScratch.getGraphletCounts(), expected)){
+					mismatches.add("batch "+batch+" of "+this.batchSize+": incGraph from scratch "+Arrays.toString(incGraphScratch.getGraphletCounts())+" from scratch "+Arrays.toString(expected));
+				}
+			}
+		}
+		this.extractor.setRecountRatio(0);
+		this.incGraph.setRecountRatio(this.way == INCGRAPH_FROM_SCRATCH ? Double.MIN_VALUE : 0);
+
+		// the sampler only keeps its own links, so the batches are committed by never reverting them and the subnetwork stays unchanged
+		GraphletSampleExtractor sampler = new GraphletSampleExtractor(this.subnetwork);
+		sampler.update();
+		ArrayList<Link> present = new ArrayList<Link>(this.subnetwork.getLinks());
+		LinkedHashSet<Link> candidates = new LinkedHashSet<Link>();
+		for (ArrayList<Link> add : this.added){
+			candidates.addAll(add);
+		}
+		candidates.removeAll(present);
+		ArrayList<Link> absent = new ArrayList<Link>(candidates);
+		Random random = new Random(this.batchSize);
+		for (int round = 0 ; round < 4 * BATCHES ; round++){
+			ArrayList<Link> delete = new ArrayList<Link>();
+			ArrayList<Link> add = new ArrayList<Link>();
+			for (int i = 0 ; i < this.batchSize && present.size() > 1 ; i++){
+				delete.add(present.remove(random.nextInt(present.size())));
+			}
+			for (int i = 0 ; i < this.batchSize && !absent.isEmpty() ; i++){
+				add.add(absent.remove(random.nextInt(absent.size())));
+			}
+			sampler.incrementalUpdate(delete, add);
+			present.addAll(add);
+			absent.addAll(delete);
+		}
+		if (sampler.getSampledPaths() != sampler.getReservoirSize()){
+			mismatches.add("batches of "+this.batchSize+": sampler reservoir holds "+sampler.getSampledPaths()+" of "+sampler.getReservoirSize()+" paths after "+(4 * BATCHES)+" committed batches");
+		}
+		return mismatches;
+	}
+
+
+	/**
+	 * Returns the amount of links of the changed subnetwork
+	 *
+	 * @return	the amount of links
+	 */
+	public int getSubnetworkLinks(){
+		return this.subnetwork.getLinkCount();
+	}
+
+
+	// private methods
+
+	// applies a batch to the subnetwork as non-committal links
+	private void changeSubnetwork(int batch){
+		for (Link a : this.deleted.get(batch)){
+			this.subnetwork.removeNonCommitalLinkToNetwork(a);
+		}
+		for (Link a : this.added.get(batch)){
+			this.subnetwork.addNonCommitalLinkToNetwork(a);
+		}
+	}
+
+	// applies a batch to the subnetwork and updates the extractor incrementally
+	private void change(int batch){
+		this.changeSubnetwork(batch);
+		this.extractor.incrementalUpdate(this.subnetwork.getNonCommittalDeleted(), this.subnetwork.getNonCommitalAdded());
+	}
+
+}
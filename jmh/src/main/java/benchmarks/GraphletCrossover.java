@@ -0,0 +1,168 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+
+/**
+ * GraphletCrossover checks and times GraphletCounterExtractor and IncGraphExtractor on batches of changed links, see GraphletBatchBenchmark.
+ *
+ * For every batch size the incremental counts are first compared with the counts from scratch, after which both ways of both extractors are timed.
+ * The report lists the time per batch of every way and per extractor the crossover: the smallest batch size from which calculating from scratch is cheaper.
+ * The crossover is also given as ratio of changed links to links of the subnetwork, the value of the graphletRecountRatio setting.
+ * The setting applies to both extractors, the G4 penalty uses IncGraphExtractor so its crossover is the one to set.
+ * The run fails (exit code 1) when any incremental or IncGraph count differs from the count from scratch.
+ *
+ * Arguments are given as key=value pairs, lists are comma separated:
+ *
+ * data=jar/data/predictions/clr.txt	ranking file, or a synthetic ranking given as scalefree:genes:links[:predictions], see SyntheticNetworkGenerator
+ * cutoff=3000	amount of links that are re-ranked
+ * chuncks=1000	subnetwork size
+ * batches=1,2,4,8,16,32,64,128,256	amount of deleted and of added links in a batch
+ * warmup=2	amount of untimed iterations
+ * iterations=3	amount of timed iterations
+ * time=500	duration of a single iteration in milliseconds
+ * seed=42	seed of all randomness
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class GraphletCrossover {
+
+	/**
+	 * Collects the results of the operations, so they cannot be optimized away
+	 */
+	private static volatile long sink;
+
+
+	public static void main(String[] args) {
+
+		HashMap<String,String> options = new HashMap<String,String>();
+		options.put("data", "jar/data/predictions/clr.txt");
+		options.put("cutoff", "3000");
+		options.put("chuncks", "1000");
+		options.put("batches", "1,2,4,8,16,32,64,128,256");
+		options.put("warmup", "2");
+		options.put("iterations", "3");
+		options.put("time", "500");
+		options.put("seed", "42");
+
+		for (String arg : args){
+			String[] split = arg.split("=", 2);
+			if (split.length != 2 || !options.containsKey(split[0])){
+				System.err.println("Unknown argument: "+arg+", known arguments are "+options.keySet()+" ABORTING");
+				System.exit(-1);
+			}
+			options.put(split[0], split[1]);
+		}
+
+		int cutoff = Integer.parseInt(options.get("cutoff"));
+		int chuncks = Integer.parseInt(options.get("chuncks"));
+		int warmup = Integer.parseInt(options.get("warmup"));
+		int iterations = Integer.parseInt(options.get("iterations"));
+		long time = Long.parseLong(options.get("time"));
+		long seed = Long.parseLong(options.get("seed"));
+		String file = Fixture.resolveData(options.get("data"), seed);
+
+		System.out.println("batch\tincremental ns/batch\tstdev\tmin\tfromScratch ns/batch\tstdev\tmin\tincGraph ns/batch\tstdev\tmin\tincGraphFromScratch ns/batch\tstdev\tmin\tmismatches");
+		int crossover = -1;
+		int incGraphCrossover = -1;
+		int links = 0;
+		int mismatches = 0;
+		for (String batches : options.get("batches").split(",")){
+			int batchSize = Integer.parseInt(batches);
+			double[] mean = new double[4];
+			StringBuilder line = new StringBuilder(String.valueOf(batchSize));
+			ArrayList<String> failed = new ArrayList<String>();
+			for (int way = 0 ; way < 4 ; way++){
+
+				// all ways get the same batches, as their fixtures use the same seed
+				GraphletBatchBenchmark benchmark = new GraphletBatchBenchmark(batchSize, way);
+				Fixture fixture = new Fixture(file, options.get("data"), cutoff, chuncks, 1, 1, seed);
+				benchmark.setUp(fixture);
+				if (way == GraphletBatchBenchmark.INCREMENTAL){
+					failed = benchmark.verify();
+					links = benchmark.getSubnetworkLinks();
+				}
+
+				double[] nanosPerOperation = new double[iterations];
+				for (int i = 0 ; i < warmup ; i++){
+					measure(benchmark, time);
+				}
+				for (int i = 0 ; i < iterations ; i++){
+					nanosPerOperation[i] = measure(benchmark, time);
+					mean[way] += nanosPerOperation[i] / iterations;
+				}
+				benchmark.tearDown();
+				fixture.clear();
+				line.append("\t").append(summarize(nanosPerOperation));
+			}
+			System.out.println(line.append("\t").append(failed.size()).toString());
+			for (String mismatch : failed){
+				System.out.println("MISMATCH "+mismatch);
+			}
+			mismatches += failed.size();
+			if (crossover < 0 && mean[GraphletBatchBenchmark.FROM_SCRATCH] < mean[GraphletBatchBenchmark.INCREMENTAL]){
+				crossover = batchSize;
+			}
+			if (incGraphCrossover < 0 && mean[GraphletBatchBenchmark.INCGRAPH_FROM_SCRATCH] < mean[GraphletBatchBenchmark.INCGRAPH]){
+				incGraphCrossover = batchSize;
+			}
+		}
+
+		printCrossover("GraphletCounterExtractor", crossover, links);
+		printCrossover("IncGraphExtractor", incGraphCrossover, links);
+		if (mismatches > 0){
+			System.out.println(mismatches+" MISMATCHES between the incremental, IncGraph and the from scratch graphlet counts");
+			System.exit(1);
+		}
+	}
+
+	// runs the operation of a benchmark during the given time and returns the average time of a single operation in nanoseconds
+	private static double measure(GraphletBatchBenchmark benchmark, long millis){
+
+		long budget = millis * 1000000L;
+		long operations = 0;
+		long result = 0;
+		long start = System.nanoTime();
+		long elapsed = 0;
+		while (elapsed < budget){
+			// time a small batch at once, so reading the clock does not dominate short operations
+			for (int i = 0 ; i < 16 ; i++){
+				result ^= benchmark.operation();
+			}
+			operations += 16;
+			elapsed = System.nanoTime() - start;
+		}
+		sink ^= result;
+		return ((double) elapsed) / operations;
+	}
+
+	private static String summarize(double[] values){
+		double mean = 0;
+		double min = Double.MAX_VALUE;
+		for (double value : values){
+			mean += value;
+			min = Math.min(min, value);
+		}
+		mean /= values.length;
+		double variance = 0;
+		for (double value : values){
+			variance += (value - mean) * (value - mean);
+		}
+		double stdev = values.length > 1 ? Math.sqrt(variance / (values.length-1)) : 0;
+		return String.format("%.1f\t%.1f\t%.1f", mean, stdev, min);
+	}
+
+	// reports the crossover of an extractor as batch size and as graphletRecountRatio
+	private static void printCrossover(String extractor, int crossover, int links){
+		if (crossover < 0){
+			System.out.println(extractor+": no crossover, the incremental update is cheaper for all batch sizes");
+		}else{
+			System.out.println(String.format(Locale.ROOT, "%s: from scratch is cheaper from %d deleted and %d added links per batch, on a subnetwork of %d links: graphletRecountRatio=%.3f", extractor, crossover, crossover, links, 2.0 * crossover / links));
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashSet;
+
+import javax.management.RuntimeErrorException;
+
+
+/**
+ * RankingQuality scores a ranking of predictions against a gold standard of known regulatory links.
+ *
+ * Both files are read as 'tf	target	...' lines, a prediction is correct if the same tf/target pair is in the gold standard.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class RankingQuality {
+
+	/**
+	 * The tf/target pairs of the gold standard
+	 */
+	private HashSet<String> gold;
+
+
+	/**
+	 * Constructs a new RankingQuality from a gold standard file
+	 *
+	 * @param goldFile	the gold standard
+	 */
+	public RankingQuality(File goldFile){
+		this.gold = new HashSet<String>();
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(goldFile));
+			String line;
+			while ((line = reader.readLine()) != null){
+				String pair = pair(line);
+				if (pair != null){
+					this.gold.add(pair);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Could not read the gold standard "+goldFile.getPath());
+		} finally {
+			close(reader);
+		}
+	}
+
+
+	/**
+	 * Scores a ranking
+	 *
+	 * @param ranking	the ranking, best prediction first
+	 * @param cutoff	the top of the ranking used for the precision
+	 * @return	the average precision of the whole ranking and the precision of the top cutoff predictions
+	 */
+	public double[] evaluate(File ranking, int cutoff){
+		BufferedReader reader = null;
+		int rank = 0;
+		int correct = 0;
+		int correctAtCutoff = 0;
+		double precisionSum = 0;
+		try {
+			reader = new BufferedReader(new FileReader(ranking));
+			String line;
+			while ((line = reader.readLine()) != null){
+				String pair = pair(line);
+				if (pair == null){
+					continue;
+				}
+				rank++;
+				if (this.gold.contains(pair)){
+					correct++;
+					precisionSum += ((double) correct) / rank;
+				}
+				if (rank == cutoff){
+					correctAtCutoff = correct;
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Could not read the ranking "+ranking.getPath());
+		} finally {
+			close(reader);
+		}
+		if (rank < cutoff){
+			correctAtCutoff = correct;
+		}
+		double averagePrecision = this.gold.isEmpty() ? 0 : precisionSum / this.gold.size();
+		return new double[]{averagePrecision, ((double) correctAtCutoff) / Math.max(1, Math.min(cutoff, rank))};
+	}
+
+
+	// private methods
+
+	// returns the tf/target pair of a line, null for empty lines
+	private static String pair(String line){
+		String[] split = line.trim().split("\\s+");
+		if (split.length < 2){
+			return null;
+		}
+		return split[0].replaceAll("\"", "")+"\t"+split[1].replaceAll("\"", "");
+	}
+
+	private static void close(BufferedReader reader){
+		if (reader != null){
+			try {
+				reader.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+
+import main.Netter;
+import settings.CurrentSettings;
+
+
+/**
+ * RegressionProbe runs Netter on a single configuration file in its own virtual machine and writes the measurements as key=value lines, it is started by RegressionRunner.
+ *
+ * Arguments: the configuration file, the gold standard and the result file.
+ *
+ * The moves per second are the iterations of the finished re-rankings divided by the summed time of their annealing loops, the throughput of a single worker.
+ * The allocated bytes are sampled from the running threads every SAMPLE_MILLIS milliseconds, so allocations in the last moments of a thread can be missed.
+ * The peak resident set size is read from /proc/self/status and is -1 on systems without it.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class RegressionProbe {
+
+	/**
+	 * Interval between two samples of the allocated bytes
+	 */
+	private static final long SAMPLE_MILLIS = 20;
+
+	/**
+	 * Highest amount of allocated bytes seen per thread
+	 */
+	private static final HashMap<Long, Long> allocated = new HashMap<Long, Long>();
+
+
+	public static void main(String[] args) throws IOException {
+
+		if (args.length != 3){
+			System.err.println("Usage: RegressionProbe <configuration file> <gold standard> <result file> ABORTING");
+			System.exit(-1);
+		}
+
+		Thread sampler = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (!Thread.currentThread().isInterrupted()){
+					sampleAllocations();
+					try {
+						Thread.sleep(SAMPLE_MILLIS);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "allocation-sampler");
+		sampler.setDaemon(true);
+		sampler.start();
+
+		Netter netter = new Netter();
+		long start = System.nanoTime();
+		netter.nett(new String[]{args[0]});
+		long wallNanos = System.nanoTime() - start;
+
+		sampler.interrupt();
+		sampleAllocations();
+		long allocatedBytes = 0;
+		synchronized (allocated) {
+			for (long bytes : allocated.values()){
+				allocatedBytes += bytes;
+			}
+		}
+
+		// the throughput of the annealing loops only, reading, partitioning and writing the rankings are left out
+		CurrentSettings settings = netter.getCurrentSettings();
+		long moves = netter.getEnsemble().getAnnealingMoves();
+		double annealingSeconds = netter.getEnsemble().getAnnealingMillis() / 1e3;
+		File ranking = new File(settings.getOutputDirString()+ settings.getOutputSuffix()+"--"+ "-ENSEMBLE-second.txt");
+		double[] quality = new RankingQuality(new File(args[1])).evaluate(ranking, settings.getCutoff());
+		double seconds = wallNanos / 1e9;
+
+		PrintWriter writer = new PrintWriter(new FileWriter(args[2]));
+		writer.println("wallMillis="+(wallNanos / 1000000));
+		writer.println("movesPerSecond="+(annealingSeconds == 0 ? 0 : moves / annealingSeconds));
+		writer.println("peakRssBytes="+peakRss());
+		writer.println("allocatedBytesPerSecond="+(allocatedBytes / seconds));
+		writer.println("finalFitness="+netter.getEnsemble().getMeanFinalFitness());
+		writer.println("averagePrecision="+quality[0]);
+		writer.println("precisionAtCutoff="+quality[1]);
+		writer.close();
+		System.exit(0);
+	}
+
+
+	// private methods
+
+	private static void sampleAllocations(){
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!(threads instanceof com.sun.management.ThreadMXBean)){
+			return;
+		}
+		long[] ids = threads.getAllThreadIds();
+		long[] bytes = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(ids);
+		synchronized (allocated) {
+			for (int i = 0 ; i < ids.length ; i++){
+				Long previous = allocated.get(ids[i]);
+				if (bytes[i] > 0 && (previous == null || bytes[i] > previous)){
+					allocated.put(ids[i], bytes[i]);
+				}
+			}
+		}
+	}
+
+	// returns the peak resident set size in bytes, -1 if unknown
+	private static long peakRss(){
+		File status = new File("/proc/self/status");
+		if (!status.exists()){
+			return -1;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(status));
+			String line;
+			while ((line = reader.readLine()) != null){
+				if (line.startsWith("VmHWM:")){
+					return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			if (reader != null){
+				try {
+					reader.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,302 @@
+package benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.management.RuntimeErrorException;
+
+
+/**
+ * RegressionRunner runs Netter end to end on a set of fixed-seed configurations and compares throughput and ranking quality with a JSON baseline.
+ *
+ * Every configuration runs in its own virtual machine (RegressionProbe), so peak memory and allocations are measured per configuration.
+ * The run fails (exit code 1) when the moves per second drop more than throughputTolerance (relative), the average precision or the precision at the cutoff
+ * drop more than qualityTolerance (absolute) or the final fitness rises more than fitnessTolerance (relative) compared to the baseline.
+ *
+ * Arguments are given as key=value pairs:
+ *
+ * configs=small,medium,large	configurations to run, see PRESETS
+ * data=jar/data	test folder with a predictions subfolder
+ * preds=clr.txt	prediction file to re-rank
+ * gold=jar/data/gold/gold.tsv	gold standard used for the ranking quality
+ * seed=42	seed of the re-rankings
+ * workers=2	workers of the ensemble
+ * baseline=regression-baseline.json	baseline to compare with
+ * update=false	write the results as new baseline instead of comparing
+ * out=regression-results.json	file the results are written to
+ * throughputTolerance=0.2
+ * qualityTolerance=0.01
+ * fitnessTolerance=0.05
+ * jvmArgs=	extra arguments of the virtual machines running the configurations, separated by spaces
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class RegressionRunner {
+
+	/**
+	 * The configurations: name, cutoff, maxIterations and totalIterations
+	 */
+	private static final String[][] PRESETS = {
+		{"small", "300", "2000", "4"},
+		{"medium", "1000", "2000", "4"},
+		{"large", "3000", "1000", "2"},
+	};
+
+	/**
+	 * The measurements in report order
+	 */
+	private static final String[] METRICS = {"wallMillis", "movesPerSecond", "peakRssBytes", "allocatedBytesPerSecond", "finalFitness", "averagePrecision", "precisionAtCutoff"};
+
+
+	public static void main(String[] args) throws IOException {
+
+		LinkedHashMap<String,String> options = new LinkedHashMap<String,String>();
+		options.put("configs", "small,medium,large");
+		options.put("data", "jar/data");
+		options.put("preds", "clr.txt");
+		options.put("gold", "jar/data/gold/gold.tsv");
+		options.put("seed", "42");
+		options.put("workers", "2");
+		options.put("baseline", "regression-baseline.json");
+		options.put("update", "false");
+		options.put("out", "regression-results.json");
+		options.put("throughputTolerance", "0.2");
+		options.put("qualityTolerance", "0.01");
+		options.put("fitnessTolerance", "0.05");
+		options.put("jvmArgs", "");
+
+		for (String arg : args){
+			String[] split = arg.split("=", 2);
+			if (split.length != 2 || !options.containsKey(split[0])){
+				System.err.println("Unknown argument: "+arg+", known arguments are "+options.keySet()+" ABORTING");
+				System.exit(-1);
+			}
+			options.put(split[0], split[1]);
+		}
+
+		File work = createWorkFolder();
+		LinkedHashMap<String, LinkedHashMap<String, Double>> results = new LinkedHashMap<String, LinkedHashMap<String, Double>>();
+		for (String name : options.get("configs").split(",")){
+			String[] preset = preset(name);
+			System.out.println("Running configuration "+name+" (cutoff "+preset[1]+", maxIterations "+preset[2]+", totalIterations "+preset[3]+")");
+			results.put(name, run(preset, options, work));
+			System.out.println(format(results.get(name)));
+		}
+		writeJson(new File(options.get("out")), results);
+
+		File baselineFile = new File(options.get("baseline"));
+		if (Boolean.parseBoolean(options.get("update")) || !baselineFile.exists()){
+			writeJson(baselineFile, results);
+			System.out.println("Wrote baseline "+baselineFile.getPath());
+			return;
+		}
+
+		LinkedHashMap<String, LinkedHashMap<String, Double>> baseline = readJson(baselineFile);
+		boolean regressed = false;
+		for (String name : results.keySet()){
+			if (!baseline.containsKey(name)){
+				System.out.println(name+"\tnot in baseline, skipped");
+				continue;
+			}
+			regressed |= compare(name, baseline.get(name), results.get(name), options);
+		}
+		if (regressed){
+			System.out.println("REGRESSION compared to "+baselineFile.getPath());
+			System.exit(1);
+		}
+		System.out.println("No regressions compared to "+baselineFile.getPath());
+	}
+
+
+	// private methods
+
+	private static String[] preset(String name){
+		for (String[] preset : PRESETS){
+			if (preset[0].equals(name)){
+				return preset;
+			}
+		}
+		System.err.println("Unknown configuration: "+name+" ABORTING");
+		System.exit(-1);
+		return null;
+	}
+
+	// runs a single configuration in a new virtual machine and returns its measurements
+	private static LinkedHashMap<String, Double> run(String[] preset, LinkedHashMap<String,String> options, File work) throws IOException {
+
+		File config = new File(work, preset[0]+".txt");
+		PrintWriter writer = new PrintWriter(new FileWriter(config));
+		writer.println("testDir="+new File(options.get("data")).getAbsolutePath());
+		writer.println("preds="+options.get("preds"));
+		writer.println("allPreds=false");
+		writer.println("workersAvailable="+options.get("workers"));
+		writer.println("totalIterations="+preset[3]);
+		writer.println("cutoff="+preset[1]);
+		writer.println("chuncks=50");
+		writer.println("chunckIncrease=0.5");
+		writer.println("modifyEachTurn=50");
+		writer.println("moveEachTurn=50");
+		writer.println("startTemperature=10.0");
+		writer.println("maxIterations="+preset[2]);
+		writer.println("temperatureAutoDetermination=false");
+		writer.println("seed="+options.get("seed"));
+		writer.println("outputDirString="+new File(work, preset[0]+"-output").getAbsolutePath());
+		writer.println("LOGGERS=");
+		writer.println("PENALTIES=");
+		writer.println("AntiDominatePenalty=75.0");
+		writer.println("GraphletG4Penalty=2.0");
+		writer.println("PredictionConfidencePenalty=0.00001");
+		writer.println("TFSparsityPenalty=25.0");
+		writer.close();
+
+		File result = new File(work, preset[0]+"-result.txt");
+		ArrayList<String> command = new ArrayList<String>();
+		command.add(System.getProperty("java.home")+File.separator+"bin"+File.separator+"java");
+		for (String jvmArg : options.get("jvmArgs").trim().split("\\s+")){
+			if (!jvmArg.isEmpty()){
+				command.add(jvmArg);
+			}
+		}
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(RegressionProbe.class.getName());
+		command.add(config.getAbsolutePath());
+		command.add(new File(options.get("gold")).getAbsolutePath());
+		command.add(result.getAbsolutePath());
+
+		ProcessBuilder builder = new ProcessBuilder(command);
+		File log = new File(work, preset[0]+"-log.txt");
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(Redirect.to(log));
+		int exit;
+		try {
+			exit = builder.start().waitFor();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeErrorException(null, "Interrupted while running configuration "+preset[0]);
+		}
+		if (exit != 0 || !result.exists()){
+			throw new RuntimeErrorException(null, "Configuration "+preset[0]+" failed with exit code "+exit+", see "+log.getAbsolutePath());
+		}
+
+		LinkedHashMap<String, Double> measurements = new LinkedHashMap<String, Double>();
+		BufferedReader reader = new BufferedReader(new FileReader(result));
+		String line;
+		while ((line = reader.readLine()) != null){
+			String[] split = line.split("=", 2);
+			measurements.put(split[0], Double.parseDouble(split[1]));
+		}
+		reader.close();
+		return measurements;
+	}
+
+	// prints the comparison of a configuration and returns true if it regressed
+	private static boolean compare(String name, LinkedHashMap<String, Double> baseline, LinkedHashMap<String, Double> current, LinkedHashMap<String,String> options){
+
+		double throughputTolerance = Double.parseDouble(options.get("throughputTolerance"));
+		double qualityTolerance = Double.parseDouble(options.get("qualityTolerance"));
+		double fitnessTolerance = Double.parseDouble(options.get("fitnessTolerance"));
+
+		boolean regressed = false;
+		for (String metric : METRICS){
+			Double before = baseline.get(metric);
+			Double after = current.get(metric);
+			if (before == null || after == null){
+				continue;
+			}
+			boolean failed = false;
+			if (metric.equals("movesPerSecond")){
+				failed = after < before * (1 - throughputTolerance);
+			}else if (metric.equals("averagePrecision") || metric.equals("precisionAtCutoff")){
+				failed = after < before - qualityTolerance;
+			}else if (metric.equals("finalFitness")){
+				failed = after > before + Math.abs(before) * fitnessTolerance;
+			}
+			regressed |= failed;
+			double change = before == 0 ? 0 : (after - before) / Math.abs(before) * 100;
+			System.out.println(String.format(Locale.ROOT, "%s\t%s\t%.6g\t%.6g\t%+.1f%%\t%s", name, metric, before, after, change, failed ? "REGRESSED" : "ok"));
+		}
+		return regressed;
+	}
+
+	private static String format(LinkedHashMap<String, Double> measurements){
+		StringBuilder builder = new StringBuilder();
+		for (String metric : measurements.keySet()){
+			builder.append(metric).append("=").append(measurements.get(metric)).append("  ");
+		}
+		return builder.toString().trim();
+	}
+
+	private static File createWorkFolder() throws IOException {
+		File work = File.createTempFile("netter-regression-", "");
+		if (!work.delete() || !work.mkdirs()){
+			throw new RuntimeErrorException(null, "Could not create a work folder "+work.getPath());
+		}
+		return work;
+	}
+
+	private static void writeJson(File file, LinkedHashMap<String, LinkedHashMap<String, Double>> results) throws IOException {
+		PrintWriter writer = new PrintWriter(new FileWriter(file));
+		writer.println("{");
+		writer.println("  \"configs\": [");
+		int i = 0;
+		for (String name : results.keySet()){
+			StringBuilder builder = new StringBuilder("    {\"name\": \""+name+"\"");
+			for (String metric : results.get(name).keySet()){
+				builder.append(", \"").append(metric).append("\": ").append(results.get(name).get(metric));
+			}
+			builder.append("}");
+			if (++i < results.size()){
+				builder.append(",");
+			}
+			writer.println(builder.toString());
+		}
+		writer.println("  ]");
+		writer.println("}");
+		writer.close();
+	}
+
+	// reads the files written by writeJson
+	private static LinkedHashMap<String, LinkedHashMap<String, Double>> readJson(File file) throws IOException {
+		StringBuilder text = new StringBuilder();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		String line;
+		while ((line = reader.readLine()) != null){
+			text.append(line).append("\n");
+		}
+		reader.close();
+
+		LinkedHashMap<String, LinkedHashMap<String, Double>> results = new LinkedHashMap<String, LinkedHashMap<String, Double>>();
+		Matcher objects = Pattern.compile("\\{[^{}]*\\}").matcher(text);
+		Pattern field = Pattern.compile("\"(\\w+)\"\\s*:\\s*(\"[^\"]*\"|[^,}\\s]+)");
+		while (objects.find()){
+			Matcher fields = field.matcher(objects.group());
+			String name = null;
+			LinkedHashMap<String, Double> measurements = new LinkedHashMap<String, Double>();
+			while (fields.find()){
+				if (fields.group(1).equals("name")){
+					name = fields.group(2).replaceAll("\"", "");
+				}else{
+					measurements.put(fields.group(1), Double.parseDouble(fields.group(2)));
+				}
+			}
+			if (name != null){
+				results.put(name, measurements);
+			}
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * A group of classes benchmarking the annealing hot path: modifying, evaluating, committing and reverting a re-ranking and the incremental updates of the extractors.
+ * The JMH benchmarks extend FixtureBenchmark, build them with mvn package and run java -jar jmh/target/benchmarks.jar -h for the available options.
+ * @since 1.0
+ */
+package benchmarks;
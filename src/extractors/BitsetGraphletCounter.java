@@ -0,0 +1,208 @@
+package extractors;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+import network.Network;
+import network.NetworkLayout;
+
+/**
+ * BitsetGraphletCounter counts the graphlets of a network from scratch with bitset neighbourhoods, giving the same counts as GraphletCounterExtractor and IncGraphExtractor.
+ *
+ * The nodes and their neighbours are read from the layout of the network (see NetworkLayout) and every node gets a long[] bitset of its (undirected) neighbours, so the intersection of two neighbourhoods is a word-wise AND and its size a popcount.
+ * First the non-induced counts are calculated from the degrees and the common neighbours of the edges and node pairs:
+ * 3-stars, paths of length 3, cycles of 4 nodes, tailed triangles, diamonds and cliques of 4 nodes. These are then converted to induced graphlet counts.
+ *
+ * The bitsets take (nodes x nodes / 8) bytes, so the counter is meant for the subnetworks of a ranking, see MAX_NODES.
+ * The nodes are counted in parallel when GraphletThreads has been configured with more than one thread.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class BitsetGraphletCounter {
+
+	/**
+	 * Largest amount of nodes counted with bitsets (8 MB of bitsets)
+	 */
+	public static final int MAX_NODES = 8192;
+
+	/**
+	 * Indices of the sums calculated per node
+	 */
+	private static final int EDGES = 0, WEDGES = 1, STARS = 2, PATHS = 3, TRIANGLES = 4, TAILED_TRIANGLES = 5, DIAMONDS = 6, CLIQUES = 7, CYCLES = 8, SUMS = 9;
+
+
+	private BitsetGraphletCounter(){}
+
+
+	/**
+	 * Counts the graphlets of a network from scratch
+	 *
+	 * @param network	the network
+	 * @param graphletCounts	array of 9 receiving the counts, in the order of GraphletCounterExtractor
+	 */
+	public static void count(Network network, int[] graphletCounts){
+
+		// dense ids and adjacency of the layout, hubs first
+		NetworkLayout layout = network.getLayout();
+		int n = layout.getNodeCount();
+		final int[] offsets = layout.getOffsets();
+		final int[] adjacency = layout.getNeighbours();
+
+		// neighbour bitsets
+		int words = (n + 63) >>> 6;
+		final long[][] bits = new long[n][words];
+		for (int i = 0 ; i < n ; i++){
+			for (int k = offsets[i] ; k < offsets[i+1] ; k++){
+				int j = adjacency[k];
+				bits[i][j >>> 6] |= 1L << j;
+			}
+		}
+
+		// every task counts its own nodes with its own scratch bitsets
+		final int tasks = GraphletThreads.getTasks(network.getLinkCount());
+		ArrayList<Callable<long[]>> counters = new ArrayList<Callable<long[]>>(tasks);
+		for (int t = 0 ; t < tasks ; t++){
+			final int first = t;
+			counters.add(new Callable<long[]>() {
+				@Override
+				public long[] call() {
+					return countNodes(first, tasks, bits, offsets, adjacency);
+				}
+			});
+		}
+		long[] sums = new long[SUMS];
+		for (long[] partial : GraphletThreads.invokeAll(counters)){
+			for (int i = 0 ; i < SUMS ; i++){
+				sums[i] += partial[i];
+			}
+		}
+		long edges = sums[EDGES], wedges = sums[WEDGES], stars = sums[STARS], paths = sums[PATHS], triangles = sums[TRIANGLES];
+		long tailedTriangles = sums[TAILED_TRIANGLES], diamonds = sums[DIAMONDS], cliques = sums[CLIQUES], cycles = sums[CYCLES];
+
+		// every triangle is counted by its 3 edges, every clique by its 6 edges, every cycle by its 2 diagonals
+		triangles /= 3;
+		cliques /= 6;
+		cycles /= 2;
+		paths -= 3 * triangles;
+
+		// non-induced to induced counts
+		long inducedDiamonds = diamonds - 6 * cliques;
+		long inducedCycles = cycles - inducedDiamonds - 3 * cliques;
+		long inducedPaws = tailedTriangles - 4 * inducedDiamonds - 12 * cliques;
+		long inducedStars = stars - inducedPaws - 2 * inducedDiamonds - 4 * cliques;
+		long inducedPaths = paths - 2 * inducedPaws - 4 * inducedCycles - 6 * inducedDiamonds - 12 * cliques;
+
+		graphletCounts[0] = (int) edges;
+		graphletCounts[1] = (int) (wedges - 3 * triangles);
+		graphletCounts[2] = (int) triangles;
+		graphletCounts[3] = (int) inducedPaths;
+		graphletCounts[4] = (int) inducedStars;
+		graphletCounts[5] = (int) inducedCycles;
+		graphletCounts[6] = (int) inducedPaws;
+		graphletCounts[7] = (int) inducedDiamonds;
+		graphletCounts[8] = (int) cliques;
+	}
+
+
+	// private methods
+
+	// the sums of the nodes first, first + step, first + 2 step, ... (edges, triangles and cliques are counted once per edge (u,v) with u < v)
+	private static long[] countNodes(int first, int step, long[][] bits, int[] offsets, int[] adjacency){
+
+		int n = bits.length;
+		int words = n == 0 ? 0 : bits[0].length;
+		long edges = 0, wedges = 0, stars = 0, paths = 0, triangles = 0, tailedTriangles = 0, diamonds = 0, cliques = 0, cycles = 0;
+		long[] common = new long[words];
+		long[] twoHop = new long[words];
+
+		for (int u = first ; u < n ; u += step){
+			long d = offsets[u+1] - offsets[u];
+			wedges += d * (d-1) / 2;
+			stars += d * (d-1) * (d-2) / 6;
+			long trianglesAtU = 0;
+
+			for (int k = offsets[u] ; k < offsets[u+1] ; k++){
+				int v = adjacency[k];
+				int commonCount = and(bits[u], bits[v], common);
+				trianglesAtU += commonCount;
+				if (v < u){
+					continue;
+				}
+				// per edge (u,v), u < v
+				edges++;
+				triangles += commonCount;
+				paths += (d-1) * (offsets[v+1] - offsets[v] - 1);
+				diamonds += ((long) commonCount) * (commonCount-1) / 2;
+				// edges within the common neighbours of (u,v)
+				long inner = 0;
+				for (int word = 0 ; word < words ; word++){
+					long w = common[word];
+					while (w != 0){
+						int x = (word << 6) + Long.numberOfTrailingZeros(w);
+						w &= w - 1;
+						inner += andCount(bits[x], common);
+					}
+				}
+				cliques += inner / 2;
+			}
+			trianglesAtU /= 2;
+			tailedTriangles += trianglesAtU * (d-2);
+
+			// node pairs (u,w), u < w, at distance two: cycles through both
+			for (int word = 0 ; word < words ; word++){
+				twoHop[word] = 0;
+			}
+			for (int k = offsets[u] ; k < offsets[u+1] ; k++){
+				long[] neighbours = bits[adjacency[k]];
+				for (int word = 0 ; word < words ; word++){
+					twoHop[word] |= neighbours[word];
+				}
+			}
+			for (int word = u >>> 6 ; word < words ; word++){
+				long w = twoHop[word];
+				while (w != 0){
+					int x = (word << 6) + Long.numberOfTrailingZeros(w);
+					w &= w - 1;
+					if (x <= u){
+						continue;
+					}
+					long shared = andCount(bits[u], bits[x]);
+					cycles += shared * (shared-1) / 2;
+				}
+			}
+		}
+
+		long[] sums = new long[SUMS];
+		sums[EDGES] = edges;
+		sums[WEDGES] = wedges;
+		sums[STARS] = stars;
+		sums[PATHS] = paths;
+		sums[TRIANGLES] = triangles;
+		sums[TAILED_TRIANGLES] = tailedTriangles;
+		sums[DIAMONDS] = diamonds;
+		sums[CLIQUES] = cliques;
+		sums[CYCLES] = cycles;
+		return sums;
+	}
+
+	// writes a AND b to result and returns its popcount
+	private static int and(long[] a, long[] b, long[] result){
+		int count = 0;
+		for (int word = 0 ; word < a.length ; word++){
+			result[word] = a[word] & b[word];
+			count += Long.bitCount(result[word]);
+		}
+		return count;
+	}
+
+	private static int andCount(long[] a, long[] b){
+		int count = 0;
+		for (int word = 0 ; word < a.length ; word++){
+			count += Long.bitCount(a[word] & b[word]);
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,287 @@
+package extractors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import network.Network;
+import network.link.Link;
+import network.node.Node;
+
+/**
+ * DirectedMotifExtractor calculates and keeps track of the directed motif counts of a network, where GraphletCounterExtractor and IncGraphExtractor ignore the direction of the links.
+ *
+ * The links are read as arcs from the transcription factor to the target, links of a node to itself are ignored. The motifs are counted on the arcs, not induced:
+ * 0 feed-forward loops (a->b, b->c and a->c), 1 cascades (a->b->c), 2 feedback loops (a->b->c->a), 3 fan-outs (a->b and a->c), 4 fan-ins (a->c and b->c)
+ * and 5 bi-fans (a->c, a->d, b->c and b->d). A feed-forward loop therefore also holds a cascade, a fan-out and a fan-in.
+ *
+ * When a single arc (x,y) is added or deleted, only the motifs holding that arc change, and these follow from the neighbourhoods of x and y:
+ * the feed-forward loops from the common successors, common predecessors and the paths of two arcs from x to y, the bi-fans from the common predecessors of y and the other successors of x.
+ * The work per arc change is bounded by the degrees of x, y and the successors of x, comparable to an edge change of IncGraphExtractor.
+ * Calculating from scratch adds all arcs one by one to empty neighbourhoods.
+ *
+ * The extractor keeps its own successors and predecessors of every node. An incremental update applies the pending changes of the network (the non-committal links) to them and
+ * remembers the changed arcs, so revert can undo them. The network itself is not changed.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class DirectedMotifExtractor {
+
+	/**
+	 * Indices of the motif counts
+	 */
+	public static final int FEED_FORWARD_LOOPS = 0, CASCADES = 1, FEEDBACK_LOOPS = 2, FAN_OUTS = 3, FAN_INS = 4, BI_FANS = 5, MOTIFS = 6;
+
+	/**
+	 * Shared empty neighbourhood, never changed
+	 */
+	private static final HashSet<Node> EMPTY = new HashSet<Node>();
+
+	/**
+	 * The network on which the motifs are counted
+	 */
+	private Network network;
+
+	/**
+	 * The motif counts
+	 */
+	private long[] motifCounts;
+
+	/**
+	 * The motif counts before the latest incremental update, restored by revert
+	 */
+	private long[] motifCountsPrevious;
+
+	/**
+	 * Indicates if the counts have been calculated from scratch
+	 */
+	private boolean inited;
+
+	/**
+	 * The successors of the nodes
+	 */
+	private HashMap<Node,HashSet<Node>> successors;
+
+	/**
+	 * The predecessors of the nodes
+	 */
+	private HashMap<Node,HashSet<Node>> predecessors;
+
+	/**
+	 * Arcs changed by the latest incremental update, in order, with a flag telling if they were added
+	 */
+	private ArrayList<Link> changedArcs;
+	private ArrayList<Boolean> changedArcsAdded;
+
+
+	/**
+	 * Constructs a new DirectedMotifExtractor associated with a network
+	 *
+	 * @param network	the network which should be associated with this extractor
+	 */
+	public DirectedMotifExtractor(Network network) {
+		this();
+		this.network = network;
+	}
+
+	/**
+	 * Constructs a new DirectedMotifExtractor, the network should be set before calculating
+	 */
+	public DirectedMotifExtractor() {
+		this.motifCounts = new long[MOTIFS];
+		this.motifCountsPrevious = new long[MOTIFS];
+		this.successors = new HashMap<Node,HashSet<Node>>();
+		this.predecessors = new HashMap<Node,HashSet<Node>>();
+		this.changedArcs = new ArrayList<Link>();
+		this.changedArcsAdded = new ArrayList<Boolean>();
+		this.inited = false;
+	}
+
+
+	/**
+	 * Calculates the motif counts from scratch for the currently associated network
+	 */
+	public void update(){
+
+		for (int i = 0 ; i < MOTIFS ; i++){
+			this.motifCounts[i] = 0;
+		}
+		this.successors.clear();
+		this.predecessors.clear();
+		for (Link link : this.network.getLinks()){
+			if (!this.hasArc(link.getTf(), link.getTarget())){
+				this.changeArc(link.getTf(), link.getTarget(), true);
+			}
+		}
+		this.changedArcs.clear();
+		this.changedArcsAdded.clear();
+		this.inited = true;
+	}
+
+	/**
+	 * Calculates the motif counts in an incremental way given lists of links added and deleted.
+	 *
+	 * @param nonCommittalDeleted a list of links deleted from the current network
+	 * @param nonCommittalAdded a list of links added to the network
+	 */
+	public void incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+
+		if (!this.inited){
+			this.update();
+		}
+		System.arraycopy(this.motifCounts, 0, this.motifCountsPrevious, 0, MOTIFS);
+		this.changedArcs.clear();
+		this.changedArcsAdded.clear();
+
+		for (Link link : nonCommittalDeleted){
+			if (this.hasArc(link.getTf(), link.getTarget())){
+				this.changeArc(link.getTf(), link.getTarget(), false);
+				this.changedArcs.add(link);
+				this.changedArcsAdded.add(false);
+			}
+		}
+		for (Link link : nonCommittalAdded){
+			if (!link.getTf().equals(link.getTarget()) && !this.hasArc(link.getTf(), link.getTarget())){
+				this.changeArc(link.getTf(), link.getTarget(), true);
+				this.changedArcs.add(link);
+				this.changedArcsAdded.add(true);
+			}
+		}
+	}
+
+	/**
+	 * Reverts back to the current state of the network associated with this extractor.
+	 *
+	 * Discards any changes made by the latest incremental update.
+	 */
+	public void revert(){
+		for (int i = this.changedArcs.size()-1 ; i >= 0 ; i--){
+			Link link = this.changedArcs.get(i);
+			this.setArc(link.getTf(), link.getTarget(), !this.changedArcsAdded.get(i));
+		}
+		this.changedArcs.clear();
+		this.changedArcsAdded.clear();
+		System.arraycopy(this.motifCountsPrevious, 0, this.motifCounts, 0, MOTIFS);
+	}
+
+	/**
+	 * Returns the fraction of the cascades a->b->c that are closed by an arc a->c into a feed-forward loop, 0 if there are no cascades
+	 *
+	 * @return	the feed-forward ratio
+	 */
+	public double getFeedForwardRatio(){
+		if (this.motifCounts[CASCADES] == 0){
+			return 0.0;
+		}
+		return ((double) this.motifCounts[FEED_FORWARD_LOOPS]) / this.motifCounts[CASCADES];
+	}
+
+
+	// private methods
+
+	private boolean hasArc(Node tf, Node target){
+		HashSet<Node> out = this.successors.get(tf);
+		return out != null && out.contains(target);
+	}
+
+	// adds or deletes the arc (x,y) and changes the counts of all motifs holding it
+	private void changeArc(Node x, Node y, boolean add){
+
+		if (x.equals(y)){
+			return;
+		}
+		int sign = add ? 1 : -1;
+		HashSet<Node> outX = this.neighbours(this.successors, x);
+		HashSet<Node> inX = this.neighbours(this.predecessors, x);
+		HashSet<Node> outY = this.neighbours(this.successors, y);
+		HashSet<Node> inY = this.neighbours(this.predecessors, y);
+		int opposite = outY.contains(x) ? 1 : 0;
+		int arcXY = outX.contains(y) ? 1 : 0;
+
+		// (x,y) as a->b, b->c or a->c of a feed-forward loop
+		long feedForward = commonCount(outX, outY) + commonCount(inX, inY) + commonCount(outX, inY);
+		// (x,y) as a->b or b->c of a cascade
+		long cascades = (outY.size() - opposite) + (inX.size() - opposite);
+		// (x,y) in a cycle x->y->b->x
+		long feedback = commonCount(outY, inX);
+		// (x,y) next to the other successors of x and the other predecessors of y
+		long fanOuts = outX.size() - arcXY;
+		long fanIns = inY.size() - arcXY;
+		// (x,y) as a->c of a bi-fan: another successor d of x and a common predecessor b of y and d
+		long biFans = 0;
+		for (Node d : outX){
+			if (d.equals(y)){
+				continue;
+			}
+			HashSet<Node> inD = this.neighbours(this.predecessors, d);
+			biFans += commonCount(inY, inD) - arcXY;
+		}
+
+		this.motifCounts[FEED_FORWARD_LOOPS] += sign * feedForward;
+		this.motifCounts[CASCADES] += sign * cascades;
+		this.motifCounts[FEEDBACK_LOOPS] += sign * feedback;
+		this.motifCounts[FAN_OUTS] += sign * fanOuts;
+		this.motifCounts[FAN_INS] += sign * fanIns;
+		this.motifCounts[BI_FANS] += sign * biFans;
+
+		this.setArc(x, y, add);
+	}
+
+	private void setArc(Node x, Node y, boolean add){
+		if (add){
+			this.changeableNeighbours(this.successors, x).add(y);
+			this.changeableNeighbours(this.predecessors, y).add(x);
+		}else{
+			this.changeableNeighbours(this.successors, x).remove(y);
+			this.changeableNeighbours(this.predecessors, y).remove(x);
+		}
+	}
+
+	// the successors or predecessors of a node, read only
+	private HashSet<Node> neighbours(HashMap<Node,HashSet<Node>> neighbours, Node node){
+		HashSet<Node> set = neighbours.get(node);
+		return set == null ? EMPTY : set;
+	}
+
+	private HashSet<Node> changeableNeighbours(HashMap<Node,HashSet<Node>> neighbours, Node node){
+		HashSet<Node> set = neighbours.get(node);
+		if (set == null){
+			set = new HashSet<Node>();
+			neighbours.put(node, set);
+		}
+		return set;
+	}
+
+	// the size of the intersection, iterating the smallest set
+	private static long commonCount(HashSet<Node> a, HashSet<Node> b){
+		if (a.size() > b.size()){
+			HashSet<Node> swap = a;
+			a = b;
+			b = swap;
+		}
+		long count = 0;
+		for (Node node : a){
+			if (b.contains(node)){
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// getters and setters
+
+	public long[] getMotifCounts() {
+		return motifCounts;
+	}
+
+	public Network getNetwork() {
+		return network;
+	}
+
+	public void setNetwork(Network network) {
+		this.network = network;
+	}
+
+}
@@ -14,6 +14,8 @@ import network.node.Node;
  * The anti-dominating penalty metric is defined as the ratio between the maximum amount of links originating from a same gene in the network and the total amount
  * of links in the network.
  * 
+ * When a SubnetworkView shared with other metrics of the same network is set, the largest outgoing degree is read from it instead of counting the outgoing links
+ * of the transcription factors. The owner of the view updates and reverts it.
  * 
  * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
  * @version     1.0
@@ -38,6 +40,10 @@ public class DominatingExtractor {
 	 * Indicates if this class currently has the metric calculated
 	 */
 	private boolean inited;
+	/**
+	 * Optional shared degrees of the network, null if the extractor counts the outgoing links itself
+	 */
+	private SubnetworkView view;
 
 	/**
 	 * Constructs a DominatingExtractor without an associated network.
@@ -70,6 +76,9 @@ public class DominatingExtractor {
 		if (!inited) {
 			throw new RuntimeErrorException(null);
 		}
+		if (this.view != null){
+			return (double) this.view.getMaxOutDegree() / (double) this.network.getLinkCount();
+		}
 		return (double) this.dominatorCount / (double) this.network.getLinkCount();
 	}
 
@@ -96,6 +105,11 @@ public class DominatingExtractor {
 	 * 
 	 */
 	public void update() {
+		if (this.view != null){
+			this.view.ensureUpdated();
+			this.inited = true;
+			return;
+		}
 		this.tf.clear();
 		int max = 1;
 		for (Link a : network.getLinks()) {
@@ -122,6 +136,11 @@ public class DominatingExtractor {
 	 */
 	public void incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommitalAdded) {
 
+		if (this.view != null){
+			this.update();
+			return;
+		}
+
 		for (Link a : nonCommitalAdded) {
 			Node b = a.getTf();
 			Integer c = null;
@@ -161,8 +180,20 @@ public class DominatingExtractor {
 	 * 
 	 */
 	public void revert() {
+		if (this.view != null){
+			return;
+		}
 		this.update();
 	}
+	/**
+	 * Reads the largest outgoing degree from a view shared with other metrics of the same network, the owner of the view updates and reverts it.
+	 * 
+	 * @param view the shared view of the associated network
+	 */
+	public void setView(SubnetworkView view) {
+		this.view = view;
+		this.inited = false;
+	}
 	/**
 	 * Performs all actions common for each constructor
 	 */
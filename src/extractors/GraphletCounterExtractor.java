@@ -1,10 +1,12 @@
 package extractors;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import network.Network;
 import network.link.Link;
@@ -16,8 +18,8 @@ import network.node.Node;
  * Graphlets have been introduced as small connected non-isomorphic induced subgraphs of a larger network. 
  * They differ from the concept of network motifs by the fact that an induced subgraph needs to contains all the edges between its
  * nodes which are present in the parent network. This class calculates the 4-node graphlet count of an associated network and can do this both from scratch 
- * as in an incremental update. In time this class should be replaced by the IncGraph model which will do this job in a more efficient way.
- * This class will not be further annotated until it has been replaced by IncGraph.
+ * as in an incremental update. It has been replaced by IncGraphExtractor, which follows the IncGraph model, and is kept as reference to validate it against.
+ * This class will not be further annotated.
  * 
  * 
  * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
@@ -44,7 +46,27 @@ public class GraphletCounterExtractor {
 	private HashMap<Node,ArrayList<Node>> eightLookupAdd;
 	private HashMap<Node,ArrayList<Node>> sevenLookupAdd;
 	private boolean inited ;	
-	private ArrayList<Link> tmpList ;
+	// links paired with a deleted or added opposite link, by position, the undirected edge of such a pair does not change
+	private boolean[] pairedAdded ;
+	private boolean[] pairedDeleted ;
+	// deleted links by tf, chained by position in list order
+	private HashMap<Node,Integer> deletedByTf ;
+	private int[] nextDeleted ;
+	
+	/**
+	 * Ratio of changed links to links of the network from which an incremental update recounts from scratch instead, used by new extractors
+	 */
+	private static volatile double defaultRecountRatio = 0.5;
+	
+	/**
+	 * Ratio of changed links to links of the network from which an incremental update recounts from scratch instead, 0 to always update incrementally
+	 */
+	private double recountRatio;
+	
+	/**
+	 * Network holding the changed links during a recount from scratch, re-used
+	 */
+	private Network recountNetwork;
 
 	
 	public GraphletCounterExtractor(Network network) {
@@ -66,7 +88,11 @@ public class GraphletCounterExtractor {
 		this.eightLookupAdd = new HashMap<Node,ArrayList<Node>> ();
 		this.nodeCountsPrevious = new ArrayList<ArrayList<Integer>> ();
 		this.inited = false;
-		this.tmpList = new ArrayList<Link> ();
+		this.pairedAdded = new boolean[16];
+		this.pairedDeleted = new boolean[16];
+		this.deletedByTf = new HashMap<Node,Integer>();
+		this.nextDeleted = new int[16];
+		this.recountRatio = defaultRecountRatio;
 
 	}
 	
@@ -90,7 +116,11 @@ public class GraphletCounterExtractor {
 		this.eightLookupAdd = new HashMap<Node,ArrayList<Node>> ();
 		this.inited = false;
 		this.nodeCountsPrevious = new ArrayList<ArrayList<Integer>> ();
-		this.tmpList = new ArrayList<Link> ();
+		this.pairedAdded = new boolean[16];
+		this.pairedDeleted = new boolean[16];
+		this.deletedByTf = new HashMap<Node,Integer>();
+		this.nextDeleted = new int[16];
+		this.recountRatio = defaultRecountRatio;
 
 	}
 	
@@ -155,13 +185,31 @@ public class GraphletCounterExtractor {
 		
 		int i = 0;
 		this.nodeToNodeCount.clear();
+		final Node[] ordered = new Node[sizeNodes];
 		for (Node a: network.getNodes()){
 			this.nodeToNodeCount.put(a, i);
-			
-			this.count(a,network,i);
+			ordered[i] = a;
 			i++;
 		}
 		
+		// every node has its own row, so the nodes can be counted in parallel, see GraphletThreads
+		final int tasks = GraphletThreads.getTasks(network.getLinkCount());
+		final Network countedNetwork = this.network;
+		ArrayList<Callable<Object>> counters = new ArrayList<Callable<Object>>(tasks);
+		for (int t = 0 ; t < tasks ; t++){
+			final int first = t;
+			counters.add(new Callable<Object>() {
+				@Override
+				public Object call() {
+					for (int j = first ; j < ordered.length ; j += tasks){
+						count(ordered[j], countedNetwork, j);
+					}
+					return null;
+				}
+			});
+		}
+		GraphletThreads.invokeAll(counters);
+		
 		
 		this.graphletCount();
 		this.graphletFrequency();
@@ -214,7 +262,14 @@ public class GraphletCounterExtractor {
 				
 				tmp.add(this.nodeCountsPrevious.get(i).get(j));
 			}
-			
+
+		}
+		// nodes that were first seen during the reverted update have no backup, they are no longer part of the network
+		for (int i = this.nodeCountsPrevious.size() ; i < this.nodeCounts.size() ; i++){
+			ArrayList<Integer> tmp = this.nodeCounts.get(i);
+			for (int j = 0 ; j < tmp.size(); j++){
+				tmp.set(j, 0);
+			}
 		}
 		this.graphletCount();
 		this.graphletFrequency();
@@ -233,22 +288,61 @@ public class GraphletCounterExtractor {
 			this.update();
 		}
 		
-		tmpList.clear();
-		for (int x = 0 ; x <  nonCommittalAdded.size(); x++){
-			for (int y = 0 ; y <  nonCommittalDeleted.size(); y++){
-				Link xx = nonCommittalAdded.get(x);
-				Link yy = nonCommittalDeleted.get(y);
-				if (xx.isOppositeLink(yy)){
-					tmpList.add(nonCommittalAdded.remove(x));
-					tmpList.add(nonCommittalDeleted.remove(y));
-					x--;
-					break;
-				}
-			}
+		// for large changes counting from scratch is cheaper than the case analysis of every link
+		if (this.recountRatio > 0 && nonCommittalDeleted.size() + nonCommittalAdded.size() > this.recountRatio * this.network.getLinkCount()){
+			this.backup();
+			this.recount(nonCommittalDeleted, nonCommittalAdded);
+			this.graphletCount();
+			this.graphletFrequency();
+			return;
 		}
+		
+		this.pairOppositeLinks(nonCommittalDeleted, nonCommittalAdded);
 		this.tabuList.clear();
 		this.addedList.clear();
-		// make a backup copy
+		this.backup();
+		// do the deletes
+		this.incrementalDelete(nonCommittalDeleted, this.network);
+		// Now do the adds
+		this.incrementalAdd(nonCommittalAdded,this.network);
+		
+		this.graphletCount();
+		this.graphletFrequency();
+
+		
+	}
+	
+	
+	/**
+	 * Returns the ratio of changed links to links of the network from which an incremental update recounts from scratch instead
+	 * 
+	 * @return the ratio, 0 if the extractor always updates incrementally
+	 */
+	public double getRecountRatio() {
+		return recountRatio;
+	}
+	
+	/**
+	 * Sets the ratio of changed links to links of the network from which an incremental update recounts from scratch instead.
+	 * Both ways give the same counts, the best ratio can be measured with the GraphletCrossover benchmark.
+	 * 
+	 * @param recountRatio the ratio, 0 to always update incrementally
+	 */
+	public void setRecountRatio(double recountRatio) {
+		this.recountRatio = recountRatio;
+	}
+	
+	/**
+	 * Sets the recount ratio of all extractors created afterwards, see setRecountRatio
+	 * 
+	 * @param recountRatio the ratio, 0 to always update incrementally
+	 */
+	public static void setDefaultRecountRatio(double recountRatio) {
+		defaultRecountRatio = recountRatio;
+	}
+	
+	// make a backup copy of the node counts, restored by revert
+	private void backup(){
 		for (int i = 0 ; i < this.nodeCounts.size() ; i++){
 			
 			ArrayList<Integer> tmp ;
@@ -262,23 +356,48 @@ public class GraphletCounterExtractor {
 			for (int j = 0 ; j < this.nodeCounts.get(i).size(); j++){
 				tmp.add(this.nodeCounts.get(i).get(j));		}
 		}
-		// do the deletes
-		this.incrementalDelete(nonCommittalDeleted, this.network);
-		// Now do the adds
-		this.incrementalAdd(nonCommittalAdded,this.network);
-		for (int i = 0 ; i < this.tmpList.size(); i+=2){
-			nonCommittalAdded.add(tmpList.get(i));
-			nonCommittalDeleted.add(tmpList.get(i+1));
+	}
+	
+	// counts the node graphlets of the network with the changes from scratch, keeping the node indices of the incremental update
+	private void recount(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+		
+		if (this.recountNetwork == null){
+			this.recountNetwork = new Network();
 		}
 		
-		tmpList.clear();
-		this.graphletCount();
-		this.graphletFrequency();
-
+		HashSet<Link> deleted = new HashSet<Link>(nonCommittalDeleted);
+		ArrayList<Link> links = new ArrayList<Link>(this.network.getLinkCount() + nonCommittalAdded.size());
+		for (Link link : this.network.getLinks()){
+			if (!deleted.contains(link)){
+				links.add(link);
+			}
+		}
+		links.addAll(nonCommittalAdded);
+		this.recountNetwork.addLinksToNetwork(links);
 		
+		// nodes without links after the changes keep zero counts
+		for (ArrayList<Integer> counts : this.nodeCounts){
+			for (int j = 0 ; j < counts.size(); j++){
+				counts.set(j, 0);
+			}
+		}
+		for (Node a : this.recountNetwork.getNodes()){
+			Integer index = this.nodeToNodeCount.get(a);
+			if (index == null){
+				index = this.nodeCounts.size();
+				this.nodeToNodeCount.put(a, index);
+				ArrayList<Integer> counts = new ArrayList<Integer>(9);
+				for (int l = 0 ; l < 9 ; l++){
+					counts.add(0);
+				}
+				this.nodeCounts.add(counts);
+			}
+			this.count(a, this.recountNetwork, index);
+		}
+		// the nodes should not keep the connectivity of the scratch network
+		this.recountNetwork.clear();
 	}
 	
-	
 	private void graphletFrequency() {
 
 
@@ -495,6 +614,42 @@ private void count(Node a,Network networkArg, int indexArray)  {
 
 	}
 	
+	// pairs every added link with the first unpaired deleted opposite link (a hash join on the reversed edge), the lists themselves are not changed
+	private void pairOppositeLinks(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+		
+		int deleted = nonCommittalDeleted.size();
+		int added = nonCommittalAdded.size();
+		if (this.pairedDeleted.length < deleted){
+			this.pairedDeleted = new boolean[Math.max(deleted, 2 * this.pairedDeleted.length)];
+			this.nextDeleted = new int[this.pairedDeleted.length];
+		}
+		if (this.pairedAdded.length < added){
+			this.pairedAdded = new boolean[Math.max(added, 2 * this.pairedAdded.length)];
+		}
+		Arrays.fill(this.pairedDeleted, 0, deleted, false);
+		Arrays.fill(this.pairedAdded, 0, added, false);
+		if (deleted == 0 || added == 0){
+			return;
+		}
+		
+		this.deletedByTf.clear();
+		for (int y = deleted-1 ; y >= 0 ; y--){
+			Integer next = this.deletedByTf.put(nonCommittalDeleted.get(y).getTf(), y);
+			this.nextDeleted[y] = next == null ? -1 : next;
+		}
+		for (int x = 0 ; x < added ; x++){
+			Link link = nonCommittalAdded.get(x);
+			Integer first = this.deletedByTf.get(link.getTarget());
+			for (int y = first == null ? -1 : first ; y >= 0 ; y = this.nextDeleted[y]){
+				if (!this.pairedDeleted[y] && link.isOppositeLink(nonCommittalDeleted.get(y))){
+					this.pairedDeleted[y] = true;
+					this.pairedAdded[x] = true;
+					break;
+				}
+			}
+		}
+	}
+	
 	private void incrementalDelete(ArrayList<Link> deleted, Network net){
 		
 		
@@ -502,6 +657,9 @@ private void count(Node a,Network networkArg, int indexArray)  {
 		
 		for (int i  = 0 ; i < deleted.size(); i++){
 			
+			if (this.pairedDeleted[i]){
+				continue;
+			}
 			Link link = deleted.get(i);
 
 			// get some variables
@@ -525,6 +683,9 @@ private void count(Node a,Network networkArg, int indexArray)  {
 				cont = false;
 				// check if both links are deleted, in this case, something changes after all
 				for (int j = i+1 ; j < deleted.size();j++){ // this way, the second time, no changes will be made
+					if (this.pairedDeleted[j]){
+						continue;
+					}
 					Link linkOpposite = deleted.get(j);
 					if (linkOpposite.isOppositeLink(link)){
 						cont = true; 
@@ -1540,7 +1701,9 @@ private void count(Node a,Network networkArg, int indexArray)  {
 		// second, make adjustments for the added links
 		for (int i = 0 ; i < nonCommittalAdded.size(); i++){
 			
-			
+			if (this.pairedAdded[i]){
+				continue;
+			}
 			Link link = nonCommittalAdded.get(i);
 			
 
@@ -0,0 +1,787 @@
+package extractors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import network.Network;
+import network.link.Link;
+import network.node.Node;
+
+/**
+ * GraphletSampleExtractor estimates the graphlet counts and frequencies of a network from a fixed-size sample of paths, for subnetworks too large to count exactly at every step.
+ *
+ * The links are read as undirected edges, and the counts use the indices of IncGraphExtractor. The counts of the graphlets with 2 and 3 nodes are exact: the edges, wedges and
+ * triangles are kept up to date, as are the amount of (not induced) 3-stars and paths of 4 nodes, which follow from the node degrees, the weights (du-1)(dv-1) of the edges and the triangles.
+ * The reservoir holds a fixed amount of paths of 4 nodes, each uniformly drawn from all such paths. The fraction of the sampled paths whose nodes induce a graphlet, divided by the
+ * amount of paths that graphlet holds (P4 1, C4 4, paw 2, diamond 6, K4 12), times the exact amount of paths, is an unbiased estimate of its count. The stars follow from the exact
+ * amount of 3-stars, which every star, paw, diamond and clique holds 1, 1, 2 and 4 times. The frequencies are ratios of these estimates.
+ *
+ * The reservoir follows every edge change: a deleted edge redraws the sampled paths holding it from all paths, an added edge replaces every sampled path with the probability that a
+ * uniformly drawn path holds it, by a path drawn from the paths holding it. The reservoir therefore stays a uniform sample without recounting. Drawing from all paths picks a middle edge
+ * in proportion to its weight from a Fenwick tree, so the work per edge change is bounded by the degrees of its nodes and the reservoir size.
+ *
+ * The reservoir size follows from the allowed error: with 1 / (4 error^2) paths the standard error of every sampled fraction is at most the error. The random draws start from the seed of the extractor
+ * at every update from scratch, so a run can be repeated by setting the seed (the G4 penalty gets one derived from the seed of the re-ranking and the index of its subnetwork). An incremental update applies the pending changes of the network (the non-committal links) and logs them, so revert can undo them.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class GraphletSampleExtractor {
+
+	/**
+	 * Amount of paths of 4 nodes held by the graphlets 3 to 8
+	 */
+	private static final int[] PATHS_IN_GRAPHLET = {0, 0, 0, 1, 0, 4, 2, 6, 12};
+
+	/**
+	 * Standard error allowed on the sampled fractions of new extractors
+	 */
+	private static volatile double defaultMaxError = 0.01;
+
+	/**
+	 * Smallest amount of links of a subnetwork for which the sampled estimates replace the exact counts, 0 to always count exactly
+	 */
+	private static volatile int sampleLinks = 0;
+
+	/**
+	 * The network on which the graphlets are estimated
+	 */
+	private Network network;
+
+	/**
+	 * The graphlet counts, the counts of 4 nodes rounded estimates
+	 */
+	private int[] graphletCounts;
+
+	/**
+	 * The relative graphlet frequencies
+	 */
+	private double[] freqSingle;
+
+	/**
+	 * Indicates if the counts have been calculated from scratch
+	 */
+	private boolean inited;
+
+	/**
+	 * Generator of the draws of the reservoir
+	 */
+	private Random random;
+
+	/**
+	 * Seed of the draws, set again at every update from scratch
+	 */
+	private long seed;
+
+	/**
+	 * The current links and the neighbourhoods of the nodes
+	 */
+	private HashSet<Link> links;
+	private HashMap<Node,Neighbourhood> neighbourhoods;
+
+	/**
+	 * The nodes of the edges by slot, free slots and the Fenwick tree of the edge weights (du-1)(dv-1)
+	 */
+	private Node[] edgeU, edgeV;
+	private long[] weights;
+	private long[] fenwick;
+	private ArrayList<Integer> freeSlots;
+	private int slots;
+
+	/**
+	 * Exact totals: edges, wedges, triangles, 3-stars and the sum of the edge weights
+	 */
+	private long edges, wedges, triangles, threeStars, pathWeight;
+
+	/**
+	 * The reservoir of paths, in path order, null when the network has no paths of 4 nodes
+	 */
+	private Node[][] reservoir;
+
+	/**
+	 * The graphlet induced by every sampled path (-1 for none) and the amount of sampled paths per graphlet
+	 */
+	private int[] reservoirGraphlets;
+	private int[] sampled;
+	private int sampledPaths;
+
+	/**
+	 * Changes of the latest incremental update, in order, undone by revert
+	 */
+	private ArrayList<Change> changes;
+
+
+	/**
+	 * Constructs a new GraphletSampleExtractor associated with a network
+	 *
+	 * @param network	the network which should be associated with this extractor
+	 */
+	public GraphletSampleExtractor(Network network) {
+		this();
+		this.network = network;
+	}
+
+	/**
+	 * Constructs a new GraphletSampleExtractor, the network should be set before calculating.
+	 * The reservoir size follows from the default error, see setDefaultMaxError.
+	 */
+	public GraphletSampleExtractor() {
+		this.graphletCounts = new int[9];
+		this.freqSingle = new double[9];
+		this.random = new Random();
+		this.seed = this.random.nextLong();
+		this.links = new HashSet<Link>();
+		this.neighbourhoods = new HashMap<Node,Neighbourhood>();
+		this.freeSlots = new ArrayList<Integer>();
+		this.changes = new ArrayList<Change>();
+		this.setMaxError(defaultMaxError);
+		this.inited = false;
+	}
+
+
+	/**
+	 * Sets the allowed standard error of the sampled fractions of new extractors
+	 *
+	 * @param maxError	the allowed error, larger than 0
+	 */
+	public static void setDefaultMaxError(double maxError){
+		defaultMaxError = maxError;
+	}
+
+	/**
+	 * Returns the smallest amount of links of a subnetwork for which the sampled estimates replace the exact counts
+	 *
+	 * @return	the amount of links, 0 if the graphlets are always counted exactly
+	 */
+	public static int getSampleLinks(){
+		return sampleLinks;
+	}
+
+	/**
+	 * Sets the smallest amount of links of a subnetwork for which the sampled estimates replace the exact counts
+	 *
+	 * @param links	the amount of links, 0 to always count exactly
+	 */
+	public static void setSampleLinks(int links){
+		sampleLinks = links;
+	}
+
+	/**
+	 * Indicates if the graphlets of a network should be estimated instead of counted exactly
+	 *
+	 * @param network	the network
+	 * @return	true if sampling is on and the network has at least the amount of links of setSampleLinks
+	 */
+	public static boolean isSampled(Network network){
+		int links = sampleLinks;
+		return links > 0 && network.getLinkCount() >= links;
+	}
+
+	/**
+	 * Sets the allowed standard error of the sampled fractions, which sets the reservoir size to 1 / (4 error^2) paths. Takes effect at the next update from scratch.
+	 *
+	 * @param maxError	the allowed error, larger than 0
+	 */
+	public void setMaxError(double maxError){
+		int size = (int) Math.ceil(1.0 / (4.0 * maxError * maxError));
+		this.reservoir = new Node[size][];
+		this.reservoirGraphlets = new int[size];
+		this.sampled = new int[9];
+		this.inited = false;
+	}
+
+	/**
+	 * Calculates the exact totals and draws the reservoir from scratch for the currently associated network
+	 */
+	public void update(){
+
+		this.links.clear();
+		this.neighbourhoods.clear();
+		this.freeSlots.clear();
+		this.slots = 0;
+		this.edgeU = new Node[16];
+		this.edgeV = new Node[16];
+		this.weights = new long[16];
+		this.fenwick = new long[17];
+		this.edges = 0;
+		this.wedges = 0;
+		this.triangles = 0;
+		this.threeStars = 0;
+		this.pathWeight = 0;
+		this.random.setSeed(this.seed);
+
+		for (Link link : this.network.getLinks()){
+			this.addLink(link.getTf(), link.getTarget(), false);
+		}
+		this.sampled = new int[9];
+		this.sampledPaths = 0;
+		for (int slot = 0 ; slot < this.reservoir.length ; slot++){
+			this.reservoir[slot] = null;
+			this.reservoirGraphlets[slot] = -1;
+			this.setSlot(slot, this.drawPath(), false);
+		}
+		this.changes.clear();
+
+		this.graphletFrequency();
+		this.inited = true;
+	}
+
+	/**
+	 * Calculates the graphlet estimates and frequencies in an incremental way given lists of links added and deleted.
+	 *
+	 * @param nonCommittalDeleted a list of links deleted from the current network
+	 * @param nonCommittalAdded a list of links added to the network
+	 */
+	public void incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+
+		if (!this.inited){
+			this.update();
+		}
+		this.changes.clear();
+		for (Link link : nonCommittalDeleted){
+			this.deleteLink(link.getTf(), link.getTarget(), true);
+		}
+		for (Link link : nonCommittalAdded){
+			this.addLink(link.getTf(), link.getTarget(), true);
+		}
+
+		this.graphletFrequency();
+	}
+
+	/**
+	 * Reverts back to the current state of the network associated with this extractor.
+	 *
+	 * Discards any changes made by the latest incremental update.
+	 */
+	public void revert(){
+		for (int i = this.changes.size()-1 ; i >= 0 ; i--){
+			Change change = this.changes.get(i);
+			if (change.slot >= 0){
+				this.restoreSlot(change.slot, change.path, change.graphlet);
+			}else if (change.edge){
+				this.changeEdge(change.u, change.v, !change.added);
+			}else if (change.added){
+				this.links.remove(new Link(change.u, change.v, null));
+			}else{
+				this.links.add(new Link(change.u, change.v, null));
+			}
+		}
+		this.changes.clear();
+		this.graphletFrequency();
+	}
+
+
+	// private methods
+
+	private void addLink(Node tf, Node target, boolean log){
+		if (tf.equals(target) || !this.links.add(new Link(tf, target, null))){
+			return;
+		}
+		if (log){
+			this.changes.add(new Change(tf, target, false, true));
+		}
+		if (!this.links.contains(new Link(target, tf, null))){
+			this.changeEdge(tf, target, true);
+			if (log){
+				this.changes.add(new Change(tf, target, true, true));
+				this.edgeChanged(tf, target, true);
+				this.edgeAdded(tf, target);
+			}
+		}
+	}
+
+	private void deleteLink(Node tf, Node target, boolean log){
+		if (!this.links.remove(new Link(tf, target, null))){
+			return;
+		}
+		if (log){
+			this.changes.add(new Change(tf, target, false, false));
+		}
+		if (!this.links.contains(new Link(target, tf, null))){
+			this.changeEdge(tf, target, false);
+			if (log){
+				this.changes.add(new Change(tf, target, true, false));
+				this.edgeChanged(tf, target, false);
+			}
+		}
+	}
+
+	// adds or deletes the edge (u,v) and updates the exact totals and the edge weights
+	private void changeEdge(Node u, Node v, boolean add){
+
+		Neighbourhood nu = this.neighbourhood(u);
+		Neighbourhood nv = this.neighbourhood(v);
+		long common = nu.commonCount(nv);
+		int sign = add ? 1 : -1;
+
+		if (!add){
+			this.freeSlot(nu.edgeTo(v));
+			nu.remove(v);
+			nv.remove(u);
+		}
+		// degrees without the edge
+		long du = nu.size();
+		long dv = nv.size();
+
+		this.edges += sign;
+		this.wedges += sign * (du + dv);
+		this.triangles += sign * common;
+		this.threeStars += sign * (du * (du-1) / 2 + dv * (dv-1) / 2);
+
+		// the weights of the other edges of u and v grow or shrink with dw-1
+		this.changeWeights(nu, sign);
+		this.changeWeights(nv, sign);
+
+		if (add){
+			int slot = this.allocateSlot(u, v);
+			nu.add(v, slot);
+			nv.add(u, slot);
+			this.setWeight(slot, du * dv);
+		}else{
+			if (nu.size() == 0){
+				this.neighbourhoods.remove(u);
+			}
+			if (nv.size() == 0){
+				this.neighbourhoods.remove(v);
+			}
+		}
+	}
+
+	private void changeWeights(Neighbourhood node, int sign){
+		for (int i = 0 ; i < node.size() ; i++){
+			long dw = this.neighbourhood(node.get(i)).size();
+			int slot = node.edge(i);
+			this.setWeight(slot, this.weights[slot] + sign * (dw-1));
+		}
+	}
+
+	// sampled paths with both nodes of the changed edge (u,v) change graphlet, or are redrawn from all paths if the deleted edge was one of their edges (nodes are unique, see Node.createNode)
+	private void edgeChanged(Node u, Node v, boolean add){
+		for (int slot = 0 ; slot < this.reservoir.length ; slot++){
+			Node[] path = this.reservoir[slot];
+			if (path == null){
+				continue;
+			}
+			int positionU = -1;
+			int positionV = -1;
+			for (int i = 0 ; i < 4 ; i++){
+				if (path[i] == u){
+					positionU = i;
+				}else if (path[i] == v){
+					positionV = i;
+				}
+			}
+			if (positionU < 0 || positionV < 0){
+				continue;
+			}
+			if (!add && Math.abs(positionU - positionV) == 1){
+				this.setSlot(slot, this.drawPath(), true);
+			}else{
+				this.setSlot(slot, path, true);
+			}
+		}
+	}
+
+	// every sampled path is replaced by a path holding the added edge (u,v) with the probability that a uniformly drawn path holds it
+	private void edgeAdded(Node u, Node v){
+
+		Neighbourhood nu = this.neighbourhood(u);
+		Neighbourhood nv = this.neighbourhood(v);
+		long du = nu.size();
+		long dv = nv.size();
+
+		// paths with (u,v) in the middle, and paths v-u-w-x and u-v-w-x
+		long middle = (du-1) * (dv-1) - nu.commonCount(nv);
+		long[] endsAtU = this.endWeights(nu, v, nv);
+		long[] endsAtV = this.endWeights(nv, u, nu);
+		long holding = middle + endsAtU[endsAtU.length-1] + endsAtV[endsAtV.length-1];
+		long paths = this.getPaths();
+		if (holding == 0){
+			return;
+		}
+		// the slots to replace, skipping a geometrically distributed amount of slots between them
+		double replace = ((double) holding) / paths;
+		double logKeep = Math.log(1.0 - replace);
+		for (int slot = this.skip(logKeep) ; slot < this.reservoir.length ; slot += 1 + this.skip(logKeep)){
+			Node[] path;
+			long r = (long) (this.random.nextDouble() * holding);
+			if (r < middle){
+				// middle leaves out the triangles u-v-w, so a draw closing one is drawn again
+				do {
+					path = this.drawPath(u, v);
+				} while (path == null);
+			}else if (r < middle + endsAtU[endsAtU.length-1]){
+				path = this.drawEndPath(v, u, nu, endsAtU, r - middle);
+			}else{
+				path = this.drawEndPath(u, v, nv, endsAtV, r - middle - endsAtU[endsAtU.length-1]);
+			}
+			this.setSlot(slot, path, true);
+		}
+	}
+
+	// the amount of slots kept before the next replaced slot
+	private int skip(double logKeep){
+		if (logKeep == Double.NEGATIVE_INFINITY){
+			return 0;
+		}
+		double skip = Math.floor(Math.log(1.0 - this.random.nextDouble()) / logKeep);
+		return skip >= this.reservoir.length ? this.reservoir.length : (int) skip;
+	}
+
+	// puts a path in a slot and classifies it
+	private void setSlot(int slot, Node[] path, boolean log){
+		if (log){
+			this.changes.add(new Change(slot, this.reservoir[slot], this.reservoirGraphlets[slot]));
+		}
+		this.restoreSlot(slot, path, path == null ? -1 : this.graphletOf(path));
+	}
+
+	// puts a path with a known graphlet in a slot
+	private void restoreSlot(int slot, Node[] path, int graphlet){
+		if (this.reservoirGraphlets[slot] >= 0){
+			this.sampled[this.reservoirGraphlets[slot]]--;
+			this.sampledPaths--;
+		}
+		this.reservoir[slot] = path;
+		this.reservoirGraphlets[slot] = graphlet;
+		if (graphlet >= 0){
+			this.sampled[graphlet]++;
+			this.sampledPaths++;
+		}
+	}
+
+	// cumulative weights of the paths other-node-w-x over the neighbours w of node, the total last
+	private long[] endWeights(Neighbourhood node, Node other, Neighbourhood otherNeighbourhood){
+		long[] cumulative = new long[node.size() + 1];
+		long total = 0;
+		for (int i = 0 ; i < node.size() ; i++){
+			Node w = node.get(i);
+			cumulative[i] = total;
+			if (!w.equals(other)){
+				total += this.neighbourhood(w).size() - 1 - (otherNeighbourhood.contains(w) ? 1 : 0);
+			}
+		}
+		cumulative[node.size()] = total;
+		return cumulative;
+	}
+
+	// draws the path first-second-w-x, r uniform below the total of the cumulative weights of the neighbours w of second
+	private Node[] drawEndPath(Node first, Node second, Neighbourhood neighbours, long[] cumulative, long r){
+		int low = 0;
+		int high = neighbours.size() - 1;
+		while (low < high){
+			int middle = (low + high + 1) >>> 1;
+			if (cumulative[middle] <= r){
+				low = middle;
+			}else{
+				high = middle - 1;
+			}
+		}
+		Node w = neighbours.get(low);
+		Neighbourhood nw = this.neighbourhood(w);
+		Node x;
+		do {
+			x = nw.get(this.random.nextInt(nw.size()));
+		} while (x.equals(first) || x.equals(second));
+		return new Node[]{first, second, w, x};
+	}
+
+	// draws a path uniformly from all paths of 4 nodes, null if there are none
+	private Node[] drawPath(){
+		if (this.getPaths() <= 0){
+			return null;
+		}
+		while (true){
+			long r = (long) (this.random.nextDouble() * this.pathWeight);
+			int slot = this.findSlot(Math.min(r, this.pathWeight - 1));
+			Node[] path = this.drawPath(this.edgeU[slot], this.edgeV[slot]);
+			if (path != null){
+				return path;
+			}
+		}
+	}
+
+	// draws a path w-u-v-x with the middle edge (u,v), null when w and x coincide
+	private Node[] drawPath(Node u, Node v){
+		Node w = this.neighbourhood(u).randomOtherThan(v, this.random);
+		Node x = this.neighbourhood(v).randomOtherThan(u, this.random);
+		if (w.equals(x)){
+			return null;
+		}
+		return new Node[]{w, u, v, x};
+	}
+
+	// the graphlet induced by the nodes of a path: the chords p0-p2, p1-p3 and p0-p3 decide
+	private int graphletOf(Node[] path){
+		Neighbourhood first = this.neighbourhood(path[0]);
+		boolean closing = first.contains(path[3]);
+		int chords = (first.contains(path[2]) ? 1 : 0) + (this.neighbourhood(path[1]).contains(path[3]) ? 1 : 0) + (closing ? 1 : 0);
+		if (chords == 0){
+			return 3;
+		}else if (chords == 1){
+			return closing ? 5 : 6;
+		}else if (chords == 2){
+			return 7;
+		}
+		return 8;
+	}
+
+	private long getPaths(){
+		return this.pathWeight - 3 * this.triangles;
+	}
+
+	private void graphletFrequency() {
+
+		// estimates of the graphlets of 4 nodes from the reservoir
+		double[] estimates = new double[9];
+		long paths = this.getPaths();
+		for (int i = 3 ; i < 9 ; i++){
+			if (PATHS_IN_GRAPHLET[i] > 0 && this.sampledPaths > 0){
+				estimates[i] = ((double) this.sampled[i]) / this.sampledPaths * paths / PATHS_IN_GRAPHLET[i];
+			}
+		}
+		estimates[4] = Math.max(0, this.threeStars - estimates[6] - 2 * estimates[7] - 4 * estimates[8]);
+
+		this.graphletCounts[0] = (int) this.edges;
+		this.graphletCounts[1] = (int) (this.wedges - 3 * this.triangles);
+		this.graphletCounts[2] = (int) this.triangles;
+		for (int i = 3 ; i < 9 ; i++){
+			this.graphletCounts[i] = (int) Math.round(estimates[i]);
+		}
+
+		// relative frequencies as calculated by IncGraphExtractor, on the unrounded estimates
+		double sum1 = this.graphletCounts[1] + this.graphletCounts[2];
+		double sum2 = 0;
+		for (int i = 3 ; i < 9 ; i++){
+			sum2 += estimates[i];
+		}
+		this.freqSingle[0] = 100;
+		for (int i = 1 ; i < 3 ; i++){
+			this.freqSingle[i] = sum1 == 0 ? 0 : this.graphletCounts[i] / sum1;
+		}
+		if (sum2 == 0){
+			for (int i = 1 ; i < 3 ; i++){
+				this.freqSingle[i] = 0;
+			}
+		}else{
+			for (int i = 3 ; i < 9 ; i++){
+				this.freqSingle[i] = estimates[i] / sum2;
+			}
+		}
+	}
+
+	private Neighbourhood neighbourhood(Node node){
+		Neighbourhood neighbourhood = this.neighbourhoods.get(node);
+		if (neighbourhood == null){
+			neighbourhood = new Neighbourhood();
+			this.neighbourhoods.put(node, neighbourhood);
+		}
+		return neighbourhood;
+	}
+
+	private int allocateSlot(Node u, Node v){
+		int slot;
+		if (!this.freeSlots.isEmpty()){
+			slot = this.freeSlots.remove(this.freeSlots.size()-1);
+		}else{
+			if (this.slots == this.weights.length){
+				this.grow();
+			}
+			slot = this.slots++;
+		}
+		this.edgeU[slot] = u;
+		this.edgeV[slot] = v;
+		return slot;
+	}
+
+	private void freeSlot(int slot){
+		this.setWeight(slot, 0);
+		this.edgeU[slot] = null;
+		this.edgeV[slot] = null;
+		this.freeSlots.add(slot);
+	}
+
+	private void grow(){
+		int capacity = 2 * this.weights.length;
+		this.edgeU = Arrays.copyOf(this.edgeU, capacity);
+		this.edgeV = Arrays.copyOf(this.edgeV, capacity);
+		this.weights = Arrays.copyOf(this.weights, capacity);
+		this.fenwick = new long[capacity + 1];
+		for (int slot = 0 ; slot < this.slots ; slot++){
+			for (int i = slot + 1 ; i <= capacity ; i += i & -i){
+				this.fenwick[i] += this.weights[slot];
+			}
+		}
+	}
+
+	private void setWeight(int slot, long weight){
+		long delta = weight - this.weights[slot];
+		this.weights[slot] = weight;
+		this.pathWeight += delta;
+		for (int i = slot + 1 ; i < this.fenwick.length ; i += i & -i){
+			this.fenwick[i] += delta;
+		}
+	}
+
+	// the slot in which the cumulative weight passes r
+	private int findSlot(long r){
+		int position = 0;
+		int step = Integer.highestOneBit(this.fenwick.length - 1);
+		for ( ; step > 0 ; step >>>= 1){
+			int next = position + step;
+			if (next < this.fenwick.length && this.fenwick[next] <= r){
+				position = next;
+				r -= this.fenwick[next];
+			}
+		}
+		return position;
+	}
+
+
+	/**
+	 * The neighbours of a node in random access order, with the slots of their edges
+	 */
+	private static class Neighbourhood {
+
+		private ArrayList<Node> nodes = new ArrayList<Node>();
+		private ArrayList<Integer> edges = new ArrayList<Integer>();
+		private HashMap<Node,Integer> positions = new HashMap<Node,Integer>();
+
+		int size(){
+			return this.nodes.size();
+		}
+
+		Node get(int i){
+			return this.nodes.get(i);
+		}
+
+		int edge(int i){
+			return this.edges.get(i);
+		}
+
+		int edgeTo(Node node){
+			return this.edges.get(this.positions.get(node));
+		}
+
+		boolean contains(Node node){
+			return this.positions.containsKey(node);
+		}
+
+		void add(Node node, int edge){
+			this.positions.put(node, this.nodes.size());
+			this.nodes.add(node);
+			this.edges.add(edge);
+		}
+
+		// moves the last neighbour to the position of the removed one
+		void remove(Node node){
+			int position = this.positions.remove(node);
+			int last = this.nodes.size() - 1;
+			if (position != last){
+				Node moved = this.nodes.get(last);
+				this.nodes.set(position, moved);
+				this.edges.set(position, this.edges.get(last));
+				this.positions.put(moved, position);
+			}
+			this.nodes.remove(last);
+			this.edges.remove(last);
+		}
+
+		// a uniformly drawn neighbour other than the given neighbour
+		Node randomOtherThan(Node node, Random random){
+			int i = random.nextInt(this.nodes.size() - 1);
+			if (i >= this.positions.get(node)){
+				i++;
+			}
+			return this.nodes.get(i);
+		}
+
+		long commonCount(Neighbourhood other){
+			Neighbourhood small = this.size() <= other.size() ? this : other;
+			Neighbourhood large = small == this ? other : this;
+			long count = 0;
+			for (Node node : small.nodes){
+				if (large.contains(node)){
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+
+	/**
+	 * A change of a link, an edge or a reservoir slot (with its previous path and graphlet), undone by revert
+	 */
+	private static class Change {
+
+		private Node u, v;
+		private boolean edge, added;
+		private int slot = -1;
+		private Node[] path;
+		private int graphlet;
+
+		Change(Node u, Node v, boolean edge, boolean added){
+			this.u = u;
+			this.v = v;
+			this.edge = edge;
+			this.added = added;
+		}
+
+		Change(int slot, Node[] path, int graphlet){
+			this.slot = slot;
+			this.path = path;
+			this.graphlet = graphlet;
+		}
+	}
+
+
+	// getters and setters
+
+	public int[] getGraphletCounts(){
+		return this.graphletCounts;
+	}
+
+	public double[] getFrequency() {
+		return this.freqSingle;
+	}
+
+	public Network getNetwork() {
+		return network;
+	}
+
+	public void setNetwork(Network network) {
+		this.network = network;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the amount of slots of the reservoir holding a path, the reservoir size unless the network has no paths of 4 nodes
+	 *
+	 * @return	the amount of sampled paths
+	 */
+	public int getSampledPaths() {
+		return sampledPaths;
+	}
+
+	public int getReservoirSize() {
+		return reservoir.length;
+	}
+
+	/**
+	 * Sets the seed of the draws of the reservoir, takes effect at the next update from scratch
+	 *
+	 * @param seed	the seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+}
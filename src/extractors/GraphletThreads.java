@@ -0,0 +1,103 @@
+package extractors;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.management.RuntimeErrorException;
+
+/**
+ * GraphletThreads holds the fork-join pool used to count graphlets from scratch in parallel, shared by all re-rankings.
+ *
+ * The nodes are divided over TASKS_PER_THREAD tasks per thread. Task t counts the nodes t, t + tasks, t + 2 tasks, ... so the high degree nodes at the top of a ranking are spread over the tasks.
+ * Networks with less than MIN_LINKS links, and all networks when the pool is turned off (the default), are counted on the calling thread.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class GraphletThreads {
+
+	/**
+	 * Smallest amount of links of a network counted in parallel
+	 */
+	public static final int MIN_LINKS = 1000;
+
+	/**
+	 * Amount of tasks per thread of the pool
+	 */
+	private static final int TASKS_PER_THREAD = 4;
+
+	/**
+	 * The pool, null when counting is serial
+	 */
+	private static volatile ForkJoinPool pool;
+
+
+	private GraphletThreads(){}
+
+
+	/**
+	 * Sets the amount of threads counting graphlets from scratch
+	 *
+	 * @param threads	the amount of threads, 1 to count on the calling thread
+	 */
+	public static synchronized void configure(int threads){
+		if (pool != null){
+			pool.shutdown();
+			pool = null;
+		}
+		if (threads > 1){
+			pool = new ForkJoinPool(threads);
+		}
+	}
+
+	/**
+	 * Returns the amount of tasks a network should be divided in
+	 *
+	 * @param links	the amount of links of the network
+	 * @return	the amount of tasks, 1 if the network should be counted on the calling thread
+	 */
+	public static int getTasks(int links){
+		ForkJoinPool current = pool;
+		if (current == null || links < MIN_LINKS){
+			return 1;
+		}
+		return current.getParallelism() * TASKS_PER_THREAD;
+	}
+
+	/**
+	 * Runs the tasks and returns their results in the same order, on the calling thread if there is a single task
+	 *
+	 * @param tasks	the tasks
+	 * @return	the results of the tasks
+	 */
+	public static <T> ArrayList<T> invokeAll(ArrayList<Callable<T>> tasks){
+		ArrayList<T> results = new ArrayList<T>(tasks.size());
+		ForkJoinPool current = pool;
+		try {
+			if (current == null || tasks.size() == 1){
+				for (Callable<T> task : tasks){
+					results.add(task.call());
+				}
+				return results;
+			}
+			for (Future<T> future : current.invokeAll(tasks)){
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeErrorException(null, "Interrupted while counting graphlets.");
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Counting graphlets failed: "+e.getCause());
+		} catch (Exception e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Counting graphlets failed: "+e);
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,491 @@
+package extractors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import network.Network;
+import network.link.Link;
+import network.node.Node;
+
+/**
+ * IncGraphExtractor calculates and keeps track of the graphlet counts of a network, following the IncGraph model. It replaces GraphletCounterExtractor and gives the same counts.
+ *
+ * The links are read as undirected edges. The counts are kept per graphlet: 0 edges, 1 induced paths of 3 nodes, 2 triangles, 3 induced paths of 4 nodes, 4 induced stars of 4 nodes,
+ * 5 induced cycles of 4 nodes, 6 paws (a triangle with a pendant edge), 7 diamonds (a cycle of 4 nodes with one chord) and 8 cliques of 4 nodes.
+ *
+ * When a single edge (u,v) is added or deleted, only the node sets holding both u and v can change graphlet. These are the triples with a neighbour of u or v
+ * and the sets of 4 nodes with two neighbours of u or v, or with a neighbour w of u or v and a neighbour of w. For every such set the edges between its nodes are
+ * encoded as a 6 bit mask, and a precomputed table gives its graphlet with and without the edge (u,v). The work per edge change is therefore bounded by the degrees
+ * of u, v and their neighbours. Calculating from scratch uses the bitset neighbourhoods of BitsetGraphletCounter, or for very large networks adds all edges one by one to an empty network.
+ *
+ * An incremental update reads the pending changes of the network (the non-committal links) and keeps its own copy of the changed neighbourhoods, the network itself is not changed.
+ * When more links changed than the recount ratio times the links of the network, the counts are calculated from scratch instead, on a scratch network holding the links after the changes.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class IncGraphExtractor {
+
+	/**
+	 * Graphlet of a set of 4 nodes (u,v,w,x) indexed by its edges: bit 0 uv, 1 uw, 2 ux, 3 vw, 4 vx, 5 wx. -1 if the set is not connected.
+	 */
+	private static final int[] GRAPHLET_OF_EDGES = createGraphletTable();
+
+	/**
+	 * The network on which the graphlets are counted
+	 */
+	private Network network;
+
+	/**
+	 * The graphlet counts
+	 */
+	private int[] graphletCounts;
+
+	/**
+	 * The graphlet counts before the latest incremental update, restored by revert
+	 */
+	private int[] graphletCountsPrevious;
+
+	/**
+	 * The relative graphlet frequencies
+	 */
+	private double[] freqSingle;
+
+	/**
+	 * Indicates if the counts have been calculated from scratch
+	 */
+	private boolean inited;
+
+	/**
+	 * The neighbours of the nodes changed during the current update, other nodes have their neighbours in the network
+	 */
+	private HashMap<Node,HashSet<Node>> changedNeighbours;
+
+	/**
+	 * Indicates that nodes without changed neighbours have no neighbours at all, used when calculating from scratch
+	 */
+	private boolean emptyNetwork;
+
+	/**
+	 * Links deleted and added by the current update, re-used
+	 */
+	private HashSet<Link> deleted, added;
+
+	/**
+	 * The neighbours of u or v during an edge change, re-used
+	 */
+	private ArrayList<Node> candidates;
+
+	/**
+	 * Ratio of changed links to links of the network from which an incremental update counts from scratch instead, used by new extractors
+	 */
+	private static volatile double defaultRecountRatio = 0.05;
+
+	/**
+	 * Ratio of changed links to links of the network from which an incremental update counts from scratch instead, 0 to always update incrementally
+	 */
+	private double recountRatio;
+
+	/**
+	 * Network holding the changed links during a count from scratch, re-used
+	 */
+	private Network recountNetwork;
+
+
+	/**
+	 * Constructs a new IncGraphExtractor associated with a network
+	 *
+	 * @param network	the network which should be associated with this extractor
+	 */
+	public IncGraphExtractor(Network network) {
+		this();
+		this.network = network;
+	}
+
+	/**
+	 * Constructs a new IncGraphExtractor, the network should be set before calculating
+	 */
+	public IncGraphExtractor() {
+		this.graphletCounts = new int[9];
+		this.graphletCountsPrevious = new int[9];
+		this.freqSingle = new double[9];
+		this.changedNeighbours = new HashMap<Node,HashSet<Node>>();
+		this.deleted = new HashSet<Link>();
+		this.added = new HashSet<Link>();
+		this.candidates = new ArrayList<Node>();
+		this.recountRatio = defaultRecountRatio;
+		this.inited = false;
+	}
+
+
+	/**
+	 * Calculates the graphlet counts from scratch for the currently associated network
+	 */
+	public void update(){
+
+		this.count(this.network);
+		this.graphletFrequency();
+		this.inited = true;
+	}
+
+	/**
+	 * Calculates the graphlet counts and frequencies in an incremental way given lists of links added and deleted.
+	 * Only the edges that appear or disappear are counted: deleting a link and adding its opposite link leaves the edge unchanged.
+	 *
+	 * @param nonCommittalDeleted a list of links deleted from the current network
+	 * @param nonCommittalAdded a list of links added to the network
+	 */
+	public void incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+
+		if (!this.inited){
+			this.update();
+		}
+		System.arraycopy(this.graphletCounts, 0, this.graphletCountsPrevious, 0, this.graphletCounts.length);
+
+		// for large changes counting from scratch is cheaper than changing every edge
+		if (this.recountRatio > 0 && nonCommittalDeleted.size() + nonCommittalAdded.size() > this.recountRatio * this.network.getLinkCount()){
+			this.recount(nonCommittalDeleted, nonCommittalAdded);
+			this.graphletFrequency();
+			return;
+		}
+
+		this.deleted.clear();
+		this.added.clear();
+		this.deleted.addAll(nonCommittalDeleted);
+		this.added.addAll(nonCommittalAdded);
+
+		for (Link link : nonCommittalDeleted){
+			this.changeIfNeeded(link.getTf(), link.getTarget());
+		}
+		for (Link link : nonCommittalAdded){
+			this.changeIfNeeded(link.getTf(), link.getTarget());
+		}
+		this.changedNeighbours.clear();
+		this.deleted.clear();
+		this.added.clear();
+
+		this.graphletFrequency();
+	}
+
+	/**
+	 * Reverts back to the current state of the network associated with this extractor.
+	 *
+	 * Discards any changes made by the latest incremental update.
+	 */
+	public void revert(){
+		System.arraycopy(this.graphletCountsPrevious, 0, this.graphletCounts, 0, this.graphletCounts.length);
+		this.graphletFrequency();
+	}
+
+
+	/**
+	 * Returns the ratio of changed links to links of the network from which an incremental update counts from scratch instead
+	 *
+	 * @return the ratio, 0 if the extractor always updates incrementally
+	 */
+	public double getRecountRatio() {
+		return recountRatio;
+	}
+
+	/**
+	 * Sets the ratio of changed links to links of the network from which an incremental update counts from scratch instead.
+	 * Both ways give the same counts, the best ratio can be measured with the GraphletCrossover benchmark.
+	 *
+	 * @param recountRatio the ratio, 0 to always update incrementally
+	 */
+	public void setRecountRatio(double recountRatio) {
+		this.recountRatio = recountRatio;
+	}
+
+	/**
+	 * Sets the recount ratio of all extractors created afterwards, see setRecountRatio
+	 *
+	 * @param recountRatio the ratio, 0 to always update incrementally
+	 */
+	public static void setDefaultRecountRatio(double recountRatio) {
+		defaultRecountRatio = recountRatio;
+	}
+
+
+	// private methods
+
+	// counts from scratch the committed links of a network
+	private void count(Network network){
+		if (network.getNodeCount() <= BitsetGraphletCounter.MAX_NODES){
+			BitsetGraphletCounter.count(network, this.graphletCounts);
+		}else{
+			this.addAllEdges(network);
+		}
+	}
+
+	// counts from scratch the links of the network after the changes, in a scratch network
+	private void recount(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommittalAdded){
+
+		if (this.recountNetwork == null){
+			this.recountNetwork = new Network();
+		}
+		this.deleted.clear();
+		this.deleted.addAll(nonCommittalDeleted);
+		ArrayList<Link> links = new ArrayList<Link>(this.network.getLinkCount() + nonCommittalAdded.size());
+		for (Link link : this.network.getLinks()){
+			if (!this.deleted.contains(link)){
+				links.add(link);
+			}
+		}
+		links.addAll(nonCommittalAdded);
+		this.deleted.clear();
+		this.recountNetwork.addLinksToNetwork(links);
+
+		this.count(this.recountNetwork);
+		// the nodes should not keep the connectivity of the scratch network
+		this.recountNetwork.clear();
+	}
+
+	// counts from scratch by adding all edges to an empty network
+	private void addAllEdges(Network network){
+		for (int i = 0 ; i < this.graphletCounts.length ; i++){
+			this.graphletCounts[i] = 0;
+		}
+		this.changedNeighbours.clear();
+		this.emptyNetwork = true;
+		for (Link link : network.getLinks()){
+			if (!this.neighbours(link.getTf()).contains(link.getTarget())){
+				this.changeEdge(link.getTf(), link.getTarget(), true);
+			}
+		}
+		this.changedNeighbours.clear();
+		this.emptyNetwork = false;
+	}
+
+	// changes the edge between a and b if the pending links make it appear or disappear
+	private void changeIfNeeded(Node a, Node b){
+		boolean before = this.neighbours(a).contains(b);
+		boolean after = this.hasLinkAfterChanges(a, b) || this.hasLinkAfterChanges(b, a);
+		if (before != after){
+			this.changeEdge(a, b, after);
+		}
+	}
+
+	private boolean hasLinkAfterChanges(Node tf, Node target){
+		Link link = new Link(tf, target, null);
+		if (this.added.contains(link)){
+			return true;
+		}
+		if (this.deleted.contains(link)){
+			return false;
+		}
+		ArrayList<Node> outGoing = tf.getOutGoingLinks(this.network);
+		return outGoing != null && outGoing.contains(target);
+	}
+
+	// the current neighbours of a node, read only
+	private Set<Node> neighbours(Node node){
+		HashSet<Node> changed = this.changedNeighbours.get(node);
+		if (changed != null){
+			return changed;
+		}
+		if (this.emptyNetwork){
+			return Collections.emptySet();
+		}
+		HashSet<Node> neighbours = node.getUnidirectedLinks(this.network);
+		return neighbours == null ? Collections.<Node>emptySet() : neighbours;
+	}
+
+	// the neighbours of a node, copied on the first change
+	private HashSet<Node> changeableNeighbours(Node node){
+		HashSet<Node> changed = this.changedNeighbours.get(node);
+		if (changed == null){
+			changed = new HashSet<Node>(this.neighbours(node));
+			this.changedNeighbours.put(node, changed);
+		}
+		return changed;
+	}
+
+	// adds or deletes the edge (u,v) and changes the graphlet counts of all node sets holding u and v
+	private void changeEdge(Node u, Node v, boolean add){
+
+		int sign = add ? 1 : -1;
+		Set<Node> neighboursU = this.neighbours(u);
+		Set<Node> neighboursV = this.neighbours(v);
+
+		// the edge itself
+		this.graphletCounts[0] += sign;
+
+		// the candidates w: neighbours of u or v
+		this.candidates.clear();
+		for (Node w : neighboursU){
+			if (!w.equals(v)){
+				this.candidates.add(w);
+			}
+		}
+		for (Node w : neighboursV){
+			if (!w.equals(u) && !neighboursU.contains(w)){
+				this.candidates.add(w);
+			}
+		}
+
+		for (int i = 0 ; i < this.candidates.size() ; i++){
+			Node w = this.candidates.get(i);
+			boolean uw = neighboursU.contains(w);
+			boolean vw = neighboursV.contains(w);
+			Set<Node> neighboursW = this.neighbours(w);
+
+			// triples (u,v,w): a path becomes a triangle, a disconnected triple becomes a path
+			if (uw && vw){
+				this.graphletCounts[2] += sign;
+				this.graphletCounts[1] -= sign;
+			}else{
+				this.graphletCounts[1] += sign;
+			}
+
+			// sets (u,v,w,x) with x another candidate, every pair once
+			for (int j = i+1 ; j < this.candidates.size() ; j++){
+				Node x = this.candidates.get(j);
+				int edges = (uw ? 2 : 0) | (neighboursU.contains(x) ? 4 : 0) | (vw ? 8 : 0) | (neighboursV.contains(x) ? 16 : 0) | (neighboursW.contains(x) ? 32 : 0);
+				this.changeGraphlet(edges, sign);
+			}
+
+			// sets (u,v,w,x) with x only connected through w
+			for (Node x : neighboursW){
+				if (x.equals(u) || x.equals(v) || neighboursU.contains(x) || neighboursV.contains(x)){
+					continue;
+				}
+				int edges = (uw ? 2 : 0) | (vw ? 8 : 0) | 32;
+				this.changeGraphlet(edges, sign);
+			}
+		}
+
+		if (add){
+			this.changeableNeighbours(u).add(v);
+			this.changeableNeighbours(v).add(u);
+		}else{
+			this.changeableNeighbours(u).remove(v);
+			this.changeableNeighbours(v).remove(u);
+		}
+	}
+
+	// moves a set of 4 nodes from its graphlet without the edge (u,v) to its graphlet with the edge, or back
+	private void changeGraphlet(int edgesWithoutUV, int sign){
+		int without = GRAPHLET_OF_EDGES[edgesWithoutUV];
+		int with = GRAPHLET_OF_EDGES[edgesWithoutUV | 1];
+		if (with >= 0){
+			this.graphletCounts[with] += sign;
+		}
+		if (without >= 0){
+			this.graphletCounts[without] -= sign;
+		}
+	}
+
+	// classifies all 64 edge sets of 4 nodes
+	private static int[] createGraphletTable(){
+
+		// the node pairs of the bits: uv, uw, ux, vw, vx, wx
+		int[][] pairs = {{0,1},{0,2},{0,3},{1,2},{1,3},{2,3}};
+		int[] table = new int[64];
+		for (int edges = 0 ; edges < 64 ; edges++){
+			int[] degree = new int[4];
+			int count = 0;
+			for (int bit = 0 ; bit < 6 ; bit++){
+				if ((edges & (1 << bit)) != 0){
+					degree[pairs[bit][0]]++;
+					degree[pairs[bit][1]]++;
+					count++;
+				}
+			}
+			int maxDegree = Math.max(Math.max(degree[0], degree[1]), Math.max(degree[2], degree[3]));
+			int minDegree = Math.min(Math.min(degree[0], degree[1]), Math.min(degree[2], degree[3]));
+			if (count < 3 || minDegree == 0){
+				table[edges] = -1;
+			}else if (count == 3){
+				table[edges] = maxDegree == 3 ? 4 : 3;
+			}else if (count == 4){
+				table[edges] = maxDegree == 3 ? 6 : 5;
+			}else if (count == 5){
+				table[edges] = 7;
+			}else{
+				table[edges] = 8;
+			}
+		}
+		return table;
+	}
+
+	// same frequencies as GraphletCounterExtractor
+	private void graphletFrequency() {
+
+		double sum1 = 0;
+		double sum2 = 0;
+
+		this.freqSingle[0] = 100; // 2-node frequency is always 100%
+
+		for (int i =1; i < 3;i++){
+			sum1+= this.graphletCounts[i];
+		}
+		for (int i =3;i<this.graphletCounts.length;i++){
+			sum2+= this.graphletCounts[i];
+		}
+
+		if (sum1==0){
+			for (int i =1;i<3;i++){
+				this.freqSingle[i] = 0;
+			}
+		}else{
+			for (int i =1;i<3;i++){
+				this.freqSingle[i] = ((double)this.graphletCounts[i]) / sum1;
+			}
+		}
+
+		if (sum2==0){
+			for (int i =1;i<3;i++){
+				this.freqSingle[i] = 0;
+			}
+		}else{
+			for (int i =3;i<this.graphletCounts.length;i++){
+				this.freqSingle[i] = ((double)this.graphletCounts[i]) / sum2;
+			}
+		}
+	}
+
+
+	// getters and setters
+
+	/**
+	 * Returns the network associated with this extractor.
+	 *
+	 * @return the associated network
+	 */
+	public Network getNetwork() {
+		return network;
+	}
+
+	/**
+	 * Sets the network associated with this extractor.
+	 *
+	 * @param network the network which should be associated with this extractor
+	 */
+	public void setNetwork(Network network) {
+		this.network = network;
+	}
+
+	/**
+	 * Returns the graphlet counts associated with the network
+	 *
+	 * @return the graphlet counts
+	 */
+	public int[] getGraphletCounts(){
+		return this.graphletCounts;
+	}
+
+	/**
+	 * Returns the relative graphlet frequencies associated with the network
+	 *
+	 * @return the relative graphlet counts
+	 */
+	public double[] getFrequency() {
+		return this.freqSingle;
+	}
+
+}
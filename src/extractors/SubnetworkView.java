@@ -0,0 +1,391 @@
+package extractors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import javax.management.RuntimeErrorException;
+
+import network.Network;
+import network.NetworkLayout;
+import network.link.Link;
+import network.node.Node;
+
+/**
+ * SubnetworkView keeps the outgoing and incoming degree of every node of a (sub)network, shared by the degree based metrics of that network.
+ *
+ * An incremental update walks the changed links once and changes the degrees of their nodes in dense arrays, keeping the amount of nodes,
+ * the amount of nodes with at least one outgoing edge (transcription factors) and the largest outgoing degree up to date. The largest outgoing degree
+ * follows from a histogram of the outgoing degrees, which only changes by one per link.
+ * The nodes changed are pushed on a stack with their previous degrees, which revert pops.
+ *
+ * The view is driven by its owner: TranscriptionFactorExtractor owns one for its own network, PartitionFitnessFunction owns one per subnetwork and hands it
+ * to the penalties that read their metric from it (see penalties.SubnetworkViewPenalty), so the changed links are walked once per subnetwork instead of once per penalty.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class SubnetworkView {
+
+	/**
+	 * The network associated with this view.
+	 */
+	private Network network ;
+	/**
+	 * The total amount of nodes in the network.
+	 */
+	private int nodeCount ;
+	/**
+	 * The total amount of nodes that have atleast one outgoing edge.
+	 */
+	private int tfCount;
+	/**
+	 * The largest amount of outgoing edges of a node.
+	 */
+	private int maxOutDegree;
+	/**
+	 * The counts before the latest incremental update, restored by revert.
+	 */
+	private int previousNodeCount ;
+	private int previousTfCount;
+	private int previousMaxOutDegree;
+	/**
+	 * Indicates if the degrees have been calculated
+	 */
+	private boolean inited ;
+	/**
+	 * Indicates if the latest incremental update has not been committed or reverted yet
+	 */
+	private boolean pending ;
+	/**
+	 * Dense index of every node seen in the network context, into the degree arrays.
+	 */
+	private HashMap<Node,Integer> nodeIndex ;
+	/**
+	 * Amount of outgoing edges of every node, by index.
+	 */
+	private int[] outDegree ;
+	/**
+	 * Amount of incoming edges of every node, by index.
+	 */
+	private int[] inDegree ;
+	/**
+	 * Amount of nodes with a given amount of outgoing edges, by outgoing degree.
+	 */
+	private int[] outDegreeCount ;
+	/**
+	 * Stack of the nodes changed by the latest incremental update, with their degrees before the update.
+	 */
+	private int[] touched ;
+	private int[] touchedOutDegree ;
+	private int[] touchedInDegree ;
+	private int touchedCount ;
+	/**
+	 * The incremental update in which a node was last touched, by index, so a node is pushed on the stack only once per update.
+	 */
+	private int[] touchedUpdate ;
+	/**
+	 * Counter of the incremental updates.
+	 */
+	private int updates ;
+
+
+	/**
+	 * Constructs a SubnetworkView with no network set.
+	 */
+	public SubnetworkView(){
+		this.inited = false;
+		this.pending = false;
+		this.nodeIndex = new HashMap<Node,Integer>();
+		this.outDegree = new int[64];
+		this.inDegree = new int[64];
+		this.outDegreeCount = new int[64];
+		this.touchedUpdate = new int[64];
+		this.touched = new int[64];
+		this.touchedOutDegree = new int[64];
+		this.touchedInDegree = new int[64];
+		this.touchedCount = 0;
+		this.updates = 0;
+	}
+
+	/**
+	 * Constructs a SubnetworkView associated with a network, the degrees are calculated at the first update.
+	 *
+	 * @param network the associated network
+	 */
+	public SubnetworkView(Network network){
+		this();
+		this.network = network;
+	}
+
+
+	/**
+	 * Calculates the degrees from scratch for the current state of the associated network.
+	 *
+	 */
+	public void update (){
+
+		for (int i = 0 ; i < this.nodeIndex.size() ; i++){
+			this.outDegree[i] = 0;
+			this.inDegree[i] = 0;
+		}
+		Arrays.fill(this.outDegreeCount, 0);
+		this.outDegreeCount[0] = this.nodeIndex.size();
+		this.tfCount = 0;
+		this.maxOutDegree = 0;
+		// the degrees of the committed links, from the layout of the network
+		NetworkLayout layout = this.network.getLayout();
+		for (int id = 0 ; id < layout.getNodeCount() ; id++){
+			int index = this.index(layout.getNode(id));
+			this.outDegree[index] = layout.getOutDegree(id);
+			this.inDegree[index] = layout.getInDegree(id);
+			if (this.outDegree[index] > 0){
+				tfCount++;
+			}
+			this.countOutDegree(0, -1);
+			this.countOutDegree(this.outDegree[index], 1);
+			if (this.outDegree[index] > this.maxOutDegree){
+				this.maxOutDegree = this.outDegree[index];
+			}
+		}
+		this.nodeCount = this.network.getNodeCount();
+		this.touchedCount = 0;
+		this.pending = false;
+		this.inited = true;
+	}
+
+	/**
+	 * Calculates the degrees from scratch if this has not been done before.
+	 */
+	public void ensureUpdated(){
+		if (!this.inited){
+			this.update();
+		}
+	}
+
+	/**
+	 * Changes the degrees in an incremental way given lists of links added and deleted, every link is visited once.
+	 *
+	 * @param nonCommittalDeleted a list of links deleted from the current network
+	 * @param nonCommitalAdded a list of links added to the network
+	 */
+	public void incrementalUpdate(ArrayList<Link> nonCommittalDeleted, ArrayList<Link> nonCommitalAdded) {
+
+		// first do the initial count if this has not been done before
+		if (!inited){
+			this.update();
+		}
+
+		// start a new stack of touched nodes
+		this.touchedCount = 0;
+		if (this.updates == Integer.MAX_VALUE){
+			Arrays.fill(this.touchedUpdate, 0);
+			this.updates = 0;
+		}
+		this.updates++;
+		this.previousNodeCount = this.nodeCount;
+		this.previousTfCount = this.tfCount;
+		this.previousMaxOutDegree = this.maxOutDegree;
+		this.pending = true;
+
+		for (int i = 0 ; i < nonCommittalDeleted.size() ; i++){
+			Link link = nonCommittalDeleted.get(i);
+			this.changeDegrees(this.index(link.getTf()), this.index(link.getTarget()), -1);
+		}
+		for (int i = 0 ; i < nonCommitalAdded.size() ; i++){
+			Link link = nonCommitalAdded.get(i);
+			this.changeDegrees(this.index(link.getTf()), this.index(link.getTarget()), 1);
+		}
+	}
+
+	/**
+	 * Keeps the changes of the latest incremental update, a following revert no longer discards them.
+	 */
+	public void commit(){
+		this.touchedCount = 0;
+		this.pending = false;
+	}
+
+	/**
+	 * Reverts back to the current state of the network associated with this view.
+	 *
+	 * Discards any changes made by the latest incremental update, if it has not been committed.
+	 *
+	 */
+	public void revert (){
+		if (!this.pending){
+			return;
+		}
+		while (this.touchedCount > 0){
+			this.touchedCount--;
+			int index = this.touched[this.touchedCount];
+			this.countOutDegree(this.outDegree[index], -1);
+			this.countOutDegree(this.touchedOutDegree[this.touchedCount], 1);
+			this.outDegree[index] = this.touchedOutDegree[this.touchedCount];
+			this.inDegree[index] = this.touchedInDegree[this.touchedCount];
+		}
+		this.nodeCount = this.previousNodeCount;
+		this.tfCount = this.previousTfCount;
+		this.maxOutDegree = this.previousMaxOutDegree;
+		this.pending = false;
+	}
+
+	/**
+	 * Returns the amount of nodes with at least one outgoing edge in the network.
+	 *
+	 * @return the amount of nodes with > 0 outgoing edge
+	 */
+	public int getTfCount(){
+		if (!inited){
+			throw new RuntimeErrorException(null);
+		}
+		return this.tfCount;
+	}
+
+	/**
+	 * Returns the amount of nodes in the network.
+	 *
+	 * @return the amount of nodes in the network
+	 */
+	public int getNodeCount() {
+		if (!inited){
+			throw new RuntimeErrorException(null);
+		}
+		return this.nodeCount;
+	}
+
+	/**
+	 * Returns the largest amount of outgoing edges of a node in the network.
+	 *
+	 * @return the largest outgoing degree
+	 */
+	public int getMaxOutDegree() {
+		if (!inited){
+			throw new RuntimeErrorException(null);
+		}
+		return this.maxOutDegree;
+	}
+
+	/**
+	 * Returns the amount of outgoing edges of a node.
+	 *
+	 * @param node	the node
+	 * @return the outgoing degree, 0 if the node is not in the network
+	 */
+	public int getOutDegree(Node node) {
+		Integer index = this.nodeIndex.get(node);
+		return index == null ? 0 : this.outDegree[index];
+	}
+
+	/**
+	 * Returns the amount of incoming edges of a node.
+	 *
+	 * @param node	the node
+	 * @return the incoming degree, 0 if the node is not in the network
+	 */
+	public int getInDegree(Node node) {
+		Integer index = this.nodeIndex.get(node);
+		return index == null ? 0 : this.inDegree[index];
+	}
+
+
+	// private methods
+
+	// changes the outgoing degree of the tf and the incoming degree of the target by one link
+	private void changeDegrees(int tf, int target, int change){
+
+		this.touch(tf);
+		this.touch(target);
+
+		boolean tfWasPresent = this.outDegree[tf] + this.inDegree[tf] > 0;
+		boolean wasTF = this.outDegree[tf] > 0;
+		int previousOutDegree = this.outDegree[tf];
+		this.outDegree[tf] += change;
+		if (wasTF != this.outDegree[tf] > 0){
+			this.tfCount += change;
+		}
+		if (tfWasPresent != this.outDegree[tf] + this.inDegree[tf] > 0){
+			this.nodeCount += change;
+		}
+
+		// the degree changes by one, so the largest degree only moves to a neighbouring count
+		this.countOutDegree(previousOutDegree, -1);
+		this.countOutDegree(this.outDegree[tf], 1);
+		if (this.outDegree[tf] > this.maxOutDegree){
+			this.maxOutDegree = this.outDegree[tf];
+		}else if (previousOutDegree == this.maxOutDegree && this.outDegreeCount[previousOutDegree] == 0){
+			this.maxOutDegree = this.outDegree[tf];
+		}
+
+		boolean targetWasPresent = this.outDegree[target] + this.inDegree[target] > 0;
+		this.inDegree[target] += change;
+		if (targetWasPresent != this.outDegree[target] + this.inDegree[target] > 0){
+			this.nodeCount += change;
+		}
+	}
+
+	private void countOutDegree(int degree, int change){
+		if (degree >= this.outDegreeCount.length){
+			this.outDegreeCount = Arrays.copyOf(this.outDegreeCount, Math.max(2 * this.outDegreeCount.length, degree + 1));
+		}
+		this.outDegreeCount[degree] += change;
+	}
+
+	// pushes a node on the stack of touched nodes with its current degrees, once per incremental update
+	private void touch(int index){
+		if (this.touchedUpdate[index] == this.updates){
+			return;
+		}
+		this.touchedUpdate[index] = this.updates;
+		if (this.touchedCount == this.touched.length){
+			this.touched = Arrays.copyOf(this.touched, 2 * this.touchedCount);
+			this.touchedOutDegree = Arrays.copyOf(this.touchedOutDegree, 2 * this.touchedCount);
+			this.touchedInDegree = Arrays.copyOf(this.touchedInDegree, 2 * this.touchedCount);
+		}
+		this.touched[this.touchedCount] = index;
+		this.touchedOutDegree[this.touchedCount] = this.outDegree[index];
+		this.touchedInDegree[this.touchedCount] = this.inDegree[index];
+		this.touchedCount++;
+	}
+
+	// the dense index of a node, a new node gets the next index with degree zero
+	private int index(Node node){
+		Integer index = this.nodeIndex.get(node);
+		if (index != null){
+			return index;
+		}
+		int next = this.nodeIndex.size();
+		if (next == this.outDegree.length){
+			this.outDegree = Arrays.copyOf(this.outDegree, 2 * next);
+			this.inDegree = Arrays.copyOf(this.inDegree, 2 * next);
+			this.touchedUpdate = Arrays.copyOf(this.touchedUpdate, 2 * next);
+		}
+		this.nodeIndex.put(node, next);
+		this.countOutDegree(0, 1);
+		return next;
+	}
+
+
+	// getters and setters
+
+	public Network getNetwork() {
+		return network;
+	}
+
+	/**
+	 * Sets the network associated with this view. The degrees are recalculated at the next update if the network is a different one.
+	 *
+	 * @param network the network which should be associated with this view
+	 */
+	public void setNetwork(Network network) {
+		if (network != this.network){
+			this.inited = false;
+		}
+		this.network = network;
+	}
+
+	public boolean isInited() {
+		return inited;
+	}
+
+}
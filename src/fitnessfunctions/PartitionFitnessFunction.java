@@ -2,6 +2,15 @@ package fitnessfunctions;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.management.RuntimeErrorException;
 
 import main.DynamicLoader;
 import network.Network;
@@ -10,7 +19,12 @@ import network.NetworkPartition;
 import network.link.Link;
 import network.link.LinkProperties;
 import network.modifiers.PredictionModifierOpt;
+import extractors.SubnetworkView;
 import penalties.PenaltyFunction;
+import penalties.RankingPenalty;
+import penalties.SeededPenalty;
+import penalties.SubnetworkViewPenalty;
+import profiling.AllocationProfile;
 import settings.LoggerOrPenaltyDefinition;
 
 
@@ -35,6 +49,11 @@ public class PartitionFitnessFunction {
 	 */
 	private HashMap<Network,ArrayList<PenaltyFunction>> penaltyFunctionsPerNetwork ;
 	
+	/**
+	 * Degrees of a subnetwork shared by its penalties, only for subnetworks with a penalty reading them (SubnetworkViewPenalty)
+	 */
+	private HashMap<Network,SubnetworkView> views ;
+	
 	/**
 	 *  penalty functions associated with the ranking (e.g. divergence)
 	 */
@@ -88,6 +107,36 @@ public class PartitionFitnessFunction {
 	 * Indicates if fitnessfunction has been initialized
 	 */
 	boolean inited = false;
+	
+	/**
+	 * Optional group of threads evaluating the penalties of different subnetworks in parallel, null if evaluation is serial
+	 */
+	private ExecutorService evaluationThreads;
+	
+	/**
+	 * Re-used tasks updating the penalties of a single subnetwork, one per subnetwork
+	 */
+	private ArrayList<SubnetworkUpdate> updateTasks;
+	
+	/**
+	 * Re-used tasks reverting the penalties of a single subnetwork, one per subnetwork
+	 */
+	private ArrayList<SubnetworkRevert> revertTasks;
+	
+	/**
+	 * Optional counters of the time spent in every penalty, null if the penalties are not timed
+	 */
+	private PenaltyTimer timer;
+	
+	/**
+	 * Index of every subnetwork in the partition, only used when the penalties are timed
+	 */
+	private HashMap<Network,Integer> partitionIndex;
+	
+	/**
+	 * Optional allocation profile of the re-ranking, the fitness calculation is split off from the modification that triggers it
+	 */
+	private AllocationProfile allocations;
 
 	
 	/**
@@ -102,6 +151,7 @@ public class PartitionFitnessFunction {
 	public PartitionFitnessFunction(ArrayList<LoggerOrPenaltyDefinition>  penalties, NetworkFileBackedWrapper wrapper,PredictionModifierOpt modifier){
 
 		this.penaltyFunctionsPerNetwork = new HashMap<Network, ArrayList<PenaltyFunction>>();
+		this.views = new HashMap<Network,SubnetworkView>();
 		this.penaltyFunctionGlobalNetwork = new ArrayList<PenaltyFunction>();
 		this.networkCoef = new HashMap<Network,Double>();
 		this.penaltyCoef = new HashMap<String,Double>();
@@ -140,6 +190,9 @@ public class PartitionFitnessFunction {
 				penaltyFunctionGlobalNetwork.add(loadedPenalty);
 				this.penaltyCoef.put(loadedPenalty.getPenaltyName(),loadedPenalty.getCoef());
 				loadedPenalty.setNetwork(predictionNetwork);
+				if (loadedPenalty instanceof RankingPenalty){
+					((RankingPenalty) loadedPenalty).setModifier(this.modifier);
+				}
 			}else{
 				for (int j = 0 ; j < partition.getNetworks().length-1 ;j++){	
 					Network net = partition.getNetworks()[j];
@@ -152,6 +205,9 @@ public class PartitionFitnessFunction {
 						loadedPenalty.setNetwork(net);		
 						this.penaltyFunctionsPerNetwork.get(net).add(loadedPenalty);
 					}
+					if (loadedPenalty instanceof SubnetworkViewPenalty){
+						((SubnetworkViewPenalty) loadedPenalty).setView(this.getView(net));
+					}
 				}			
 				this.penaltyCoef.put(loadedPenalty.getPenaltyName(),loadedPenalty.getCoef());
 			}
@@ -166,8 +222,94 @@ public class PartitionFitnessFunction {
 	 */
 	
 	public void clearNetworks (){
+		if (this.timer != null){
+			this.timer.flush();
+		}
+		if (this.evaluationThreads != null){
+			this.evaluationThreads.shutdown();
+			this.evaluationThreads = null;
+		}
 		this.partition.networkClear();
 	}
+	
+	/**
+	 * Seeds the random draws of the penalties depending on them (see SeededPenalty). Every subnetwork gets its own seed, derived from the seed and the index of the subnetwork,
+	 * so a seeded re-ranking draws the same samples in every run.
+	 * 
+	 * @param seed	the seed of the re-ranking
+	 */
+	public void setSeed(long seed){
+		Network[] networks = this.partition.getNetworks();
+		for (int j = 0 ; j < networks.length ; j++){
+			long subnetworkSeed = new Random(seed + j).nextLong();
+			for (PenaltyFunction penaltyFunction : this.penaltyFunctionsPerNetwork.get(networks[j])){
+				if (penaltyFunction instanceof SeededPenalty){
+					((SeededPenalty) penaltyFunction).setSeed(subnetworkSeed);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sets the amount of threads used to evaluate the penalties of the subnetworks. Each subnetwork has its own penalty instances,
+	 * so the subnetworks can be updated and reverted independently. With one thread (the default) all evaluation happens on the calling thread.
+	 * 
+	 * @param threads	the amount of evaluation threads
+	 */
+	public void setEvaluationThreads(int threads){
+		
+		if (this.evaluationThreads != null){
+			this.evaluationThreads.shutdown();
+			this.evaluationThreads = null;
+		}
+		if (threads <= 1){
+			return;
+		}
+		
+		this.evaluationThreads = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "penalty-evaluation-"+Thread.currentThread().getName());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.updateTasks = new ArrayList<SubnetworkUpdate>();
+		this.revertTasks = new ArrayList<SubnetworkRevert>();
+		for (Network subnet : this.penaltyFunctionsPerNetwork.keySet()){
+			this.updateTasks.add(new SubnetworkUpdate(subnet));
+			this.revertTasks.add(new SubnetworkRevert(subnet));
+		}
+	}
+
+	/**
+	 * Turns on the timing of every penalty call. The counters of this fitness function are added to the shared PenaltyTimings every flushInterval evaluations.
+	 * Without timing the penalties are called directly, without reading the clock.
+	 * 
+	 * @param flushInterval	amount of evaluations between two flushes to the shared PenaltyTimings
+	 */
+	public void setPenaltyTiming(int flushInterval){
+		
+		Network[] networks = this.partition.getNetworks();
+		this.partitionIndex = new HashMap<Network,Integer>();
+		String[] partitions = new String[networks.length+1];
+		for (int i = 0 ; i < networks.length ; i++){
+			this.partitionIndex.put(networks[i], i);
+			partitions[i] = "subnetwork"+i;
+		}
+		partitions[networks.length] = "ranking";
+		
+		// structural penalties are listed in the same order for every subnetwork, global penalties follow them
+		ArrayList<PenaltyFunction> structural = this.penaltyFunctionsPerNetwork.get(networks[0]);
+		String[] penalties = new String[structural.size() + this.penaltyFunctionGlobalNetwork.size()];
+		for (int i = 0 ; i < structural.size() ; i++){
+			penalties[i] = structural.get(i).getPenaltyName();
+		}
+		for (int i = 0 ; i < this.penaltyFunctionGlobalNetwork.size() ; i++){
+			penalties[structural.size()+i] = this.penaltyFunctionGlobalNetwork.get(i).getPenaltyName();
+		}
+		this.timer = new PenaltyTimer(penalties, partitions, flushInterval);
+	}
 
 	/**
 	 * Returns the calculated fitness score of the network ranking. 
@@ -191,6 +333,9 @@ public class PartitionFitnessFunction {
 	for (Network net : partition.getNetworks()){
 			net.commit();
 		}
+		for (SubnetworkView view : this.views.values()){
+			view.commit();
+		}
 	}
 	
 	/**
@@ -198,10 +343,12 @@ public class PartitionFitnessFunction {
 	 * 
 	 */
 	public void revert() {
+		if (this.evaluationThreads != null){
+			invokeAll(this.revertTasks);
+			return;
+		}
 		for (Network net : partition.getNetworks()){
-			for (PenaltyFunction penaltyFunction: this.penaltyFunctionsPerNetwork.get(net)) {
-					penaltyFunction.revertIncrementalPenalty();
-			}
+			revertPenalties(net);
 				 net.revert();	
 		}
 	}
@@ -213,6 +360,9 @@ public class PartitionFitnessFunction {
 	 */
 	public void modify() {
 	
+		if (this.allocations != null){
+			this.allocations.phase(AllocationProfile.MODIFY);
+		}
 		this.perNetwork.clear();
 		HashSet<Link> modified = modifier.getModified();
 		
@@ -238,17 +388,26 @@ public class PartitionFitnessFunction {
 
 		}
 
+		int changedLinks = modified.size();
 		this.modifier.getModified().clear();
 		long sum = 0;
 
 		
 		perNetwork.clear();
 		
+		// update the subnetworks in parallel if possible, the scores are aggregated below in the same order as the serial evaluation
+		if (this.evaluationThreads != null){
+			invokeAll(this.updateTasks);
+		}else{
+			for (Network subnet : this.penaltyFunctionsPerNetwork.keySet()){
+				updatePenalties(subnet);
+			}
+		}
+		
 		// Per penalty
 		for (Network subnet : this.penaltyFunctionsPerNetwork.keySet()){
 			double networkCoefMultiplier = this.networkCoef.get(subnet);
 			for (PenaltyFunction penaltyFunction: this.penaltyFunctionsPerNetwork.get(subnet)) {
-				penaltyFunction.updateIncrementalPenalty();
 				long score = penaltyFunction.getPenaltyScore();
 				Double perNetScore = this.perNetwork.get(penaltyFunction.getPenaltyName());
 				if(perNetScore == null){
@@ -261,8 +420,15 @@ public class PartitionFitnessFunction {
 		
 		
 		// Calculate the fitness of the global penalties
-		for (PenaltyFunction penalty : this.penaltyFunctionGlobalNetwork){	
-			penalty.calculateMetricFromScratch();;
+		for (int i = 0 ; i < this.penaltyFunctionGlobalNetwork.size() ; i++){	
+			PenaltyFunction penalty = this.penaltyFunctionGlobalNetwork.get(i);
+			if (this.timer == null){
+				penalty.calculateMetricFromScratch();
+			}else{
+				long start = System.nanoTime();
+				penalty.calculateMetricFromScratch();
+				this.timer.record(PenaltyTimer.FROM_SCRATCH, this.partition.getNetworks().length, this.penaltyFunctionsPerNetwork.get(partition.getNetworks()[0]).size()+i, System.nanoTime()-start, changedLinks);
+			}
 			double multiplierCoefPenalty = this.penaltyCoef.get(penalty.getPenaltyName());
 			double tmp = multiplierCoefPenalty * penalty.getPenaltyScore();
 			sum += tmp ;
@@ -283,6 +449,13 @@ public class PartitionFitnessFunction {
 		// this is the current fitness
 		this.currentFitness = sum;		
 		
+		if (this.timer != null){
+			this.timer.evaluated();
+		}
+		if (this.allocations != null){
+			this.allocations.phase(AllocationProfile.FITNESS);
+		}
+		
 	}
 
 	/**
@@ -297,6 +470,134 @@ public class PartitionFitnessFunction {
 		}
 		return pairs;
 	}
+	
+	
+	// updates all penalties associated with a single subnetwork
+	private void updatePenalties(Network subnet){
+		ArrayList<PenaltyFunction> functions = this.penaltyFunctionsPerNetwork.get(subnet);
+		// the shared degrees first, walking the changed links once for all penalties reading them
+		SubnetworkView view = this.views.get(subnet);
+		if (view != null){
+			view.incrementalUpdate(subnet.getNonCommittalDeleted(), subnet.getNonCommitalAdded());
+		}
+		if (this.timer == null){
+			for (PenaltyFunction penaltyFunction: functions) {
+				penaltyFunction.updateIncrementalPenalty();
+			}
+			return;
+		}
+		int index = this.partitionIndex.get(subnet);
+		int changed = subnet.getNonCommitalAdded().size() + subnet.getNonCommittalDeleted().size();
+		for (int i = 0 ; i < functions.size() ; i++){
+			long start = System.nanoTime();
+			functions.get(i).updateIncrementalPenalty();
+			this.timer.record(PenaltyTimer.UPDATE, index, i, System.nanoTime()-start, changed);
+		}
+	}
+	
+	// reverts all penalties associated with a single subnetwork, the subnetwork itself is not reverted
+	private void revertPenalties(Network subnet){
+		ArrayList<PenaltyFunction> functions = this.penaltyFunctionsPerNetwork.get(subnet);
+		SubnetworkView view = this.views.get(subnet);
+		if (view != null){
+			view.revert();
+		}
+		if (this.timer == null){
+			for (PenaltyFunction penaltyFunction: functions) {
+				penaltyFunction.revertIncrementalPenalty();
+			}
+			return;
+		}
+		int index = this.partitionIndex.get(subnet);
+		int changed = subnet.getNonCommitalAdded().size() + subnet.getNonCommittalDeleted().size();
+		for (int i = 0 ; i < functions.size() ; i++){
+			long start = System.nanoTime();
+			functions.get(i).revertIncrementalPenalty();
+			this.timer.record(PenaltyTimer.REVERT, index, i, System.nanoTime()-start, changed);
+		}
+	}
+	
+	// the shared degrees of a subnetwork, created for the first penalty reading them
+	private SubnetworkView getView(Network subnet){
+		SubnetworkView view = this.views.get(subnet);
+		if (view == null){
+			view = new SubnetworkView(subnet);
+			this.views.put(subnet, view);
+		}
+		return view;
+	}
+	
+	/**
+	 * Sets the allocation profile of the re-ranking using this fitness function, the allocations of the fitness calculation are added to its fitness phase
+	 * 
+	 * @param allocations	the allocation profile, null to stop profiling
+	 */
+	public void setAllocationProfile(AllocationProfile allocations) {
+		this.allocations = allocations;
+	}
+	
+	/**
+	 * Returns the counters of the time spent in every penalty
+	 * 
+	 * @return the counters, null if the penalties are not timed
+	 */
+	public PenaltyTimer getPenaltyTimer() {
+		return this.timer;
+	}
+	
+	
+	// runs the given subnetwork tasks on the evaluation threads and waits for all of them to finish
+	private void invokeAll(ArrayList<? extends Callable<Object>> tasks){
+		try {
+			for (Future<Object> future : this.evaluationThreads.invokeAll(tasks)){
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeErrorException(null, "Interrupted while evaluating the penalties.");
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+			throw new RuntimeErrorException(null, "Penalty evaluation failed: "+ e.getCause());
+		}
+	}
+	
+	
+	/**
+	 * Task updating all penalties associated with a single subnetwork.
+	 */
+	private class SubnetworkUpdate implements Callable<Object> {
+		
+		private final Network subnet;
+		
+		private SubnetworkUpdate(Network subnet){
+			this.subnet = subnet;
+		}
+		
+		@Override
+		public Object call() {
+			updatePenalties(subnet);
+			return null;
+		}
+	}
+	
+	/**
+	 * Task reverting all penalties associated with a single subnetwork and the subnetwork itself.
+	 */
+	private class SubnetworkRevert implements Callable<Object> {
+		
+		private final Network subnet;
+		
+		private SubnetworkRevert(Network subnet){
+			this.subnet = subnet;
+		}
+		
+		@Override
+		public Object call() {
+			revertPenalties(subnet);
+			subnet.revert();
+			return null;
+		}
+	}
 
 
 
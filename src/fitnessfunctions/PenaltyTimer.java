@@ -0,0 +1,180 @@
+package fitnessfunctions;
+
+
+/**
+ * PenaltyTimer accumulates the call counts, the time spent and the amount of changed links of every penalty in every partition of a single PartitionFitnessFunction.
+ *
+ * The counters are plain longs: a fitness function is only used by its own re-ranking thread and when the subnetworks are evaluated in parallel, every
+ * evaluation thread only writes the counters of its own partition. Every flushInterval evaluations the counters are added to the shared PenaltyTimings.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class PenaltyTimer {
+
+	/**
+	 * Operation index of updateIncrementalPenalty
+	 */
+	public static final int UPDATE = 0;
+
+	/**
+	 * Operation index of revertIncrementalPenalty
+	 */
+	public static final int REVERT = 1;
+
+	/**
+	 * Operation index of calculateMetricFromScratch
+	 */
+	public static final int FROM_SCRATCH = 2;
+
+	/**
+	 * Names of the operations, in index order
+	 */
+	public static final String[] OPERATIONS = {"updateIncrementalPenalty", "revertIncrementalPenalty", "calculateMetricFromScratch"};
+
+	/**
+	 * Names of the penalties, in index order
+	 */
+	private String[] penalties;
+
+	/**
+	 * Names of the partitions, in index order
+	 */
+	private String[] partitions;
+
+	/**
+	 * Call counts, indexed by slot
+	 */
+	private long[] calls;
+
+	/**
+	 * Nanoseconds spent, indexed by slot
+	 */
+	private long[] nanos;
+
+	/**
+	 * Changed links seen by the calls, indexed by slot
+	 */
+	private long[] links;
+
+	/**
+	 * Counter values at the latest flush
+	 */
+	private long[] flushedCalls, flushedNanos, flushedLinks;
+
+	/**
+	 * Amount of evaluations between two flushes
+	 */
+	private int flushInterval;
+
+	/**
+	 * Evaluations since the latest flush
+	 */
+	private int sinceFlush;
+
+
+	/**
+	 * Constructs a new PenaltyTimer with all counters set to zero
+	 *
+	 * @param penalties	names of the penalties
+	 * @param partitions	names of the partitions
+	 * @param flushInterval	amount of evaluations between two flushes to the shared PenaltyTimings
+	 */
+	public PenaltyTimer(String[] penalties, String[] partitions, int flushInterval){
+		this.penalties = penalties;
+		this.partitions = partitions;
+		this.flushInterval = flushInterval;
+		int slots = OPERATIONS.length * partitions.length * penalties.length;
+		this.calls = new long[slots];
+		this.nanos = new long[slots];
+		this.links = new long[slots];
+		this.flushedCalls = new long[slots];
+		this.flushedNanos = new long[slots];
+		this.flushedLinks = new long[slots];
+	}
+
+
+	/**
+	 * Records a single call of a penalty
+	 *
+	 * @param operation	the operation index
+	 * @param partition	the partition index
+	 * @param penalty	the penalty index
+	 * @param nanos	nanoseconds spent in the call
+	 * @param changedLinks	amount of links changed since the previous evaluation
+	 */
+	public void record(int operation, int partition, int penalty, long nanos, int changedLinks){
+		int slot = this.slot(operation, partition, penalty);
+		this.calls[slot]++;
+		this.nanos[slot] += nanos;
+		this.links[slot] += changedLinks;
+	}
+
+	/**
+	 * Marks the end of an evaluation, flushes the counters to the shared PenaltyTimings every flushInterval evaluations
+	 */
+	public void evaluated(){
+		if (++this.sinceFlush >= this.flushInterval){
+			this.flush();
+		}
+	}
+
+	/**
+	 * Adds the counters since the latest flush to the shared PenaltyTimings
+	 */
+	public void flush(){
+		this.sinceFlush = 0;
+		PenaltyTimings timings = PenaltyTimings.getInstance();
+		for (int operation = 0 ; operation < OPERATIONS.length ; operation++){
+			for (int partition = 0 ; partition < this.partitions.length ; partition++){
+				for (int penalty = 0 ; penalty < this.penalties.length ; penalty++){
+					int slot = this.slot(operation, partition, penalty);
+					if (this.calls[slot] == this.flushedCalls[slot]){
+						continue;
+					}
+					timings.add(this.penalties[penalty], this.partitions[partition], OPERATIONS[operation],
+							this.calls[slot] - this.flushedCalls[slot], this.nanos[slot] - this.flushedNanos[slot], this.links[slot] - this.flushedLinks[slot]);
+					this.flushedCalls[slot] = this.calls[slot];
+					this.flushedNanos[slot] = this.nanos[slot];
+					this.flushedLinks[slot] = this.links[slot];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the counters of this fitness function, one 'penalty	partition	operation	calls	nanoseconds	changed links' line for every penalty call that happened
+	 *
+	 * @return	the lines of the counters
+	 */
+	public String[] report(){
+		int count = 0;
+		for (long c : this.calls){
+			if (c > 0){
+				count++;
+			}
+		}
+		String[] lines = new String[count];
+		int line = 0;
+		for (int operation = 0 ; operation < OPERATIONS.length ; operation++){
+			for (int partition = 0 ; partition < this.partitions.length ; partition++){
+				for (int penalty = 0 ; penalty < this.penalties.length ; penalty++){
+					int slot = this.slot(operation, partition, penalty);
+					if (this.calls[slot] > 0){
+						lines[line++] = this.penalties[penalty]+"\t"+this.partitions[partition]+"\t"+OPERATIONS[operation]+"\t"+this.calls[slot]+"\t"+this.nanos[slot]+"\t"+this.links[slot];
+					}
+				}
+			}
+		}
+		return lines;
+	}
+
+
+	// private methods
+
+	private int slot(int operation, int partition, int penalty){
+		return (operation * this.partitions.length + partition) * this.penalties.length + penalty;
+	}
+
+}
@@ -0,0 +1,104 @@
+package fitnessfunctions;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import main.MBeans;
+
+
+/**
+ * PenaltyTimings aggregates the penalty counters flushed by the PenaltyTimers of all re-rankings and publishes them through JMX as netter:type=PenaltyTimings.
+ *
+ * The MBean is registered the first time the counters are used, so nothing is registered when the timing is turned off.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class PenaltyTimings implements PenaltyTimingsMXBean {
+
+	/**
+	 * The only instance
+	 */
+	private static PenaltyTimings instance;
+
+	/**
+	 * Call counts per key
+	 */
+	private TreeMap<String, Long> calls = new TreeMap<String, Long>();
+
+	/**
+	 * Nanoseconds spent per key
+	 */
+	private TreeMap<String, Long> nanos = new TreeMap<String, Long>();
+
+	/**
+	 * Changed links per key
+	 */
+	private TreeMap<String, Long> changedLinks = new TreeMap<String, Long>();
+
+
+	private PenaltyTimings(){}
+
+
+	/**
+	 * Returns the shared PenaltyTimings, registering it with the platform MBean server on first use
+	 *
+	 * @return	the shared PenaltyTimings
+	 */
+	public static synchronized PenaltyTimings getInstance(){
+		if (instance == null){
+			instance = new PenaltyTimings();
+			MBeans.register(instance, "type=PenaltyTimings");
+		}
+		return instance;
+	}
+
+	/**
+	 * Adds counters of a single penalty operation
+	 *
+	 * @param penalty	name of the penalty
+	 * @param partition	name of the partition
+	 * @param operation	name of the operation
+	 * @param calls	amount of calls
+	 * @param nanos	nanoseconds spent
+	 * @param changedLinks	amount of changed links
+	 */
+	public synchronized void add(String penalty, String partition, String operation, long calls, long nanos, long changedLinks){
+		String key = penalty+"/"+partition+"/"+operation;
+		add(this.calls, key, calls);
+		add(this.nanos, key, nanos);
+		add(this.changedLinks, key, changedLinks);
+	}
+
+	@Override
+	public synchronized Map<String, Long> getCalls() {
+		return new TreeMap<String, Long>(this.calls);
+	}
+
+	@Override
+	public synchronized Map<String, Long> getNanos() {
+		return new TreeMap<String, Long>(this.nanos);
+	}
+
+	@Override
+	public synchronized Map<String, Long> getChangedLinks() {
+		return new TreeMap<String, Long>(this.changedLinks);
+	}
+
+	@Override
+	public synchronized void reset() {
+		this.calls.clear();
+		this.nanos.clear();
+		this.changedLinks.clear();
+	}
+
+
+	// private methods
+
+	private static void add(TreeMap<String, Long> map, String key, long value){
+		Long previous = map.get(key);
+		map.put(key, previous == null ? value : previous + value);
+	}
+
+}
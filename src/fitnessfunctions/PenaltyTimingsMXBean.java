@@ -0,0 +1,41 @@
+package fitnessfunctions;
+
+import java.util.Map;
+
+/**
+ *
+ * PenaltyTimingsMXBean is the JMX management interface of PenaltyTimings. The keys of all maps are 'penalty/partition/operation'.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface PenaltyTimingsMXBean {
+
+	/**
+	 * Returns the amount of calls of every penalty operation
+	 *
+	 * @return	the call counts
+	 */
+	public Map<String, Long> getCalls();
+
+	/**
+	 * Returns the nanoseconds spent in every penalty operation
+	 *
+	 * @return	the nanoseconds spent
+	 */
+	public Map<String, Long> getNanos();
+
+	/**
+	 * Returns the amount of changed links seen by every penalty operation
+	 *
+	 * @return	the changed link counts
+	 */
+	public Map<String, Long> getChangedLinks();
+
+	/**
+	 * Sets all counters to zero
+	 */
+	public void reset();
+
+}
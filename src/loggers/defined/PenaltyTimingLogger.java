@@ -0,0 +1,98 @@
+package loggers.defined;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import loggers.ManualLogger;
+import schedulers.NetworkSA;
+import wrappers.EnsembleSA;
+import fitnessfunctions.PenaltyTimer;
+
+
+/**
+ *
+ * PenaltyTimingLogger is a logger which keeps track of the time spent in every penalty during single re-rankings.
+ *
+ * At desired intervals, it will poll the PenaltyTimer of the fitness function and print the counters so far to a log file, one line per penalty, partition and operation.
+ *
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+
+public class PenaltyTimingLogger extends ManualLogger {
+
+
+	/**
+	 * The counters at every log action
+	 */
+	private ArrayList<String[]> reports;
+
+	/**
+	 * Constructs a PenaltyTimingLogger, calls constructor of logger abstract class
+	 *
+	 * @param loggingInterval	perform logging action every 'loggingInterval' changes to the network
+	 * @param logFile	name of output file
+	 * @param outputDir name/path of the output directory
+	 */
+	public PenaltyTimingLogger(int loggingInterval,String logFile,File outputDir) {
+		super(loggingInterval,logFile,outputDir);
+		this.reports = new ArrayList<String[]>();
+	}
+
+	/**
+	 * Overrides and creates a copy constructor for a PenaltyTimingLogger
+	 *
+	 * @param logFile name of output file
+	 *
+	 * @return a new Manualogger/PenaltyTimingLogger with the same settings as this instantation and a new logFile
+	 */
+	@Override
+	public ManualLogger makeCopy(String logFile) {
+		logFile = logFile+".txt";
+		return new PenaltyTimingLogger(this.loggingInterval,logFile,outputDir);
+	}
+
+	/**
+	 * Overrides and defines the logAction for a PenaltyTimingLogger
+	 *
+	 * @param networkSa the current optimization procedure requesting the log action
+	 *
+	 */
+	@Override
+	protected void logAction(NetworkSA networkSa) {
+		PenaltyTimer timer = networkSa.getFitness().getPenaltyTimer();
+		if (timer != null){
+			this.reports.add(timer.report());
+		}
+	}
+
+	/**
+	 * Overrides and defines the fileAction for a PenaltyTimingLogger
+	 *
+	 * @param writer the PrintWriter requesting input to log to file
+	 *
+	 */
+	@Override
+	protected void fileAction(PrintWriter writer) throws IOException {
+
+		writer.println("iteration\tpenalty\tpartition\toperation\tcalls\tnanoseconds\tchanged links");
+		for (int i = 0 ; i < this.reports.size();i++){
+			for (String line : this.reports.get(i)){
+				writer.println(loggingInterval *i + "\t" + line);
+			}
+		}
+	}
+
+	/**
+	 * PenaltyTimingLogger does not give feedback to Netter to guide the re-ranking process
+	 *
+	 * @param sa The Netter procedure requesting feedback
+	 *
+	 */
+	@Override
+	public void advice(EnsembleSA sa) {}
+
+}
@@ -0,0 +1,77 @@
+package main;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+
+import network.generator.SyntheticNetworkGenerator;
+
+
+/**
+ * GenerateNetwork writes a synthetic ranking of predictions, and optionally the synthetic network as gold standard, using SyntheticNetworkGenerator.
+ *
+ * Arguments are given as key=value pairs:
+ *
+ * out=predictions.txt	file the ranking of predictions is written to
+ * gold=	optional file the network is written to, in the gold standard format
+ * genes=5000	amount of genes
+ * links=20000	amount of links in the network
+ * predictions=40000	amount of predictions in the ranking, links of the network and decoys
+ * tfFraction=0.1	fraction of the genes that are transcription factors
+ * exponent=2.5	exponent of the power law of the out-degree of the transcription factors
+ * noise=0.5	standard deviation of the gaussian noise on the scores of the predictions
+ * seed=42	seed of the generator
+ *
+ * A typical execution is: java -cp netter.jar main.GenerateNetwork out=predictions.txt gold=gold.tsv genes=100000 links=1000000 predictions=2000000
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class GenerateNetwork {
+
+	public static void main(String[] args) {
+
+		LinkedHashMap<String,String> options = new LinkedHashMap<String,String>();
+		options.put("out", "predictions.txt");
+		options.put("gold", "");
+		options.put("genes", "5000");
+		options.put("links", "20000");
+		options.put("predictions", "40000");
+		options.put("tfFraction", "0.1");
+		options.put("exponent", "2.5");
+		options.put("noise", "0.5");
+		options.put("seed", "42");
+
+		for (String arg : args){
+			String[] split = arg.split("=", 2);
+			if (split.length != 2 || !options.containsKey(split[0])){
+				System.err.println("Unknown argument: "+arg+", known arguments are "+options.keySet()+" ABORTING");
+				System.exit(-1);
+			}
+			options.put(split[0], split[1]);
+		}
+
+		SyntheticNetworkGenerator generator = null;
+		try {
+			generator = new SyntheticNetworkGenerator(Integer.parseInt(options.get("genes")), Integer.parseInt(options.get("links")),
+					Integer.parseInt(options.get("predictions")), Long.parseLong(options.get("seed")));
+			generator.setTfFraction(Double.parseDouble(options.get("tfFraction")));
+			generator.setExponent(Double.parseDouble(options.get("exponent")));
+			generator.setNoise(Double.parseDouble(options.get("noise")));
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number in arguments: "+e.getMessage()+" ABORTING");
+			System.exit(-1);
+		}
+
+		long start = System.currentTimeMillis();
+		generator.generate();
+		generator.writePredictions(new File(options.get("out")));
+		System.out.println("Wrote "+generator.getPredictions()+" predictions between "+generator.getTfCount()+" transcription factors and "+generator.getGenes()+" genes to "+options.get("out"));
+		if (!options.get("gold").isEmpty()){
+			generator.writeGoldStandard(new File(options.get("gold")));
+			System.out.println("Wrote "+generator.getLinks()+" links to "+options.get("gold"));
+		}
+		System.out.println("Done in "+(System.currentTimeMillis()-start)+" ms");
+	}
+
+}
@@ -0,0 +1,93 @@
+package main;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * MBeans registers the management interfaces of Netter with the platform MBean server, so running jobs can be followed through a (local) JMX connector.
+ *
+ * All beans are registered in the 'netter' domain. Failing to (un)register a bean is reported but never stops a re-ranking.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class MBeans {
+
+	/**
+	 * Domain of all Netter beans
+	 */
+	public static final String DOMAIN = "netter";
+
+
+	private MBeans(){}
+
+
+	/**
+	 * Registers a bean, replacing a bean previously registered with the same name
+	 *
+	 * @param bean	the bean to register
+	 * @param properties	the key properties of the name, e.g. 'type=EnsembleSA'
+	 */
+	public static void register(Object bean, String properties){
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(DOMAIN+":"+properties);
+			if (server.isRegistered(name)){
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(bean, name);
+		} catch (JMException e) {
+			System.err.println("Could not register "+properties+" with JMX: "+e.getMessage());
+		}
+	}
+
+	/**
+	 * Unregisters a bean, if it is registered
+	 *
+	 * @param properties	the key properties of the name, e.g. 'type=EnsembleSA'
+	 */
+	public static void unregister(String properties){
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(DOMAIN+":"+properties);
+			if (server.isRegistered(name)){
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			System.err.println("Could not unregister "+properties+" from JMX: "+e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the current heap usage of the virtual machine
+	 *
+	 * @return	the heap usage
+	 */
+	public static MemoryUsage getHeapUsage(){
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+	}
+
+	/**
+	 * Returns the amount of bytes allocated by a thread so far, if the virtual machine supports measuring it
+	 *
+	 * @param thread	the thread
+	 * @return	the allocated bytes, -1 if unknown
+	 */
+	public static long getAllocatedBytes(Thread thread){
+		if (thread == null){
+			return -1;
+		}
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean){
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread.getId());
+		}
+		return -1;
+	}
+
+}
@@ -4,6 +4,11 @@ import java.util.ArrayList;
 import network.NetworkFileBackedWrapper;
 import network.NetworkNameGenerator;
 import network.node.NodeCollection;
+import extractors.GraphletCounterExtractor;
+import extractors.GraphletSampleExtractor;
+import extractors.GraphletThreads;
+import extractors.IncGraphExtractor;
+import profiling.Events;
 import settings.CurrentSettings;
 import wrappers.EnsembleSA;
 
@@ -19,7 +24,7 @@ import wrappers.EnsembleSA;
  * @since      	0.0
  */
 
-public class Netter {
+public class Netter implements NetterMXBean {
 
 	/**
 	 * Ensemble of optimization procedures
@@ -30,6 +35,21 @@ public class Netter {
 	 */
 	private CurrentSettings currentSettings ;
 	
+	/**
+	 * Name of the prediction file being re-ranked
+	 */
+	private volatile String currentPrediction;
+	
+	/**
+	 * Amount of prediction files re-ranked so far
+	 */
+	private volatile int predictionsDone;
+	
+	/**
+	 * Amount of prediction files to be re-ranked
+	 */
+	private volatile int predictionsTotal;
+	
 	/**
 	 * Default and only constructor.
 	 */
@@ -63,6 +83,12 @@ public class Netter {
 			File param = new File(args[0]);
 			if (param !=null && param.exists()){
 				this.currentSettings = new CurrentSettings(param);
+				Events.configure(this.currentSettings.isFlightRecorderEvents(), this.currentSettings.getFlightRecorderStepBatch());
+				GraphletCounterExtractor.setDefaultRecountRatio(this.currentSettings.getGraphletRecountRatio());
+				IncGraphExtractor.setDefaultRecountRatio(this.currentSettings.getGraphletRecountRatio());
+				GraphletThreads.configure(this.currentSettings.getGraphletCountThreads());
+				GraphletSampleExtractor.setSampleLinks(this.currentSettings.getGraphletSampleLinks());
+				GraphletSampleExtractor.setDefaultMaxError(this.currentSettings.getGraphletSampleError());
 			}else{
 				System.err.println("Error: no parameter file was specified. The correct syntax is java -jar netters.jar <parameter file>.  Exiting.");
 			}
@@ -97,8 +123,13 @@ public class Netter {
 					}
 				}
 				
+				this.predictionsTotal = chosenFiles.size();
+				MBeans.register(this, "type=Netter");
+				
 				// Do the algorithm for all predictions
 				for (File chosenFile: chosenFiles){
+					
+					this.currentPrediction = chosenFile.getName();
 				
 					// reset the networkname generator
 					NetworkNameGenerator.reset();
@@ -130,8 +161,11 @@ public class Netter {
 					System.out.println("Starting Netter: ");
 					this.ensemble = new EnsembleSA(netter);
 					ensemble.ensembleSA(predictionBack,currentSettings.getTotalIterations());
+					this.predictionsDone++;
 					
 				}
+				this.currentPrediction = null;
+				MBeans.unregister("type=Netter");
 				
 				}
 				catch(Exception e){
@@ -167,6 +201,41 @@ public class Netter {
 	}
 
 	
+	/**
+	 * 
+	 * Getter for the ensemble of the latest prediction file
+	 * 
+	 * @return the ensemble, null if no prediction file was started
+	 */
+	public EnsembleSA getEnsemble() {
+		return ensemble;
+	}
+
+	@Override
+	public String getCurrentPrediction() {
+		return this.currentPrediction;
+	}
+
+	@Override
+	public int getPredictionsDone() {
+		return this.predictionsDone;
+	}
+
+	@Override
+	public int getPredictionsTotal() {
+		return this.predictionsTotal;
+	}
+
+	@Override
+	public long getHeapUsed() {
+		return MBeans.getHeapUsage().getUsed();
+	}
+
+	@Override
+	public long getHeapMax() {
+		return MBeans.getHeapUsage().getMax();
+	}
+
 	/**
 	 * 
 	 * Getter for the current settings
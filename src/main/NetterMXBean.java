@@ -0,0 +1,55 @@
+package main;
+
+/**
+ *
+ * NetterMXBean is the JMX management interface of a Netter job, registered as netter:type=Netter while the job runs.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface NetterMXBean {
+
+	/**
+	 * Returns the progress of the ensemble re-ranking the current prediction file
+	 *
+	 * @return	the progress in %
+	 */
+	public double getProgress();
+
+	/**
+	 * Returns the name of the prediction file being re-ranked
+	 *
+	 * @return	the name of the current prediction file, null if none is being re-ranked
+	 */
+	public String getCurrentPrediction();
+
+	/**
+	 * Returns the amount of prediction files re-ranked so far
+	 *
+	 * @return	the finished prediction files
+	 */
+	public int getPredictionsDone();
+
+	/**
+	 * Returns the amount of prediction files of the job
+	 *
+	 * @return	the total amount of prediction files
+	 */
+	public int getPredictionsTotal();
+
+	/**
+	 * Returns the used heap of the virtual machine
+	 *
+	 * @return	the used heap in bytes
+	 */
+	public long getHeapUsed();
+
+	/**
+	 * Returns the maximum heap of the virtual machine
+	 *
+	 * @return	the maximum heap in bytes, -1 if undefined
+	 */
+	public long getHeapMax();
+
+}
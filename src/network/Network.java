@@ -6,6 +6,7 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,6 +20,8 @@ import network.link.comparator.LinkNameComparator;
 import network.link.comparator.LinkRankComparator;
 import network.node.Node;
 import network.node.NodeCollection;
+import profiling.Events;
+import profiling.FileEvent;
 
 
 /**
@@ -52,6 +55,11 @@ public class Network {
 	 * Temporary removed links
 	 */
 	private ArrayList<Link> tmpRemoved;
+	
+	/**
+	 * Compact layout of the committed links, null when the links changed since it was made
+	 */
+	private volatile NetworkLayout layout;
 
 	/**
 	 * Automatically generated name for this network. 
@@ -127,6 +135,7 @@ public class Network {
 
 	{
 		this.init();
+		FileEvent event = Events.file("read", tsvFile);
 
 		// Create a new file from the path
 		File file = new File(tsvFile);
@@ -226,6 +235,9 @@ public class Network {
 		}
 		this.nodes = new LinkedHashSet<Node>(nod);
 		this.updateNodeConnectivity();
+		if (event != null){
+			event.commit(this.links.size());
+		}
 
 	}
 	
@@ -243,6 +255,7 @@ public class Network {
 		// this.sortNetworkPredictionRank(); ? should we do this
 		
 		// _logger.info("writing network to file...");
+		FileEvent event = Events.file("write", file.getPath());
 		FileWriter writer = null;
 		try {
 			writer = new FileWriter(file);
@@ -264,6 +277,9 @@ public class Network {
 						"Network output exception.");
 			}
 		}
+		if (event != null){
+			event.commit(this.links.size());
+		}
 	}
 
 
@@ -305,6 +321,7 @@ public class Network {
 		}
 
 		this.links.add(link);
+		this.layout = null;
 
 		if (this.nodes.add(a)) {
 			// if the node not in the network, we should reset the node
@@ -323,6 +340,62 @@ public class Network {
 	}
 
 
+	/**
+	 *
+	 * Adds links to the network permanently, skips links which already exist and self-regulating links.
+	 * The existing links are looked up in a hash set instead of the list, for loading many links at once.
+	 *
+	 * @param links	the links to be added
+	 * @return the amount of links added
+	 */
+	public int addLinksToNetwork(Collection<Link> links) {
+
+		HashSet<Link> present = new HashSet<Link>(this.links);
+		int added = 0;
+		for (Link link : links) {
+
+			Node a = link.getTf();
+			Node b = link.getTarget();
+
+			if (a.equals(b) || !present.add(link)) {
+				continue;
+			}
+
+			this.links.add(link);
+
+			if (this.nodes.add(a)) {
+				// if the node not in the network, we should reset the node
+				a.resetNodeConnectivity(this);
+			}
+
+			if (this.nodes.add(b)) {
+				// if the node not in the network, we should reset the node
+				b.resetNodeConnectivity(this);
+			}
+
+			a.addOutGoingLink(this, b);
+			b.addIncomingLink(this, a);
+			added++;
+		}
+		this.layout = null;
+		return added;
+	}
+
+	/**
+	 * Removes all links and nodes permanently from the network, and the connectivity of this network from its nodes. Temporary changes are discarded as well.
+	 */
+	public void clear() {
+
+		for (Node node : this.nodes) {
+			node.clearNetwork(this);
+		}
+		this.nodes.clear();
+		this.links.clear();
+		this.tmpAdded.clear();
+		this.tmpRemoved.clear();
+		this.layout = null;
+	}
+
 	/**
 	 * Removes a link at a certain index permanently in the network. Use with care if the network is sorted by name.
 	 * 
@@ -332,6 +405,7 @@ public class Network {
 	public Link removeLinkFromNetwork(int index) {
 
 		Link link = this.links.remove(index);
+		this.layout = null;
 		Node a = link.getTf();
 		Node b = link.getTarget();
 		b.removeIncomingLink(this, a);
@@ -451,6 +525,21 @@ public class Network {
 		this.tmpAdded.clear();
 		this.tmpRemoved.clear();
 	}
+	/**
+	 * Returns the compact layout of the committed links, with dense node ids ordered by degree. The layout is made at the first call after the committed links changed
+	 * and is shared until they change again, the non-committal changes are not part of it.
+	 * 
+	 * @return the layout of the committed links
+	 */
+	public NetworkLayout getLayout() {
+		NetworkLayout current = this.layout;
+		if (current == null){
+			current = new NetworkLayout(this);
+			this.layout = current;
+		}
+		return current;
+	}
+	
 	/**
 	 * Alters the current ranking by tie-breaking on the original ranking
 	 * 
@@ -517,6 +606,7 @@ public class Network {
 
 	public void setLinks(ArrayList<Link> links) {
 		this.links = links;
+		this.layout = null;
 	}
 
 	public LinkedHashSet<Node> getNodes() {
@@ -525,6 +615,7 @@ public class Network {
 
 	public void setNodes(LinkedHashSet<Node> nodes) {
 		this.nodes = nodes;
+		this.layout = null;
 	}
 	
 	public ArrayList<Link> getNonCommittalDeleted() {
@@ -550,6 +641,8 @@ public class Network {
 	
 	private void updateNodeConnectivity() {
 
+		this.layout = null;
+
 		for (Node a : this.nodes) {
 			a.resetNodeConnectivity(this);
 		}
@@ -0,0 +1,225 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import network.node.Node;
+
+/**
+ * NetworkLayout is a compact, read-only snapshot of the committed links of a network, for traversals reading the whole network such as counting from scratch.
+ *
+ * The nodes are relabelled with dense ids ordered by decreasing (undirected) degree, ties keep the order in which the nodes were added to the network, so the
+ * hubs are next to each other at the start of the arrays. The undirected neighbours are laid out contiguously in compressed sparse row form:
+ * the neighbours of node id are the ids neighbours[offsets[id]] up to neighbours[offsets[id+1]], sorted ascending.
+ * The outgoing and incoming degrees are kept per id as well.
+ *
+ * A layout is created by Network.getLayout() and is rebuilt there after the committed links changed. The non-committal changes of the network are not part of it,
+ * they stay the overlay applied by the incremental extractors.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class NetworkLayout {
+
+	/**
+	 * The nodes, by id
+	 */
+	private final Node[] nodes;
+
+	/**
+	 * The id of every node
+	 */
+	private final HashMap<Node,Integer> ids;
+
+	/**
+	 * Start of the neighbours of every id in neighbours, followed by the total amount of neighbours
+	 */
+	private final int[] offsets;
+
+	/**
+	 * The undirected neighbours of all nodes, by id
+	 */
+	private final int[] neighbours;
+
+	/**
+	 * Amount of outgoing and incoming links of every node, by id
+	 */
+	private final int[] outDegree;
+	private final int[] inDegree;
+
+	/**
+	 * Amount of links of the network the layout was made of
+	 */
+	private final int linkCount;
+
+
+	/**
+	 * Lays out the committed links of a network
+	 *
+	 * @param network	the network
+	 */
+	NetworkLayout(Network network){
+
+		final Node[] inserted = network.getNodes().toArray(new Node[0]);
+		int n = inserted.length;
+		this.ids = new HashMap<Node,Integer>(2 * n);
+		for (int i = 0 ; i < n ; i++){
+			this.ids.put(inserted[i], i);
+		}
+		// only the neighbours within the network are laid out
+		final int[] degree = new int[n];
+		Integer[] order = new Integer[n];
+		for (int i = 0 ; i < n ; i++){
+			HashSet<Node> undirected = inserted[i].getUnidirectedLinks(network);
+			if (undirected != null){
+				for (Node neighbour : undirected){
+					if (this.ids.containsKey(neighbour)){
+						degree[i]++;
+					}
+				}
+			}
+			order[i] = i;
+		}
+		// decreasing degree, the sort is stable so ties keep the insertion order
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return degree[b] - degree[a];
+			}
+		});
+
+		this.nodes = new Node[n];
+		this.offsets = new int[n+1];
+		this.outDegree = new int[n];
+		this.inDegree = new int[n];
+		for (int id = 0 ; id < n ; id++){
+			Node node = inserted[order[id]];
+			this.nodes[id] = node;
+			this.ids.put(node, id);
+			this.offsets[id+1] = this.offsets[id] + degree[order[id]];
+		}
+
+		this.neighbours = new int[this.offsets[n]];
+		for (int id = 0 ; id < n ; id++){
+			Node node = this.nodes[id];
+			int next = this.offsets[id];
+			HashSet<Node> undirected = node.getUnidirectedLinks(network);
+			if (undirected != null){
+				for (Node neighbour : undirected){
+					Integer neighbourId = this.ids.get(neighbour);
+					if (neighbourId != null){
+						this.neighbours[next++] = neighbourId;
+					}
+				}
+			}
+			Arrays.sort(this.neighbours, this.offsets[id], next);
+			ArrayList<Node> out = node.getOutGoingLinks(network);
+			ArrayList<Node> in = node.getIncomingLinks(network);
+			this.outDegree[id] = out == null ? 0 : out.size();
+			this.inDegree[id] = in == null ? 0 : in.size();
+		}
+		this.linkCount = network.getLinkCount();
+	}
+
+
+	/**
+	 * Returns the id of a node
+	 *
+	 * @param node	the node
+	 * @return	the id, -1 if the node is not in the layout
+	 */
+	public int getId(Node node){
+		Integer id = this.ids.get(node);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the node with a given id
+	 *
+	 * @param id	the id
+	 * @return	the node
+	 */
+	public Node getNode(int id){
+		return this.nodes[id];
+	}
+
+	/**
+	 * Returns the amount of undirected neighbours of a node
+	 *
+	 * @param id	the id of the node
+	 * @return	the undirected degree
+	 */
+	public int getDegree(int id){
+		return this.offsets[id+1] - this.offsets[id];
+	}
+
+	/**
+	 * Returns the amount of outgoing links of a node
+	 *
+	 * @param id	the id of the node
+	 * @return	the outgoing degree
+	 */
+	public int getOutDegree(int id){
+		return this.outDegree[id];
+	}
+
+	/**
+	 * Returns the amount of incoming links of a node
+	 *
+	 * @param id	the id of the node
+	 * @return	the incoming degree
+	 */
+	public int getInDegree(int id){
+		return this.inDegree[id];
+	}
+
+	/**
+	 * Checks if two nodes are connected by a link in any direction, with a binary search in the neighbours of the node with the smallest degree
+	 *
+	 * @param a	the id of the first node
+	 * @param b	the id of the second node
+	 * @return	true if the nodes are neighbours
+	 */
+	public boolean isNeighbour(int a, int b){
+		if (this.getDegree(a) > this.getDegree(b)){
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+		return Arrays.binarySearch(this.neighbours, this.offsets[a], this.offsets[a+1], b) >= 0;
+	}
+
+
+	// getters and setters
+
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	public int getLinkCount() {
+		return linkCount;
+	}
+
+	/**
+	 * Returns the start of the neighbours of every id, shared and not to be changed
+	 *
+	 * @return	the offsets, of length getNodeCount()+1
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Returns the neighbours of all nodes, shared and not to be changed
+	 *
+	 * @return	the neighbours, by id
+	 */
+	public int[] getNeighbours() {
+		return neighbours;
+	}
+
+}
@@ -0,0 +1,345 @@
+package network.generator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.management.RuntimeErrorException;
+
+
+/**
+ * SyntheticNetworkGenerator generates a synthetic gene regulatory network and a noisy ranking of predictions of that network.
+ *
+ * The first genes are transcription factors. The out-degree of the transcription factors follows a power law: every link of the network picks its
+ * transcription factor with a weight (i+1)^(-1/(exponent-1)), which gives a degree distribution P(k) ~ k^-exponent, and picks its target uniformly.
+ * The ranking contains all links of the network and additional decoy links between random transcription factors and targets. Every prediction gets a score,
+ * 1 for a link of the network and 0 for a decoy, plus gaussian noise, and the predictions are ranked on decreasing score. Without noise all links of the network
+ * are ranked above the decoys.
+ *
+ * The predictions are written in the format read by Network(String, int), the network itself in the format of the gold standard. The same seed and settings
+ * always result in the same files.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class SyntheticNetworkGenerator {
+
+	/**
+	 * Amount of genes
+	 */
+	private int genes;
+
+	/**
+	 * Amount of links in the network
+	 */
+	private int links;
+
+	/**
+	 * Amount of predictions in the ranking, links of the network and decoys
+	 */
+	private int predictions;
+
+	/**
+	 * Seed of the generator
+	 */
+	private long seed;
+
+	/**
+	 * Fraction of the genes that are transcription factors
+	 */
+	private double tfFraction = 0.1;
+
+	/**
+	 * Exponent of the power law of the out-degree of the transcription factors
+	 */
+	private double exponent = 2.5;
+
+	/**
+	 * Standard deviation of the gaussian noise added to the scores of the predictions
+	 */
+	private double noise = 0.5;
+
+	/**
+	 * Transcription factor of every prediction, the first predictions are the links of the network
+	 */
+	private int[] tfs;
+
+	/**
+	 * Target of every prediction
+	 */
+	private int[] targets;
+
+	/**
+	 * Score of every prediction
+	 */
+	private float[] scores;
+
+	/**
+	 * The predictions in ranking order
+	 */
+	private int[] ranking;
+
+
+	/**
+	 * Constructs a new SyntheticNetworkGenerator
+	 *
+	 * @param genes	amount of genes
+	 * @param links	amount of links in the network
+	 * @param predictions	amount of predictions in the ranking, at least the amount of links
+	 * @param seed	seed of the generator
+	 */
+	public SyntheticNetworkGenerator(int genes, int links, int predictions, long seed){
+		if (genes < 2){
+			throw new RuntimeErrorException(null, "A synthetic network requires at least two genes.");
+		}
+		if (links < 1 || predictions < links){
+			throw new RuntimeErrorException(null, "The amount of predictions ("+predictions+") should be at least the amount of links ("+links+") and the amount of links positive.");
+		}
+		this.genes = genes;
+		this.links = links;
+		this.predictions = predictions;
+		this.seed = seed;
+	}
+
+
+	/**
+	 * Generates the network and the ranking, this is done automatically by the write methods when needed
+	 */
+	public void generate(){
+
+		int tfCount = this.getTfCount();
+		// keep the ranking sparse enough, otherwise drawing new pairs keeps hitting existing ones
+		if ((long) this.predictions > (long) tfCount * (this.genes-1) / 2){
+			throw new RuntimeErrorException(null, "Cannot generate "+this.predictions+" predictions between "+tfCount+" transcription factors and "+this.genes+" genes, the ranking would be too dense.");
+		}
+
+		Random random = new Random(this.seed);
+
+		// cumulative power law weights of the transcription factors
+		double[] cumulative = new double[tfCount];
+		double sum = 0;
+		for (int i = 0 ; i < tfCount ; i++){
+			sum += Math.pow(i+1, -1.0/(this.exponent-1));
+			cumulative[i] = sum;
+		}
+
+		this.tfs = new int[this.predictions];
+		this.targets = new int[this.predictions];
+		this.scores = new float[this.predictions];
+		PairSet pairs = new PairSet(this.predictions);
+
+		int count = 0;
+		while (count < this.predictions){
+			int tf;
+			if (count < this.links){
+				tf = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				tf = Math.min(tf >= 0 ? tf : -tf-1, tfCount-1);
+			}else{
+				tf = random.nextInt(tfCount);
+			}
+			// uniform target, skipping self-regulation
+			int target = random.nextInt(this.genes-1);
+			if (target >= tf){
+				target++;
+			}
+			if (!pairs.add((long) tf * this.genes + target)){
+				continue;
+			}
+			this.tfs[count] = tf;
+			this.targets[count] = target;
+			this.scores[count] = (float) ((count < this.links ? 1 : 0) + this.noise * random.nextGaussian());
+			count++;
+		}
+
+		// sort on decreasing score, packing the sortable bits of the score and the prediction in a single long
+		long[] keys = new long[this.predictions];
+		for (int i = 0 ; i < this.predictions ; i++){
+			int bits = Float.floatToIntBits(this.scores[i]);
+			bits ^= (bits >> 31) & 0x7fffffff;
+			keys[i] = ((long) bits << 32) | i;
+		}
+		Arrays.sort(keys);
+		this.ranking = new int[this.predictions];
+		for (int i = 0 ; i < this.predictions ; i++){
+			this.ranking[i] = (int) keys[this.predictions-1-i];
+		}
+	}
+
+	/**
+	 * Writes the ranking of predictions, one 'tf	target	score' line per prediction
+	 *
+	 * @param file	the file to write to
+	 */
+	public void writePredictions(File file){
+		if (this.ranking == null){
+			this.generate();
+		}
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(file), 1 << 16);
+			for (int i : this.ranking){
+				writer.write(getGeneName(this.tfs[i]));
+				writer.write('\t');
+				writer.write(getGeneName(this.targets[i]));
+				writer.write('\t');
+				writer.write(Float.toString(this.scores[i]));
+				writer.write('\n');
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Could not write the synthetic predictions to "+file.getPath());
+		} finally {
+			close(writer);
+		}
+	}
+
+	/**
+	 * Writes the links of the network in the gold standard format, one 'tf	target	1' line per link
+	 *
+	 * @param file	the file to write to
+	 */
+	public void writeGoldStandard(File file){
+		if (this.ranking == null){
+			this.generate();
+		}
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(file), 1 << 16);
+			for (int i = 0 ; i < this.links ; i++){
+				writer.write(getGeneName(this.tfs[i]));
+				writer.write('\t');
+				writer.write(getGeneName(this.targets[i]));
+				writer.write("\t1\n");
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			throw new RuntimeErrorException(null, "Could not write the synthetic gold standard to "+file.getPath());
+		} finally {
+			close(writer);
+		}
+	}
+
+	/**
+	 * Returns the name of a gene in the written files
+	 *
+	 * @param gene	index of the gene
+	 * @return	the name of the gene
+	 */
+	public static String getGeneName(int gene){
+		return "G"+gene;
+	}
+
+	/**
+	 * Returns the amount of transcription factors
+	 *
+	 * @return	the amount of transcription factors, at least one
+	 */
+	public int getTfCount(){
+		return Math.max(1, Math.min(this.genes, (int) Math.round(this.genes * this.tfFraction)));
+	}
+
+
+	// private methods
+
+	private static void close(BufferedWriter writer){
+		if (writer != null){
+			try {
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Open addressing hash set of non-negative longs, avoids boxing every tf/target pair of large rankings
+	 */
+	private static class PairSet {
+
+		private long[] table;
+
+		private int mask;
+
+		PairSet(int expected){
+			int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, (long) expected * 4 / 3 + 1)) - 1) << 1;
+			this.table = new long[capacity];
+			this.mask = capacity - 1;
+			Arrays.fill(this.table, -1L);
+		}
+
+		// returns false if the pair was already present
+		boolean add(long pair){
+			long h = pair * 0x9E3779B97F4A7C15L;
+			int slot = (int) (h ^ (h >>> 32)) & this.mask;
+			while (this.table[slot] != -1L){
+				if (this.table[slot] == pair){
+					return false;
+				}
+				slot = (slot + 1) & this.mask;
+			}
+			this.table[slot] = pair;
+			return true;
+		}
+
+	}
+
+
+	// getters and setters
+
+	public int getGenes() {
+		return genes;
+	}
+
+	public int getLinks() {
+		return links;
+	}
+
+	public int getPredictions() {
+		return predictions;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public double getTfFraction() {
+		return tfFraction;
+	}
+
+	public void setTfFraction(double tfFraction) {
+		if (tfFraction <= 0 || tfFraction > 1){
+			throw new RuntimeErrorException(null, "The fraction of transcription factors should be in (0, 1].");
+		}
+		this.tfFraction = tfFraction;
+		this.ranking = null;
+	}
+
+	public double getExponent() {
+		return exponent;
+	}
+
+	public void setExponent(double exponent) {
+		if (exponent <= 1){
+			throw new RuntimeErrorException(null, "The power law exponent should be larger than 1.");
+		}
+		this.exponent = exponent;
+		this.ranking = null;
+	}
+
+	public double getNoise() {
+		return noise;
+	}
+
+	public void setNoise(double noise) {
+		if (noise < 0){
+			throw new RuntimeErrorException(null, "The ranking noise should not be negative.");
+		}
+		this.noise = noise;
+		this.ranking = null;
+	}
+
+}
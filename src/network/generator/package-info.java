@@ -0,0 +1,5 @@
+/**
+ * Classes generating synthetic gene regulatory networks and rankings of predictions, used to test and benchmark Netter at larger scales.
+ * @since 1.0
+ */
+package network.generator;
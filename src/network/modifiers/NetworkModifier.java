@@ -10,6 +10,7 @@ package network.modifiers;
  * @since      	0.0
  */
 import network.Network;
+import schedulers.NetworkSA;
 
 public interface NetworkModifier {
 
@@ -19,6 +20,13 @@ public interface NetworkModifier {
 	 */
 	public void modify ();
 	
+	/**
+	 * Mutation operation driven by a seed, the same seed applied to the same state results in the same mutation
+	 * 
+	 * @param seed	the seed which determines the mutation
+	 */
+	public void modify (long seed);
+	
 	/**
 	 * Revert back to previous state
 	 */
@@ -29,6 +37,19 @@ public interface NetworkModifier {
 	 */
 	public void commit();	
 	
+	/**
+	 * Writes all mutations made so far to the network, for modifiers that keep the order of the ranking elsewhere while modifying
+	 */
+	public void flush();
+	
+	
+	/**
+	 * Informs the modifier about the outcome of the last mutation, allowing it to adapt its mutations
+	 * 
+	 * @param action	the outcome of the last mutation
+	 */
+	public void feedback(NetworkSA.LastAction action);
+	
 	
 	/**
 	 * Return the current network/ranking the modifier is working on
@@ -1,6 +1,8 @@
 package network.modifiers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Random;
 
@@ -10,6 +12,8 @@ import network.Network;
 import network.NetworkFileBackedWrapper;
 import network.link.Link;
 import network.link.LinkProperties;
+import network.node.Node;
+import schedulers.NetworkSA;
 import fitnessfunctions.PartitionFitnessFunction;
 
 
@@ -17,6 +21,12 @@ import fitnessfunctions.PartitionFitnessFunction;
 /**
  * PredictionModifierOpt implement the NetworkModifier interface. It will modify the ranking by moving randomly chosen links up and down the ranking at each action.
  * Both the amount of links to moved and how much they can move in the ranking are randomly determined within a certain range.
+ * In adaptive mode, these ranges shrink when few mutations are accepted and grow when many are, between the configured minimum and maximum.
+ * In hotspot mode, the links to move are not chosen uniformly but with a probability that increases with the degree of their nodes in their subnetwork.
+ * In index mode, the order of the links is kept in a RankIndex, so a link moves in O(log n) time regardless of the distance. The ranks and partitions of the links
+ * are derived from the index instead of written to the links: a modification only looks at the moved links and at the links around the partition bounds
+ * it crossed, and keeps the squared distance to the original ranking up to date for the PredictionConfidencePenalty. The ranking list and the ranks of the links
+ * are written once, by flush, when the re-ranking ends.
  * It will alert the fitnessfunction if applicable that changes were made.
  * 
  * 
@@ -42,6 +52,146 @@ public class PredictionModifierOpt implements NetworkModifier {
 	 */
 	private int moveEachTurn ;
 	
+	/**
+	 * The maximum amount of links that can be modified in the next turn, equal to modifyEachTurn unless the modifier is adaptive
+	 */
+	private int currentModifyEachTurn ;
+	
+	/**
+	 * The maximum amount of positions a link can move in the next turn, equal to moveEachTurn unless the modifier is adaptive
+	 */
+	private int currentMoveEachTurn ;
+	
+	/**
+	 * Indicates if the ranges of the mutations adapt to the acceptance ratio
+	 */
+	private boolean adaptive = false;
+	
+	/**
+	 * Amount of mutations over which the acceptance ratio is measured before the ranges are adapted
+	 */
+	private int adaptationWindow ;
+	
+	/**
+	 * The acceptance ratio the adaptive modifier aims for
+	 */
+	private double targetAcceptance ;
+	
+	/**
+	 * Lower bound of currentModifyEachTurn in adaptive mode
+	 */
+	private int minModifyEachTurn ;
+	
+	/**
+	 * Lower bound of currentMoveEachTurn in adaptive mode
+	 */
+	private int minMoveEachTurn ;
+	
+	/**
+	 * Amount of mutations in the current adaptation window
+	 */
+	private int windowMutations ;
+	
+	/**
+	 * Amount of accepted mutations in the current adaptation window
+	 */
+	private int windowAccepted ;
+	
+	/**
+	 * Draws the links to move in hotspot mode, null if links are chosen uniformly
+	 */
+	private WeightedLinkSampler sampler;
+	
+	/**
+	 * Importance of the node degrees in the weight of a link in hotspot mode
+	 */
+	private double hotspotWeight;
+	
+	/**
+	 * The links of the ranking by their fixed index in the sampler
+	 */
+	private Link[] linkById;
+	
+	/**
+	 * Index of every node in setDegree
+	 */
+	private HashMap<Node,Integer> nodeIds;
+	
+	/**
+	 * Indices of the links connected to every node
+	 */
+	private int[][] incidentLinks;
+	
+	/**
+	 * Amount of links per node and per set, a node has setDegree[n][0] + ... + setDegree[n][j] links in the subnetwork j
+	 */
+	private int[][] setDegree;
+	
+	/**
+	 * Order of the links by their fixed index in index mode, null if links are moved in the ranking list directly
+	 */
+	private RankIndex index;
+	
+	/**
+	 * Lowest position affected by the pending modification in index mode, links between windowLow and windowHigh may have shifted
+	 */
+	private int windowLow = Integer.MAX_VALUE;
+	
+	/**
+	 * Highest position affected by the pending modification in index mode
+	 */
+	private int windowHigh = -1;
+	
+	/**
+	 * Links moved by the pending modification in index mode, in order
+	 */
+	private int[] undoLinks;
+	
+	/**
+	 * Original positions of the links moved by the pending modification in index mode
+	 */
+	private int[] undoPositions;
+	
+	/**
+	 * Amount of moves of the pending modification in index mode
+	 */
+	private int undoCount;
+	
+	/**
+	 * Buffer receiving the links around a partition bound from the index
+	 */
+	private int[] rangeBuffer;
+	
+	/**
+	 * The modification in which every link was last checked for a change of partition in index mode, by fixed index
+	 */
+	private int[] checkedModification;
+	
+	/**
+	 * Counter of the modifications in index mode
+	 */
+	private int modifications;
+	
+	/**
+	 * Links that changed partition in the pending modification in index mode, by fixed index
+	 */
+	private int[] setChanged;
+	
+	/**
+	 * Amount of links that changed partition in the pending modification in index mode
+	 */
+	private int setChangedCount;
+	
+	/**
+	 * Sum over all links of the squared difference between their rank and original rank, kept in index mode
+	 */
+	private long squaredDisplacement;
+	
+	/**
+	 * The squared difference before the pending modification in index mode, restored by revert
+	 */
+	private long previousSquaredDisplacement;
+	
 	/**
 	 * Generated lookup arrays for performance reasons, generated from the given NetworkPartition
 	 */
@@ -85,7 +235,12 @@ public class PredictionModifierOpt implements NetworkModifier {
 	/**
 	 * Random generator to be re-used
 	 */
-	private static final Random random = new Random();
+	private final Random random = new Random();
+	
+	/**
+	 * Random generator re-seeded for every seeded modification, so a mutation can be reproduced from the same state
+	 */
+	private final Random seededRandom = new Random();
 	
 
 	/**
@@ -100,6 +255,8 @@ public class PredictionModifierOpt implements NetworkModifier {
 		this.network = wrapper.getNetwork();
 		this.modifyEachTurn = modifyEachTurn;
 		this.moveEachTurn = moveEachTurn;
+		this.currentModifyEachTurn = modifyEachTurn;
+		this.currentMoveEachTurn = moveEachTurn;
 		this.modified = new HashSet<Link>();
 		this.reverted = false;
 		
@@ -152,6 +309,30 @@ public class PredictionModifierOpt implements NetworkModifier {
 	 */
 	@Override
 	public void modify() {
+		this.modify(random);
+	}
+	
+	
+	/**
+	 * Implements the seeded modify action of the interface. Applying the same seed to the same ranking will always result in the same mutation,
+	 * which allows a mutation that was evaluated and reverted to be applied again.
+	 * 
+	 * @param seed	the seed which determines the mutation
+	 */
+	@Override
+	public void modify(long seed) {
+		this.seededRandom.setSeed(seed);
+		this.modify(this.seededRandom);
+	}
+	
+	
+	// performs the actual mutation, drawing all random decisions from the given generator
+	private void modify(Random random) {
+		
+		if (this.index != null){
+			this.modifyIndexed(random);
+			return;
+		}
 		
 		if (this.modded){
 			this.commit();
@@ -161,7 +342,7 @@ public class PredictionModifierOpt implements NetworkModifier {
 		this.reverted = false;
 		
 
-		int moveThisTurn = random.nextInt(this.modifyEachTurn);
+		int moveThisTurn = random.nextInt(this.currentModifyEachTurn);
 		
 		
 		for (int i = 0 ; i < moveThisTurn; i++){
@@ -169,8 +350,8 @@ public class PredictionModifierOpt implements NetworkModifier {
 			// move up or down
 			if (random.nextInt(1)==1){
 				// <- move up
-				int move = random.nextInt(moveEachTurn)+1; // calculate amount of positions to move up
-				int pos = random.nextInt(this.network.getLinks().size()); // decide which link will move
+				int move = random.nextInt(currentMoveEachTurn)+1; // calculate amount of positions to move up
+				int pos = this.pickPosition(random); // decide which link will move
 				
 				// check for boundary conditions
 				if ( (pos+move) >=  this.network.getLinks().size()){ // if the move would result in a final position which exceeds the number of links, adjust move to end of list
@@ -303,8 +484,8 @@ public class PredictionModifierOpt implements NetworkModifier {
 			else{
 				
 				// <- move down
-				int move = random.nextInt(moveEachTurn)+1; // calculate amount of positions to move up
-				int pos = random.nextInt(this.network.getLinks().size()); // decide which link will move
+				int move = random.nextInt(currentMoveEachTurn)+1; // calculate amount of positions to move up
+				int pos = this.pickPosition(random); // decide which link will move
 				
 				// check for boundary conditions
 				if ( (pos-move) <  0){ // if the move would result in a final position which is less than zero, put the link at the top
@@ -437,6 +618,441 @@ public class PredictionModifierOpt implements NetworkModifier {
 	}
 	
 	
+	/**
+	 * Turns on adaptive mode. The acceptance ratio is measured over a window of mutations, after which both the amount of links modified and the amount of positions
+	 * they can move are shrunk if the ratio is below the target, or grown if the ratio is above the target. The configured modifyEachTurn and moveEachTurn are the upper bounds.
+	 * 
+	 * @param adaptationWindow	amount of mutations over which the acceptance ratio is measured
+	 * @param targetAcceptance	the acceptance ratio to aim for
+	 * @param minModifyEachTurn	lower bound of the amount of links that can be modified
+	 * @param minMoveEachTurn	lower bound of the amount of positions a link can move
+	 */
+	public void setAdaptive(int adaptationWindow, double targetAcceptance, int minModifyEachTurn, int minMoveEachTurn){
+		this.adaptive = true;
+		this.adaptationWindow = Math.max(1, adaptationWindow);
+		this.targetAcceptance = targetAcceptance;
+		// the amount of links modified is sampled from [0, currentModifyEachTurn), so it should stay above 1 to modify anything
+		this.minModifyEachTurn = Math.min(this.modifyEachTurn, Math.max(2, minModifyEachTurn));
+		this.minMoveEachTurn = Math.max(1, Math.min(minMoveEachTurn, this.moveEachTurn));
+		this.windowMutations = 0;
+		this.windowAccepted = 0;
+	}
+	
+	
+	/**
+	 * Implements the feedback action of the interface. In adaptive mode, the outcome is added to the acceptance ratio of the current window
+	 * and the ranges of the mutations are adapted at the end of the window.
+	 * 
+	 * @param action	the outcome of the last mutation
+	 */
+	@Override
+	public void feedback(NetworkSA.LastAction action) {
+		
+		if (!this.adaptive){
+			return;
+		}
+		
+		this.windowMutations++;
+		if (action != NetworkSA.LastAction.REVERTED){
+			this.windowAccepted++;
+		}
+		if (this.windowMutations < this.adaptationWindow){
+			return;
+		}
+		
+		double ratio = ((double) this.windowAccepted) / this.windowMutations;
+		if (ratio < this.targetAcceptance){
+			// most mutations are reverted, make smaller ones
+			this.currentModifyEachTurn = Math.max(this.minModifyEachTurn, (int) (this.currentModifyEachTurn * 0.8));
+			this.currentMoveEachTurn = Math.max(this.minMoveEachTurn, (int) (this.currentMoveEachTurn * 0.8));
+		}else if (ratio > this.targetAcceptance){
+			// most mutations are accepted, make larger ones (atleast one more so small ranges can grow)
+			this.currentModifyEachTurn = Math.min(this.modifyEachTurn, Math.max(this.currentModifyEachTurn+1, (int) (this.currentModifyEachTurn * 1.25)));
+			this.currentMoveEachTurn = Math.min(this.moveEachTurn, Math.max(this.currentMoveEachTurn+1, (int) (this.currentMoveEachTurn * 1.25)));
+		}
+		this.windowMutations = 0;
+		this.windowAccepted = 0;
+	}
+	
+	
+	/**
+	 * Seeds the random generator of the modifications, so a re-ranking can be repeated
+	 * 
+	 * @param seed	the seed
+	 */
+	public void setSeed(long seed){
+		this.random.setSeed(seed);
+	}
+	
+	
+	/**
+	 * Turns on hotspot mode. Every link gets a weight of 1 + hotspotWeight * (the amount of other links of its nodes in its subnetwork), and the links to move are drawn
+	 * proportional to their weights. Links around hubs, where the structural penalties are decided, are moved more often. The weights are updated when changes are committed.
+	 * 
+	 * @param hotspotWeight	importance of the node degrees in the weight of a link
+	 */
+	public void setHotspots(double hotspotWeight){
+		
+		this.hotspotWeight = hotspotWeight;
+		this.indexLinks();
+		this.sampler = new WeightedLinkSampler(this.linkById.length);
+		this.nodeIds = new HashMap<Node,Integer>();
+		
+		// index the nodes and count their links
+		ArrayList<Integer> linkCount = new ArrayList<Integer>();
+		for (Link a : this.linkById){
+			for (Node node : new Node[]{a.getTf(), a.getTarget()}){
+				Integer id = this.nodeIds.get(node);
+				if (id == null){
+					this.nodeIds.put(node, this.nodeIds.size());
+					linkCount.add(1);
+				}else{
+					linkCount.set(id, linkCount.get(id)+1);
+				}
+			}
+		}
+		
+		int sets = this.setLookupArray[this.setLookupArray.length-1]+1;
+		this.incidentLinks = new int[this.nodeIds.size()][];
+		this.setDegree = new int[this.nodeIds.size()][sets];
+		for (int i = 0 ; i < this.incidentLinks.length ; i++){
+			this.incidentLinks[i] = new int[linkCount.get(i)];
+			linkCount.set(i, 0);
+		}
+		for (int l = 0 ; l < this.linkById.length ; l++){
+			Link a = this.linkById[l];
+			int set = a.getLinkProperties().getCurrentSet();
+			for (Node node : new Node[]{a.getTf(), a.getTarget()}){
+				int id = this.nodeIds.get(node);
+				this.incidentLinks[id][linkCount.get(id)] = l;
+				linkCount.set(id, linkCount.get(id)+1);
+				this.setDegree[id][set]++;
+			}
+		}
+		
+		for (int l = 0 ; l < this.linkById.length ; l++){
+			this.sampler.setWeight(l, this.hotspotLinkWeight(this.linkById[l]));
+		}
+	}
+	
+	
+	// decides which link will move, uniformly or by the hotspot weights
+	private int pickPosition(Random random){
+		if (this.sampler == null){
+			return random.nextInt(this.network.getLinks().size());
+		}
+		int id = this.sampler.sample(random);
+		if (this.index != null){
+			return this.index.rank(id);
+		}
+		return this.linkById[id].getLinkProperties().getPredictionRank()-1;
+	}
+	
+	
+	// gives every link a fixed index, in the order of the current ranking
+	private void indexLinks(){
+		if (this.linkById == null){
+			int links = this.network.getLinks().size();
+			this.linkById = this.network.getLinks().toArray(new Link[links]);
+		}
+	}
+	
+	
+	/**
+	 * Turns on index mode. Should be called before the first modification.
+	 */
+	public void setRankIndex(){
+		
+		if (this.modded){
+			throw new RuntimeErrorException(null,"The rank index should be set before the ranking is modified.");
+		}
+		this.indexLinks();
+		
+		int sets = this.setLookupArray[this.setLookupArray.length-1]+1;
+		int[] bounds = new int[sets];
+		for (int j = 0 ; j < sets ; j++){
+			bounds[j] = this.setUpperLookupArray[0];
+		}
+		for (int i = 0 ; i < this.setLookupArray.length ; i++){
+			bounds[this.setLookupArray[i]] = this.setUpperLookupArray[i];
+		}
+		
+		// the index sums the original ranks, from which the squared difference with the original ranking follows
+		long[] originalRanks = new long[this.linkById.length];
+		this.squaredDisplacement = 0;
+		for (int i = 0 ; i < this.linkById.length ; i++){
+			LinkProperties properties = this.linkById[i].getLinkProperties();
+			originalRanks[i] = properties.getOriginalPredictionRank();
+			long difference = properties.getPredictionRank() - properties.getOriginalPredictionRank();
+			this.squaredDisplacement += difference * difference;
+		}
+		
+		this.index = new RankIndex(this.linkById.length, bounds, originalRanks);
+		this.undoLinks = new int[Math.max(1, this.modifyEachTurn)];
+		this.undoPositions = new int[Math.max(1, this.modifyEachTurn)];
+		this.setChanged = new int[Math.max(1, this.modifyEachTurn)];
+		this.rangeBuffer = new int[Math.max(2, 2 * this.modifyEachTurn)];
+		this.checkedModification = new int[this.linkById.length];
+		this.modifications = 0;
+	}
+	
+	
+	/**
+	 * Implements the flush action of the interface. Writes the order of the links in the rank index to the ranking list and their ranks to the links,
+	 * which are not kept up to date while modifying in index mode. Does nothing if the modifier is not in index mode.
+	 */
+	@Override
+	public void flush(){
+		
+		if (this.index == null){
+			return;
+		}
+		int[] order = new int[this.linkById.length];
+		this.index.copyRange(0, order.length-1, order);
+		for (int position = 0 ; position < order.length ; position++){
+			Link link = this.linkById[order[position]];
+			link.getLinkProperties().setPredictionRank(position+1);
+			this.network.getLinks().set(position, link);
+		}
+	}
+	
+	
+	// the modify action in index mode, draws the same moves as the regular modify action
+	private void modifyIndexed(Random random){
+		
+		if (this.modded){
+			this.commit();
+		}
+		
+		this.commited = false;
+		this.reverted = false;
+		this.undoCount = 0;
+		this.previousSquaredDisplacement = this.squaredDisplacement;
+		
+		int size = this.linkById.length;
+		int moveThisTurn = random.nextInt(this.currentModifyEachTurn);
+		
+		for (int i = 0 ; i < moveThisTurn; i++){
+			
+			// move up or down, as in the regular modify action
+			if (random.nextInt(1)==1){
+				int move = random.nextInt(currentMoveEachTurn)+1;
+				int pos = this.pickPosition(random);
+				if ( (pos+move) >=  size){
+					move =  size - pos -1;
+					if (move == 0){
+						continue;
+					}
+				}
+				this.moveIndexed(pos, pos+move);
+			}
+			else{
+				int move = random.nextInt(currentMoveEachTurn)+1;
+				int pos = this.pickPosition(random);
+				if ( (pos-move) <  0){
+					move =  pos ;
+					if (move == 0){
+						continue;
+					}
+				}
+				this.moveIndexed(pos, pos-move);
+			}
+		}
+		
+		this.trackSetChanges();
+		
+		if (this.fitnessIncrementFunction != null){
+			this.fitnessIncrementFunction.modify();
+		}
+		this.modded = true;
+	}
+	
+	
+	// moves the link at a position in the index and records the move so it can be undone
+	private void moveIndexed(int from, int to){
+		
+		int id = this.index.select(from);
+		this.squaredDisplacement += this.displacementChange(id, from, to);
+		this.index.move(id, to);
+		
+		if (this.undoCount == this.undoLinks.length){
+			this.undoLinks = Arrays.copyOf(this.undoLinks, this.undoCount*2);
+			this.undoPositions = Arrays.copyOf(this.undoPositions, this.undoCount*2);
+		}
+		this.undoLinks[this.undoCount] = id;
+		this.undoPositions[this.undoCount] = from;
+		this.undoCount++;
+		
+		this.windowLow = Math.min(this.windowLow, Math.min(from, to));
+		this.windowHigh = Math.max(this.windowHigh, Math.max(from, to));
+	}
+	
+	
+	// the change of the squared difference with the original ranking when a link moves, the links in between shift one rank towards the old rank of the link
+	private long displacementChange(int id, int from, int to){
+		
+		long original = this.index.getValue(id);
+		long before = from + 1 - original;
+		long after = to + 1 - original;
+		long change = after * after - before * before;
+		if (to > from){
+			// the links at positions from+1 to to move one rank up: (r-1-o)^2 - (r-o)^2 = -2(r-o) + 1
+			long ranks = ((long) (from + 2 + to + 1)) * (to - from) / 2;
+			change += -2 * (ranks - this.index.sum(from+1, to)) + (to - from);
+		}else{
+			// the links at positions to to from-1 move one rank down: (r+1-o)^2 - (r-o)^2 = 2(r-o) + 1
+			long ranks = ((long) (to + 1 + from)) * (from - to) / 2;
+			change += 2 * (ranks - this.index.sum(to, from-1)) + (from - to);
+		}
+		return change;
+	}
+	
+	
+	// finds the links whose partition changed in the pending modification and tracks them like the regular modify action.
+	// a link that only shifted moved at most one position per move, so it can only have crossed a bound if it is within that distance of the bound
+	private void trackSetChanges(){
+		
+		this.setChangedCount = 0;
+		if (this.windowHigh < this.windowLow){
+			return;
+		}
+		if (this.modifications == Integer.MAX_VALUE){
+			Arrays.fill(this.checkedModification, 0);
+			this.modifications = 0;
+		}
+		this.modifications++;
+		
+		for (int k = 0 ; k < this.undoCount ; k++){
+			this.trackSetChange(this.undoLinks[k]);
+		}
+		
+		int distance = this.undoCount;
+		for (int set = 0 ; set < this.index.getPartitions()-1 ; set++){
+			int bound = this.index.getUpperBound(set);
+			if (bound <= this.windowLow || bound > this.windowHigh){
+				continue;
+			}
+			int from = Math.max(this.windowLow, bound - distance);
+			int to = Math.min(this.windowHigh, bound + distance - 1);
+			if (to-from+1 > this.rangeBuffer.length){
+				this.rangeBuffer = new int[to-from+1];
+			}
+			this.index.copyRange(from, to, this.rangeBuffer);
+			for (int k = 0 ; k <= to-from ; k++){
+				this.trackSetChange(this.rangeBuffer[k]);
+			}
+		}
+	}
+	
+	
+	// compares the partition of a link in the index with the partition of the link, once per modification
+	private void trackSetChange(int id){
+		
+		if (this.checkedModification[id] == this.modifications){
+			return;
+		}
+		this.checkedModification[id] = this.modifications;
+		
+		Link link = this.linkById[id];
+		LinkProperties properties = link.getLinkProperties();
+		int newSet = this.index.partitionOf(id);
+		if (newSet == properties.getCurrentSet()){
+			return;
+		}
+		
+		// every link is checked once per modification, so its current set is still the committed one
+		properties.setPreviousSet(properties.getCurrentSet());
+		properties.setPreviousLowerBound(properties.getLowerBoundSet());
+		properties.setPreviousUpperBound(properties.getUpperBoundSet());
+		properties.setUpperBoundSet(this.index.getUpperBound(newSet));
+		properties.setLowerBoundSet(this.index.getLowerBound(newSet));
+		properties.setCurrentSet(newSet);
+		this.modified.add(link);
+		
+		if (this.setChangedCount == this.setChanged.length){
+			this.setChanged = Arrays.copyOf(this.setChanged, this.setChangedCount*2);
+		}
+		this.setChanged[this.setChangedCount++] = id;
+	}
+	
+	
+	// undoes the moves of the pending modification in the index and restores the partitions of the links that changed partition
+	private void revertIndexed(){
+		
+		for (int k = this.undoCount-1 ; k >= 0 ; k--){
+			this.index.move(this.undoLinks[k], this.undoPositions[k]);
+		}
+		this.undoCount = 0;
+		
+		for (int k = 0 ; k < this.setChangedCount ; k++){
+			LinkProperties properties = this.linkById[this.setChanged[k]].getLinkProperties();
+			properties.setUpperBoundSet(properties.getPreviousUpperBound());
+			properties.setLowerBoundSet(properties.getPreviousLowerBound());
+			properties.setCurrentSet(properties.getPreviousSet());
+			properties.setPreviousSet(-1);
+			properties.setPreviousLowerBound(-1);
+			properties.setPreviousUpperBound(-1);
+		}
+		this.setChangedCount = 0;
+		this.squaredDisplacement = this.previousSquaredDisplacement;
+		this.windowLow = Integer.MAX_VALUE;
+		this.windowHigh = -1;
+	}
+	
+	
+	// the hotspot weight of a link, based on the amount of other links of both its nodes in its subnetwork
+	private double hotspotLinkWeight(Link a){
+		
+		int set = a.getLinkProperties().getCurrentSet();
+		int[] tfDegree = this.setDegree[this.nodeIds.get(a.getTf())];
+		int[] targetDegree = this.setDegree[this.nodeIds.get(a.getTarget())];
+		int degree = -2;
+		for (int j = 0 ; j <= set ; j++){
+			degree += tfDegree[j] + targetDegree[j];
+		}
+		return 1 + this.hotspotWeight * degree;
+	}
+	
+	
+	// updates the node degrees for all links that changed set in the changes about to be committed and recalculates the weights of the links around them
+	private void updateHotspotWeights(ArrayList<Link> links){
+		
+		boolean changed = false;
+		for (Link a : links){
+			LinkProperties b = a.getLinkProperties();
+			if (b.getPreviousSet() == -1 || b.getPreviousSet() == b.getCurrentSet()){
+				continue;
+			}
+			int[] tfDegree = this.setDegree[this.nodeIds.get(a.getTf())];
+			int[] targetDegree = this.setDegree[this.nodeIds.get(a.getTarget())];
+			tfDegree[b.getPreviousSet()]--;
+			tfDegree[b.getCurrentSet()]++;
+			targetDegree[b.getPreviousSet()]--;
+			targetDegree[b.getCurrentSet()]++;
+			changed = true;
+		}
+		if (!changed){
+			return;
+		}
+		for (Link a : links){
+			LinkProperties b = a.getLinkProperties();
+			if (b.getPreviousSet() == -1 || b.getPreviousSet() == b.getCurrentSet()){
+				continue;
+			}
+			this.updateIncidentWeights(a.getTf());
+			this.updateIncidentWeights(a.getTarget());
+		}
+	}
+	
+	
+	// recalculates the hotspot weights of all links of a node
+	private void updateIncidentWeights(Node node){
+		for (int l : this.incidentLinks[this.nodeIds.get(node)]){
+			this.sampler.setWeight(l, this.hotspotLinkWeight(this.linkById[l]));
+		}
+	}
+	
+	
 	/**
 	 * Implements the revert action of the interface. This method undo all changes. Can only go back one step in time.
 	 * Clears the modified list and reverts the fitnessfunction.
@@ -451,6 +1067,13 @@ public class PredictionModifierOpt implements NetworkModifier {
 		}
 		this.reverted = true;
 		
+		if (this.index != null){
+			this.revertIndexed();
+			this.modified.clear();
+			this.modded = false;
+			return;
+		}
+		
 		int i = 0;
 		while (i < network.getLinks().size()){
 			
@@ -498,8 +1121,29 @@ public class PredictionModifierOpt implements NetworkModifier {
 		if(this.commited ){
 			throw new RuntimeErrorException(null,"Already committed.");
 		}
-		for (Link a : this.network.getLinks()){
-			a.getLinkProperties().commit();
+		if (this.index != null){
+			// only the links that changed partition have pending changes
+			if (this.sampler != null && this.setChangedCount > 0){
+				ArrayList<Link> changed = new ArrayList<Link>(this.setChangedCount);
+				for (int k = 0 ; k < this.setChangedCount ; k++){
+					changed.add(this.linkById[this.setChanged[k]]);
+				}
+				this.updateHotspotWeights(changed);
+			}
+			for (int k = 0 ; k < this.setChangedCount ; k++){
+				this.linkById[this.setChanged[k]].getLinkProperties().commit();
+			}
+			this.setChangedCount = 0;
+			this.undoCount = 0;
+			this.windowLow = Integer.MAX_VALUE;
+			this.windowHigh = -1;
+		}else{
+			if (this.sampler != null){
+				this.updateHotspotWeights(this.network.getLinks());
+			}
+			for (Link a : this.network.getLinks()){
+				a.getLinkProperties().commit();
+			}
 		}
 		if (this.fitnessIncrementFunction != null){
 			this.fitnessIncrementFunction.commit();
@@ -554,12 +1198,37 @@ public class PredictionModifierOpt implements NetworkModifier {
 	}
 	public void setModifyEachTurn(int modifyEachTurn) {
 		this.modifyEachTurn = modifyEachTurn;
+		this.currentModifyEachTurn = modifyEachTurn;
 	}
 	public int getMoveEachTurn() {
 		return moveEachTurn;
 	}
 	public void setMoveEachTurn(int moveEachTurn) {
 		this.moveEachTurn = moveEachTurn;
+		this.currentMoveEachTurn = moveEachTurn;
+	}
+	public int getCurrentModifyEachTurn() {
+		return currentModifyEachTurn;
+	}
+	public int getCurrentMoveEachTurn() {
+		return currentMoveEachTurn;
+	}
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+	public boolean isHotspots() {
+		return sampler != null;
+	}
+	public boolean isRankIndex() {
+		return index != null;
+	}
+	/**
+	 * Returns the sum over all links of the squared difference between their rank and original rank, kept in index mode only
+	 * 
+	 * @return the squared difference with the original ranking
+	 */
+	public long getSquaredDisplacement() {
+		return squaredDisplacement;
 	}
 
 
@@ -0,0 +1,400 @@
+package network.modifiers;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * RankIndex keeps the order of a ranking of n items, identified by the ids 0 to n-1, in an implicit treap.
+ * Finding the rank of an item, finding the item at a rank and moving an item to another rank all take O(log n) expected time,
+ * without touching the items in between.
+ *
+ * The ranks are 0-based, like the positions in the ranking list.
+ * Every item can carry a value, the sum of the values of a range of ranks is found in O(log n) time as well.
+ * The partition of an item follows from its rank and the upper ranks of the partitions.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class RankIndex {
+
+	/**
+	 * Marks a missing child or parent
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Left child of every item
+	 */
+	private int[] left;
+
+	/**
+	 * Right child of every item
+	 */
+	private int[] right;
+
+	/**
+	 * Parent of every item, NONE for the root
+	 */
+	private int[] parent;
+
+	/**
+	 * Size of the subtree of every item
+	 */
+	private int[] size;
+
+	/**
+	 * Heap priority of every item
+	 */
+	private int[] priority;
+
+	/**
+	 * Value of every item
+	 */
+	private long[] value;
+
+	/**
+	 * Sum of the values in the subtree of every item
+	 */
+	private long[] sum;
+
+	/**
+	 * Root of the treap
+	 */
+	private int root;
+
+	/**
+	 * Exclusive upper ranks of the partitions, in increasing order
+	 */
+	private int[] partitionBounds;
+
+	/**
+	 * Results of the latest split
+	 */
+	private int splitLeft, splitRight;
+
+
+	/**
+	 * Constructs a new RankIndex in which item i has rank i, all items have value 0
+	 *
+	 * @param items	the amount of items
+	 * @param partitionBounds	the exclusive upper ranks of the partitions, in increasing order
+	 */
+	public RankIndex(int items, int[] partitionBounds){
+		this(items, partitionBounds, new long[items]);
+	}
+
+	/**
+	 * Constructs a new RankIndex in which item i has rank i
+	 *
+	 * @param items	the amount of items
+	 * @param partitionBounds	the exclusive upper ranks of the partitions, in increasing order
+	 * @param values	the value of every item
+	 */
+	public RankIndex(int items, int[] partitionBounds, long[] values){
+
+		this.value = values.clone();
+		this.sum = new long[items];
+		this.left = new int[items];
+		this.right = new int[items];
+		this.parent = new int[items];
+		this.size = new int[items];
+		this.priority = new int[items];
+		this.partitionBounds = partitionBounds.clone();
+
+		Random random = new Random();
+		for (int i = 0 ; i < items ; i++){
+			this.priority[i] = random.nextInt();
+		}
+
+		// build the treap in linear time, keeping the right spine on a stack
+		int[] stack = new int[items];
+		int top = -1;
+		for (int i = 0 ; i < items ; i++){
+			int last = NONE;
+			while (top >= 0 && this.priority[stack[top]] < this.priority[i]){
+				last = stack[top--];
+			}
+			this.left[i] = last;
+			this.right[i] = NONE;
+			if (top >= 0){
+				this.right[stack[top]] = i;
+			}
+			stack[++top] = i;
+		}
+		this.root = top >= 0 ? stack[0] : NONE;
+		this.initialize(this.root);
+		if (this.root != NONE){
+			this.parent[this.root] = NONE;
+		}
+	}
+
+
+	/**
+	 * Returns the rank of an item
+	 *
+	 * @param id	the item
+	 * @return	the 0-based rank of the item
+	 */
+	public int rank(int id){
+		int rank = this.size(this.left[id]);
+		int t = id;
+		while (t != this.root){
+			int p = this.parent[t];
+			if (this.right[p] == t){
+				rank += this.size(this.left[p]) + 1;
+			}
+			t = p;
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the item at a rank
+	 *
+	 * @param rank	the 0-based rank
+	 * @return	the item at the rank
+	 */
+	public int select(int rank){
+		int t = this.root;
+		while (true){
+			int leftSize = this.size(this.left[t]);
+			if (rank < leftSize){
+				t = this.left[t];
+			}else if (rank == leftSize){
+				return t;
+			}else{
+				rank -= leftSize + 1;
+				t = this.right[t];
+			}
+		}
+	}
+
+	/**
+	 * Moves an item to another rank, the items in between shift one rank towards the old rank of the item
+	 *
+	 * @param id	the item
+	 * @param newRank	the new 0-based rank of the item
+	 */
+	public void move(int id, int newRank){
+
+		// take the item out
+		this.split(this.root, this.rank(id));
+		int before = this.splitLeft;
+		this.split(this.splitRight, 1);
+		this.root = this.merge(before, this.splitRight);
+
+		// and put it back at its new rank
+		this.left[id] = NONE;
+		this.right[id] = NONE;
+		this.size[id] = 1;
+		this.sum[id] = this.value[id];
+		this.split(this.root, newRank);
+		int after = this.splitRight;
+		this.root = this.merge(this.merge(this.splitLeft, id), after);
+		this.parent[this.root] = NONE;
+	}
+
+	/**
+	 * Returns the partition an item belongs to
+	 *
+	 * @param id	the item
+	 * @return	the index of the partition of the item
+	 */
+	public int partitionOf(int id){
+		return this.partitionOfRank(this.rank(id));
+	}
+
+	/**
+	 * Returns the partition of a rank
+	 *
+	 * @param rank	the 0-based rank
+	 * @return	the index of the partition holding the rank
+	 */
+	public int partitionOfRank(int rank){
+		int index = Arrays.binarySearch(this.partitionBounds, rank);
+		// a rank equal to a bound is the first rank of the next partition
+		return index >= 0 ? index+1 : -index-1;
+	}
+
+	/**
+	 * Returns the exclusive upper rank of a partition
+	 *
+	 * @param partition	the index of the partition
+	 * @return	the first rank after the partition
+	 */
+	public int getUpperBound(int partition){
+		return this.partitionBounds[partition];
+	}
+
+	/**
+	 * Returns the first rank of a partition
+	 *
+	 * @param partition	the index of the partition
+	 * @return	the first rank of the partition
+	 */
+	public int getLowerBound(int partition){
+		return partition == 0 ? 0 : this.partitionBounds[partition-1];
+	}
+
+	/**
+	 * Returns the amount of partitions
+	 *
+	 * @return	the amount of partitions
+	 */
+	public int getPartitions(){
+		return this.partitionBounds.length;
+	}
+
+	/**
+	 * Returns the value of an item
+	 *
+	 * @param id	the item
+	 * @return	the value of the item
+	 */
+	public long getValue(int id){
+		return this.value[id];
+	}
+
+	/**
+	 * Returns the sum of the values of the items of a range of ranks
+	 *
+	 * @param from	the first 0-based rank of the range
+	 * @param to	the last 0-based rank of the range, inclusive
+	 * @return	the sum of the values, 0 for an empty range
+	 */
+	public long sum(int from, int to){
+		if (to < from){
+			return 0;
+		}
+		return this.prefixSum(to+1) - this.prefixSum(from);
+	}
+
+	/**
+	 * Copies the items of a range of ranks in ranking order
+	 *
+	 * @param from	the first 0-based rank of the range
+	 * @param to	the last 0-based rank of the range, inclusive
+	 * @param destination	array receiving the items, the item at rank from is stored at index 0
+	 */
+	public void copyRange(int from, int to, int[] destination){
+		this.collect(this.root, 0, from, to, destination);
+	}
+
+	/**
+	 * Returns the amount of items
+	 *
+	 * @return	the amount of items
+	 */
+	public int size(){
+		return this.size(this.root);
+	}
+
+
+	// private methods
+
+	private int size(int t){
+		return t == NONE ? 0 : this.size[t];
+	}
+
+	private long sumOf(int t){
+		return t == NONE ? 0 : this.sum[t];
+	}
+
+	// recalculates the size and the sum of an item and sets the parent of its children
+	private void update(int t){
+		this.size[t] = 1 + this.size(this.left[t]) + this.size(this.right[t]);
+		this.sum[t] = this.value[t] + this.sumOf(this.left[t]) + this.sumOf(this.right[t]);
+		if (this.left[t] != NONE){
+			this.parent[this.left[t]] = t;
+		}
+		if (this.right[t] != NONE){
+			this.parent[this.right[t]] = t;
+		}
+	}
+
+	private int initialize(int t){
+		if (t == NONE){
+			return 0;
+		}
+		this.initialize(this.left[t]);
+		this.initialize(this.right[t]);
+		this.update(t);
+		return this.size[t];
+	}
+
+	// the sum of the values of the first k items
+	private long prefixSum(int k){
+		long prefix = 0;
+		int t = this.root;
+		while (t != NONE && k > 0){
+			int leftSize = this.size(this.left[t]);
+			if (k <= leftSize){
+				t = this.left[t];
+			}else{
+				prefix += this.sumOf(this.left[t]) + this.value[t];
+				k -= leftSize + 1;
+				t = this.right[t];
+			}
+		}
+		return prefix;
+	}
+
+	// splits the subtree in the first k items (splitLeft) and the others (splitRight)
+	private void split(int t, int k){
+		if (t == NONE){
+			this.splitLeft = NONE;
+			this.splitRight = NONE;
+			return;
+		}
+		if (this.size(this.left[t]) >= k){
+			this.split(this.left[t], k);
+			this.left[t] = this.splitRight;
+			this.update(t);
+			this.splitRight = t;
+		}else{
+			this.split(this.right[t], k - this.size(this.left[t]) - 1);
+			this.right[t] = this.splitLeft;
+			this.update(t);
+			this.splitLeft = t;
+		}
+	}
+
+	// merges two subtrees, all items of a come before the items of b
+	private int merge(int a, int b){
+		if (a == NONE){
+			return b;
+		}
+		if (b == NONE){
+			return a;
+		}
+		if (this.priority[a] > this.priority[b]){
+			this.right[a] = this.merge(this.right[a], b);
+			this.update(a);
+			return a;
+		}else{
+			this.left[b] = this.merge(a, this.left[b]);
+			this.update(b);
+			return b;
+		}
+	}
+
+	// in order traversal of the items with ranks in [from, to], offset is the rank of the first item of the subtree
+	private void collect(int t, int offset, int from, int to, int[] destination){
+		if (t == NONE){
+			return;
+		}
+		int rank = offset + this.size(this.left[t]);
+		if (from < rank){
+			this.collect(this.left[t], offset, from, to, destination);
+		}
+		if (rank >= from && rank <= to){
+			destination[rank-from] = t;
+		}
+		if (to > rank){
+			this.collect(this.right[t], rank+1, from, to, destination);
+		}
+	}
+
+}
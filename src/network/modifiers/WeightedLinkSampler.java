@@ -0,0 +1,119 @@
+package network.modifiers;
+
+import java.util.Random;
+
+
+/**
+ * WeightedLinkSampler draws an index with a probability proportional to its weight. The weights are stored in a Fenwick tree,
+ * so both drawing an index and changing a single weight take O(log n) time.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class WeightedLinkSampler {
+
+	/**
+	 * The weight of every index
+	 */
+	private double[] weights;
+
+	/**
+	 * Fenwick tree over the weights, 1-based
+	 */
+	private double[] tree;
+
+	/**
+	 * Highest power of two not larger than the amount of indices, used to descend the tree
+	 */
+	private int highestBit;
+
+
+	/**
+	 * Constructs a new WeightedLinkSampler with all weights set to zero
+	 *
+	 * @param size	the amount of indices
+	 */
+	public WeightedLinkSampler(int size){
+		this.weights = new double[size];
+		this.tree = new double[size+1];
+		this.highestBit = Integer.highestOneBit(Math.max(1, size));
+	}
+
+
+	/**
+	 * Changes the weight of a single index
+	 *
+	 * @param index	the index
+	 * @param weight	the new weight, should not be negative
+	 */
+	public void setWeight(int index, double weight){
+		double delta = weight - this.weights[index];
+		if (delta == 0){
+			return;
+		}
+		this.weights[index] = weight;
+		for (int i = index+1 ; i < this.tree.length ; i += i & (-i)){
+			this.tree[i] += delta;
+		}
+	}
+
+	/**
+	 * Returns the weight of a single index
+	 *
+	 * @param index	the index
+	 * @return	the weight of the index
+	 */
+	public double getWeight(int index){
+		return this.weights[index];
+	}
+
+	/**
+	 * Returns the sum of all weights
+	 *
+	 * @return	the sum of all weights
+	 */
+	public double getTotalWeight(){
+		double sum = 0;
+		for (int i = this.weights.length ; i > 0 ; i -= i & (-i)){
+			sum += this.tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Draws an index with a probability proportional to its weight
+	 *
+	 * @param random	the random generator to draw from
+	 * @return	the drawn index
+	 */
+	public int sample(Random random){
+
+		double target = random.nextDouble() * this.getTotalWeight();
+
+		// descend the tree, looking for the first index at which the cumulative weight exceeds the target
+		int position = 0;
+		for (int step = this.highestBit ; step > 0 ; step >>= 1){
+			int next = position + step;
+			if (next < this.tree.length && this.tree[next] <= target){
+				position = next;
+				target -= this.tree[next];
+			}
+		}
+		// guard against rounding at the end of the range and zero weights
+		while (position < this.weights.length-1 && this.weights[position] == 0){
+			position++;
+		}
+		return Math.min(position, this.weights.length-1);
+	}
+
+	/**
+	 * Returns the amount of indices
+	 *
+	 * @return	the amount of indices
+	 */
+	public int size(){
+		return this.weights.length;
+	}
+
+}
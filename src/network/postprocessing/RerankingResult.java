@@ -7,12 +7,13 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 
 import javax.management.RuntimeErrorException;
 
 import network.NetworkFileBackedWrapper;
 import network.link.Link;
+import profiling.Events;
+import profiling.FileEvent;
 
 
 /**
@@ -78,44 +79,25 @@ public class RerankingResult {
 	 */
 	public void resultToTSV (String outputFileName){
 		
-		// do a sort on the new ranking
-		ArrayList<Integer> copyArray = new ArrayList<Integer>(this.sums.length);
-		for (int i =0; i < sums.length;i++){
-			copyArray.add(i,this.sums[i]);
+		// do a sort on the new ranking, equal sums keep the order by name: the sum in the high and the position in the low bits of a key
+		int to = this.sums.length;
+		long[] order = new long[to];
+		for (int i = 0; i < to; i++){
+			order[i] = (((long) this.sums[i]) << 32) | i;
 		}
-		Collections.sort(copyArray);
+		Arrays.sort(order);
 		File file = new File(outputFileName);
+		FileEvent event = Events.file("write", outputFileName);
+		long lines = to;
 		int count = 0;
 		FileWriter writer = null;
 		try
 		{
 			writer = new FileWriter(file);
-			int to = firstCol.length;	
-			int last = -1;
-			int sinceLast = 0;
 			for (int i = 0; i < to; i++){
-				int next = copyArray.get(i);
-				if(next==last){
-					sinceLast++;
-				}else{
-					sinceLast=0;
-				}	
-				int j = 0;
-				int countDown = sinceLast ;
-				for (j = 0; j < to ; j++){
-					
-					if (sums[j]==next){
-						if (countDown==0){
-							break;
-						}else{
-							countDown--;
-						}
-					}	
-				}
+				int j = (int) order[i];
 				writer.write(firstCol[j] + "\t" + secondCol[j]+ "\t" + sums[j]  + "\n");
 				count++;
-				last = next;
-				
 			}
 			writer.flush();
 			count = 0 ;
@@ -137,6 +119,7 @@ public class RerankingResult {
 					count++;
 					if (count> cutoff  ){
 						writer.write (s+"\n");
+						lines++;
 					}
 					s = reader.readLine();
 				}
@@ -165,6 +148,9 @@ public class RerankingResult {
 				throw 	new RuntimeErrorException(null,"Unknown output format specified while writing to network to file.");
 			}
 		}
+		if (event != null){
+			event.commit(lines);
+		}
 		
 		
 	}
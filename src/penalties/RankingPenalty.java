@@ -0,0 +1,25 @@
+package penalties;
+
+import network.modifiers.PredictionModifierOpt;
+
+/**
+ * 
+ * RankingPenalty is an interface for global penalties on the ranking as a whole, which can read their metric from the modifier of the ranking.
+ * 
+ * In index mode the modifier keeps the order of the links in its rank index and does not write the ranks to the links while modifying,
+ * so these penalties ask the modifier instead of walking the links of the network.
+ * 
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface RankingPenalty extends PenaltyFunction {
+
+	/**
+	 * Sets the modifier of the ranking associated with this penalty
+	 * 
+	 * @param modifier	the modifier of the ranking
+	 */
+	public void setModifier(PredictionModifierOpt modifier);
+	
+}
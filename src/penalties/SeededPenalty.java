@@ -0,0 +1,22 @@
+package penalties;
+
+/**
+ * 
+ * SeededPenalty is an interface for penalties whose metric depends on random draws, such as a sampled estimate.
+ * 
+ * The fitness function passes every instance a seed derived from the seed of the re-ranking and the index of its subnetwork, so a seeded re-ranking can be repeated.
+ * 
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SeededPenalty extends PenaltyFunction {
+
+	/**
+	 * Sets the seed of the random draws of this penalty
+	 * 
+	 * @param seed	the seed
+	 */
+	public void setSeed(long seed);
+	
+}
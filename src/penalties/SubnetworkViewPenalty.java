@@ -0,0 +1,25 @@
+package penalties;
+
+import extractors.SubnetworkView;
+
+/**
+ * 
+ * SubnetworkViewPenalty is an interface for subnetwork based penalties which can read their metric from the degrees shared by all penalties of the same subnetwork.
+ * 
+ * The fitness function owning the view updates it once with the changed links of the subnetwork before the penalties are updated, and reverts it after them,
+ * so these penalties no longer walk the changed links themselves.
+ * 
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SubnetworkViewPenalty extends PenaltyFunction {
+
+	/**
+	 * Sets the view of the degrees of the subnetwork associated with this penalty
+	 * 
+	 * @param view	the shared view of the subnetwork
+	 */
+	public void setView(SubnetworkView view);
+	
+}
@@ -5,15 +5,16 @@ import java.util.TreeMap;
 
 import javax.management.RuntimeErrorException;
 
-import penalties.PenaltyFunction;
+import penalties.SubnetworkViewPenalty;
 import network.Network;
+import extractors.SubnetworkView;
 import extractors.DominatingExtractor;
 
 
 /**
  * Anti-Dominate penalty implements the cost function penalizing rankings which focus too much on 1 part of the network.
  * 
- * It is a (sub)network based penalty and supports incremental updates.
+ * It is a (sub)network based penalty and supports incremental updates. It reads the degrees from the view shared by the penalties of its subnetwork when one is set.
  * 
  * Please see the manuscript for the exact definition of this penalty.
  * 
@@ -22,7 +23,7 @@ import extractors.DominatingExtractor;
  * @version     1.0
  * @since      	0.0
  */
-public class AntiDominatePenalty implements PenaltyFunction{
+public class AntiDominatePenalty implements SubnetworkViewPenalty{
 
 	/**
 	 * Name for this penalty
@@ -151,6 +152,11 @@ public class AntiDominatePenalty implements PenaltyFunction{
 		this.network = predictionNetwork;
 	}
 	@Override
+	public void setView(SubnetworkView view) {
+		this.extractor.setNetwork(network);
+		this.extractor.setView(view);
+	}
+	@Override
 	public double getCoef() {
 
 		return this.coef;
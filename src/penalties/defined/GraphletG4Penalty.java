@@ -6,8 +6,9 @@ import java.util.TreeMap;
 import javax.management.RuntimeErrorException;
 
 import network.Network;
-import penalties.PenaltyFunction;
-import extractors.GraphletCounterExtractor;
+import penalties.SeededPenalty;
+import extractors.GraphletSampleExtractor;
+import extractors.IncGraphExtractor;
 
 
 /**
@@ -17,12 +18,15 @@ import extractors.GraphletCounterExtractor;
  * 
  * Please see the manuscript for the exact definition of this penalty.
  * 
+ * Subnetworks with at least the amount of links set by the graphletSampleLinks setting use the estimated G4 frequency of a GraphletSampleExtractor instead of the exact count,
+ * with the draws seeded by the fitness function.
+ * 
 
  * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
  * @version     1.0
  * @since      	0.0
  */
-public class GraphletG4Penalty implements PenaltyFunction {
+public class GraphletG4Penalty implements SeededPenalty {
 
 	/**
 	 * Name of penalty
@@ -35,9 +39,19 @@ public class GraphletG4Penalty implements PenaltyFunction {
 	private TreeMap<Double,Integer> mappingPercentageToPenalty;
 	
 	/**
-	 * GraphletCounterExtractor used to calculate the metric
+	 * IncGraphExtractor used to calculate the metric
+	 */
+	private IncGraphExtractor extractor ;
+	
+	/**
+	 * GraphletSampleExtractor used to estimate the metric on large subnetworks
 	 */
-	private GraphletCounterExtractor extractor ;
+	private GraphletSampleExtractor sampleExtractor ;
+	
+	/**
+	 * Indicates if the metric is estimated by the sampleExtractor
+	 */
+	private boolean sampled = false;
 	
 	/**
 	 * The network on which the metric is calculated
@@ -63,7 +77,8 @@ public class GraphletG4Penalty implements PenaltyFunction {
 	public GraphletG4Penalty(Object argumentList){
 		
 		String[] objectToBeParsed = (String[]) argumentList;
-		this.extractor = new GraphletCounterExtractor();
+		this.extractor = new IncGraphExtractor();
+		this.sampleExtractor = new GraphletSampleExtractor();
 
 		try {
 			// first argument should be the coef 
@@ -113,7 +128,7 @@ public class GraphletG4Penalty implements PenaltyFunction {
 			
 		}
 		double percentage = 0.0;
-		percentage = extractor.getFrequency()[4];
+		percentage = this.frequency();
 		
 		if (percentage < 0.0){
 			throw new RuntimeErrorException(null);
@@ -130,7 +145,7 @@ public class GraphletG4Penalty implements PenaltyFunction {
 			inited = true;
 		}
 		double percentage = 0.0;
-		percentage = extractor.getFrequency()[4];
+		percentage = this.frequency();
 		return this.percentageToPenalty(percentage);
 
 	}
@@ -140,11 +155,20 @@ public class GraphletG4Penalty implements PenaltyFunction {
 	}
 	@Override
 	public void updateIncrementalPenalty() {	
+		if (this.sampled){
+			this.sampleExtractor.setNetwork (network);
+			this.sampleExtractor.incrementalUpdate(network.getNonCommittalDeleted(), network.getNonCommitalAdded());
+			return;
+		}
 		this.extractor.setNetwork (network);
 		this.extractor.incrementalUpdate(network.getNonCommittalDeleted(), network.getNonCommitalAdded());
 	}
 	@Override
 	public void revertIncrementalPenalty() {
+		if (this.sampled){
+			this.sampleExtractor.revert();
+			return;
+		}
 		this.extractor.revert();
 	}
 	@Override
@@ -153,6 +177,10 @@ public class GraphletG4Penalty implements PenaltyFunction {
 		this.network = predictionNetwork;
 	}
 	@Override
+	public void setSeed(long seed) {
+		this.sampleExtractor.setSeed(seed);
+	}
+	@Override
 	public double getCoef() {
 
 		return this.coef;
@@ -169,10 +197,23 @@ public class GraphletG4Penalty implements PenaltyFunction {
 	
 	
 	private void updatePenalty(Network network){
+		this.sampled = GraphletSampleExtractor.isSampled(network);
+		if (this.sampled){
+			this.sampleExtractor.setNetwork (network);
+			this.sampleExtractor.update();
+			return;
+		}
 		this.extractor.setNetwork (network);
 		this.extractor.update();
 	}
 	
+	private double frequency(){
+		if (this.sampled){
+			return this.sampleExtractor.getFrequency()[4];
+		}
+		return this.extractor.getFrequency()[4];
+	}
+	
 	
 	private void parseAndSetMapping(String[] mapping){
 		
@@ -3,13 +3,14 @@ package penalties.defined;
 import javax.management.RuntimeErrorException;
 import network.Network;
 import network.link.Link;
-import penalties.PenaltyFunction;
+import network.modifiers.PredictionModifierOpt;
+import penalties.RankingPenalty;
 
 
 /**
  * PredictionConfidencePenalty penalty implements the cost function diverging from the original ranking. i.e. regularizing effect
  * 
- * It is a ranking based penalty and does not support incremental updates.
+ * It is a ranking based penalty and does not support incremental updates. When the modifier keeps a rank index, the sum is read from the modifier instead.
  * 
  * Please see the manuscript for the exact definition of this penalty.
  * 
@@ -18,7 +19,7 @@ import penalties.PenaltyFunction;
  * @version     1.0
  * @since      	0.0
  */
-public class PredictionConfidencePenalty  implements PenaltyFunction{
+public class PredictionConfidencePenalty  implements RankingPenalty{
 
 
 
@@ -32,6 +33,11 @@ public class PredictionConfidencePenalty  implements PenaltyFunction{
 	 */
 	private Network network ;
 	
+	/**
+	 * The modifier of the ranking, null if the ranks are read from the links
+	 */
+	private PredictionModifierOpt modifier ;
+	
 	/**
 	 * Current cost of this penalty
 	 */
@@ -115,6 +121,11 @@ public class PredictionConfidencePenalty  implements PenaltyFunction{
 		this.network = predictionNetwork;
 	}
 
+	@Override
+	public void setModifier(PredictionModifierOpt modifier) {
+		this.modifier = modifier;
+	}
+
 	@Override
 	public double getCoef() {
 		return this.coef;
@@ -131,6 +142,11 @@ public class PredictionConfidencePenalty  implements PenaltyFunction{
 	private void updatePenalty(Network update) {
 		
 		this.network = update;
+		if (this.modifier != null && this.modifier.isRankIndex()){
+			// kept up to date by the rank index, truncated to an int like the sum over the links
+			this.predictionDiffSum = (int) this.modifier.getSquaredDisplacement();
+			return;
+		}
 		int tmp = 0;
 		for (Link a : network.getLinks()){
 				long tmp2 = (long) Math.pow(a.getLinkProperties().getPredictionRank() - a.getLinkProperties().getOriginalPredictionRank(),2);
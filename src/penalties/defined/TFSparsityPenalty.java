@@ -5,15 +5,16 @@ import java.util.TreeMap;
 
 import javax.management.RuntimeErrorException;
 
-import penalties.PenaltyFunction;
+import penalties.SubnetworkViewPenalty;
 import network.Network;
+import extractors.SubnetworkView;
 import extractors.GraphletCounterExtractor;
 import extractors.TranscriptionFactorExtractor;
 
 /**
  * TFSparsityPenalty  implements the the cost function penalizing a large amount of nodes in the network with atleast one outgoing link.
  * 
- * It is a (sub)network based penalty and supports incremental updates. * 
+ * It is a (sub)network based penalty and supports incremental updates. It reads the degrees from the view shared by the penalties of its subnetwork when one is set.
  * Please see the manuscript for the exact definition of this penalty.
  * 
 
@@ -21,7 +22,7 @@ import extractors.TranscriptionFactorExtractor;
  * @version     1.0
  * @since      	0.0
  */
-public class TFSparsityPenalty implements PenaltyFunction{
+public class TFSparsityPenalty implements SubnetworkViewPenalty{
 
 
 	
@@ -165,6 +166,11 @@ public class TFSparsityPenalty implements PenaltyFunction{
 
 		this.network = predictionNetwork;
 	}
+	@Override
+	public void setView(SubnetworkView view) {
+		this.extractor.setNetwork(network);
+		this.extractor.setView(view);
+	}
 
 	@Override
 	public double getCoef() {
@@ -0,0 +1,162 @@
+package profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+
+/**
+ * AllocationProfile measures the bytes allocated by the thread of a single re-ranking, per annealing step and per phase of the step.
+ *
+ * The allocated bytes are read with com.sun.management.ThreadMXBean.getThreadAllocatedBytes, reading them does not allocate itself.
+ * A profile should only be used by the thread it was created on, allocations of the penalty evaluation threads (evaluationThreads > 1) are not included.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class AllocationProfile {
+
+	/**
+	 * Phase: mutating the ranking, including committing the previous mutation
+	 */
+	public static final int MODIFY = 0;
+
+	/**
+	 * Phase: calculating the fitness of the mutated ranking
+	 */
+	public static final int FITNESS = 1;
+
+	/**
+	 * Phase: logging and consulting the loggers
+	 */
+	public static final int LOGGERS = 2;
+
+	/**
+	 * Phase: reverting a rejected mutation
+	 */
+	public static final int REVERT = 3;
+
+	/**
+	 * Phase: everything else, i.a. the temperature update and the adaptation of the modifier
+	 */
+	public static final int OTHER = 4;
+
+	/**
+	 * Names of the phases, in index order
+	 */
+	public static final String[] PHASES = {"modify", "fitness", "loggers", "revert", "other"};
+
+	/**
+	 * The thread measurements, null if the virtual machine cannot measure allocations
+	 */
+	private com.sun.management.ThreadMXBean threads;
+
+	/**
+	 * Id of the measured thread
+	 */
+	private long threadId;
+
+	/**
+	 * Allocated bytes of the thread at the end of the latest phase
+	 */
+	private long mark;
+
+	/**
+	 * Bytes allocated in every phase
+	 */
+	private long[] bytes = new long[PHASES.length];
+
+	/**
+	 * Amount of finished steps
+	 */
+	private long steps;
+
+
+	/**
+	 * Constructs a new AllocationProfile measuring the current thread
+	 */
+	public AllocationProfile(){
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()){
+			this.threads = (com.sun.management.ThreadMXBean) bean;
+			this.threads.setThreadAllocatedMemoryEnabled(true);
+		}else{
+			System.err.println("Allocation profiling is not supported by this virtual machine.");
+		}
+		this.threadId = Thread.currentThread().getId();
+		this.mark = this.allocated();
+	}
+
+
+	/**
+	 * Adds the bytes allocated since the end of the previous phase to a phase
+	 *
+	 * @param phase	the phase that just ended
+	 */
+	public void phase(int phase){
+		long now = this.allocated();
+		this.bytes[phase] += now - this.mark;
+		this.mark = now;
+	}
+
+	/**
+	 * Marks the end of an annealing step, the bytes allocated since the previous phase are added to OTHER
+	 */
+	public void step(){
+		this.phase(OTHER);
+		this.steps++;
+	}
+
+	/**
+	 * Returns the mean bytes allocated per step in a phase
+	 *
+	 * @param phase	the phase
+	 * @return	the mean bytes per step, 0 before the first step
+	 */
+	public double getBytesPerStep(int phase){
+		return this.steps == 0 ? 0 : ((double) this.bytes[phase]) / this.steps;
+	}
+
+	/**
+	 * Returns the mean bytes allocated per step over all phases
+	 *
+	 * @return	the mean bytes per step, 0 before the first step
+	 */
+	public double getBytesPerStep(){
+		long total = 0;
+		for (long b : this.bytes){
+			total += b;
+		}
+		return this.steps == 0 ? 0 : ((double) total) / this.steps;
+	}
+
+	/**
+	 * Returns a summary of the profile, the mean bytes per step in total and in every phase
+	 *
+	 * @return	the summary
+	 */
+	public String report(){
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "Allocation profile: %d steps, %.1f bytes/step", this.steps, this.getBytesPerStep()));
+		for (int phase = 0 ; phase < PHASES.length ; phase++){
+			builder.append(String.format(Locale.ROOT, ", %s %.1f", PHASES[phase], this.getBytesPerStep(phase)));
+		}
+		return builder.toString();
+	}
+
+
+	// private methods
+
+	private long allocated(){
+		return this.threads == null ? 0 : this.threads.getThreadAllocatedBytes(this.threadId);
+	}
+
+
+	// getters and setters
+
+	public long getSteps() {
+		return steps;
+	}
+
+}
@@ -0,0 +1,262 @@
+package profiling;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * ContentionMonitor measures how often and how long the threads of a run block on monitors, e.g. the shared Node and NodeCollection monitors.
+ *
+ * The exact amount of blocks and blocked time per thread is read with the contention monitoring of ThreadMXBean.
+ * The call sites are found by sampling the stacks of the blocked threads every sampleMillis milliseconds: a thread blocked at the same call site
+ * in consecutive samples counts as one block, the blocked time of a call site is estimated as samples times the sample interval.
+ * Short blocks that start and end between two samples are missed by the call sites, but not by the per thread totals.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class ContentionMonitor implements Runnable {
+
+	/**
+	 * Amount of stack frames of a blocked thread that are reported as its call site
+	 */
+	private static final int CALL_SITE_DEPTH = 3;
+
+	/**
+	 * The thread measurements
+	 */
+	private ThreadMXBean threads;
+
+	/**
+	 * Milliseconds between two samples
+	 */
+	private long sampleMillis;
+
+	/**
+	 * The sampling thread, null if not started
+	 */
+	private Thread sampler;
+
+	/**
+	 * Per call site: the samples, blocks and blocked threads
+	 */
+	private HashMap<String, CallSite> callSites = new HashMap<String, CallSite>();
+
+	/**
+	 * Call site at which a thread was blocked in the previous sample
+	 */
+	private HashMap<Long, String> blockedAt = new HashMap<Long, String>();
+
+	/**
+	 * Blocked count and time (ms) of every thread when the monitor started
+	 */
+	private HashMap<Long, long[]> start = new HashMap<Long, long[]>();
+
+	/**
+	 * Latest blocked count and time (ms) of every thread, kept after the thread finished
+	 */
+	private HashMap<Long, long[]> latest = new HashMap<Long, long[]>();
+
+	/**
+	 * Name of every sampled thread
+	 */
+	private HashMap<Long, String> names = new HashMap<Long, String>();
+
+	/**
+	 * Amount of samples taken
+	 */
+	private long samples;
+
+	/**
+	 * Start and end of the measurements
+	 */
+	private long startMillis, endMillis;
+
+
+	/**
+	 * Constructs a new ContentionMonitor
+	 *
+	 * @param sampleMillis	milliseconds between two samples of the blocked threads
+	 */
+	public ContentionMonitor(long sampleMillis){
+		this.threads = ManagementFactory.getThreadMXBean();
+		this.sampleMillis = Math.max(1, sampleMillis);
+	}
+
+
+	/**
+	 * Turns on the contention monitoring of the virtual machine and starts sampling
+	 */
+	public void start(){
+		if (!this.threads.isThreadContentionMonitoringSupported()){
+			System.err.println("Thread contention monitoring is not supported by this virtual machine.");
+			return;
+		}
+		this.threads.setThreadContentionMonitoringEnabled(true);
+		this.startMillis = System.currentTimeMillis();
+		synchronized (this) {
+			for (ThreadInfo info : this.threads.getThreadInfo(this.threads.getAllThreadIds())){
+				if (info != null){
+					this.start.put(info.getThreadId(), new long[]{info.getBlockedCount(), info.getBlockedTime()});
+				}
+			}
+		}
+		this.sampler = new Thread(this, "contention-monitor");
+		this.sampler.setDaemon(true);
+		this.sampler.start();
+	}
+
+	@Override
+	public void run() {
+		while (!Thread.currentThread().isInterrupted()){
+			this.sample();
+			try {
+				Thread.sleep(this.sampleMillis);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Stops sampling and writes the report
+	 *
+	 * @param file	the report file
+	 */
+	public void stop(String file){
+		if (this.sampler == null){
+			return;
+		}
+		this.sampler.interrupt();
+		try {
+			this.sampler.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.sample();
+		this.endMillis = System.currentTimeMillis();
+		this.threads.setThreadContentionMonitoringEnabled(false);
+		this.sampler = null;
+
+		PrintWriter writer = null;
+		try {
+			writer = new PrintWriter(new FileWriter(file));
+			this.report(writer);
+			System.out.println("Wrote contention report "+file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.err.println("Could not write the contention report "+file);
+		} finally {
+			if (writer != null){
+				writer.close();
+			}
+		}
+	}
+
+
+	// private methods
+
+	private synchronized void sample(){
+		ThreadInfo[] infos = this.threads.getThreadInfo(this.threads.getAllThreadIds(), CALL_SITE_DEPTH);
+		HashMap<Long, String> nowBlockedAt = new HashMap<Long, String>();
+		for (ThreadInfo info : infos){
+			if (info == null || info.getThreadId() == Thread.currentThread().getId()){
+				continue;
+			}
+			long id = info.getThreadId();
+			this.names.put(id, info.getThreadName());
+			this.latest.put(id, new long[]{info.getBlockedCount(), info.getBlockedTime()});
+			if (info.getThreadState() != Thread.State.BLOCKED){
+				continue;
+			}
+			String site = callSite(info);
+			CallSite callSite = this.callSites.get(site);
+			if (callSite == null){
+				callSite = new CallSite();
+				this.callSites.put(site, callSite);
+			}
+			callSite.samples++;
+			if (!site.equals(this.blockedAt.get(id))){
+				callSite.blocks++;
+			}
+			callSite.threads.add(id);
+			nowBlockedAt.put(id, site);
+		}
+		this.blockedAt = nowBlockedAt;
+		this.samples++;
+	}
+
+	// the monitor class and the top frames of a blocked thread, the monitor of a static synchronized method is reported as its class
+	private static String callSite(ThreadInfo info){
+		StringBuilder builder = new StringBuilder();
+		String lock = info.getLockName();
+		builder.append(lock == null ? "unknown" : lock.substring(0, lock.indexOf('@') < 0 ? lock.length() : lock.indexOf('@')));
+		for (StackTraceElement frame : info.getStackTrace()){
+			builder.append(" <- ").append(frame.getClassName()).append('.').append(frame.getMethodName());
+		}
+		return builder.toString();
+	}
+
+	private synchronized void report(PrintWriter writer){
+		writer.println(String.format(Locale.ROOT, "# contention report: %d ms, %d samples every %d ms", this.endMillis - this.startMillis, this.samples, this.sampleMillis));
+		writer.println("# per thread (exact)");
+		writer.println("thread\tblocks\tblockedMillis");
+		long totalBlocks = 0, totalMillis = 0;
+		ArrayList<Long> ids = new ArrayList<Long>(this.latest.keySet());
+		Collections.sort(ids);
+		for (long id : ids){
+			long[] before = this.start.containsKey(id) ? this.start.get(id) : new long[2];
+			long[] after = this.latest.get(id);
+			long blocks = after[0] - before[0];
+			long millis = after[1] - before[1];
+			if (blocks == 0){
+				continue;
+			}
+			totalBlocks += blocks;
+			totalMillis += millis;
+			writer.println(this.names.get(id)+" ("+id+")\t"+blocks+"\t"+millis);
+		}
+		writer.println("total\t"+totalBlocks+"\t"+totalMillis);
+
+		writer.println("# per call site (sampled)");
+		writer.println("monitor <- call site\tsamples\tblocks\tthreads\testimatedBlockedMillis");
+		ArrayList<Map.Entry<String, CallSite>> sites = new ArrayList<Map.Entry<String, CallSite>>(this.callSites.entrySet());
+		Collections.sort(sites, new Comparator<Map.Entry<String, CallSite>>() {
+			@Override
+			public int compare(Map.Entry<String, CallSite> a, Map.Entry<String, CallSite> b) {
+				return Long.compare(b.getValue().samples, a.getValue().samples);
+			}
+		});
+		for (Map.Entry<String, CallSite> site : sites){
+			CallSite callSite = site.getValue();
+			writer.println(site.getKey()+"\t"+callSite.samples+"\t"+callSite.blocks+"\t"+callSite.threads.size()+"\t"+(callSite.samples * this.sampleMillis));
+		}
+	}
+
+
+	/**
+	 * The sampled blocks at a single call site
+	 */
+	private static class CallSite {
+
+		private long samples;
+
+		private long blocks;
+
+		private HashSet<Long> threads = new HashSet<Long>();
+
+	}
+
+}
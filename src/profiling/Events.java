@@ -0,0 +1,96 @@
+package profiling;
+
+
+/**
+ * Events holds the switch of the Java Flight Recorder events of Netter. When the events are turned off, no event objects are created at all.
+ *
+ * The events are only recorded when a flight recording is running, e.g. java -XX:StartFlightRecording=filename=netter.jfr -jar netter.jar config_file.txt
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+public class Events {
+
+	/**
+	 * Indicates if the events are emitted
+	 */
+	private static volatile boolean enabled = false;
+
+	/**
+	 * Amount of annealing steps summarized by a single StepBatchEvent
+	 */
+	private static volatile int stepBatch = 1000;
+
+
+	private Events(){}
+
+
+	/**
+	 * Turns the events on or off
+	 *
+	 * @param enabled	true to emit the events
+	 * @param stepBatch	amount of annealing steps summarized by a single StepBatchEvent
+	 */
+	public static void configure(boolean enabled, int stepBatch){
+		Events.enabled = enabled;
+		Events.stepBatch = Math.max(1, stepBatch);
+	}
+
+	/**
+	 * Indicates if the events are emitted
+	 *
+	 * @return	true if the events are emitted
+	 */
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * Returns the amount of annealing steps summarized by a single StepBatchEvent
+	 *
+	 * @return	the amount of steps per event
+	 */
+	public static int getStepBatch(){
+		return stepBatch;
+	}
+
+	/**
+	 * Emits a WorkerEvent, if the events are turned on
+	 *
+	 * @param action	what happened to the worker
+	 * @param worker	name of the worker thread
+	 * @param completedRuns	amount of finished re-rankings of the ensemble
+	 * @param workers	amount of re-rankings in progress
+	 */
+	public static void worker(String action, String worker, int completedRuns, int workers){
+		if (!enabled){
+			return;
+		}
+		WorkerEvent event = new WorkerEvent();
+		event.action = action;
+		event.worker = worker;
+		event.completedRuns = completedRuns;
+		event.workers = workers;
+		event.commit();
+	}
+
+	/**
+	 * Starts a FileEvent, the caller commits it once the file is read or written
+	 *
+	 * @param operation	'read' or 'write'
+	 * @param path	the file
+	 * @return	the started event, null if the events are turned off
+	 */
+	public static FileEvent file(String operation, String path){
+		if (!enabled){
+			return null;
+		}
+		FileEvent event = new FileEvent();
+		event.operation = operation;
+		event.path = path;
+		event.begin();
+		return event;
+	}
+
+}
@@ -0,0 +1,42 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * FileEvent covers reading or writing a network or ranking file. The duration of the event is the duration of the operation.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+@Name("netter.File")
+@Label("Network File")
+@Category({"Netter", "IO"})
+@Description("Reading or writing a network or ranking file")
+public class FileEvent extends Event {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Path")
+	public String path;
+
+	@Label("Lines")
+	public long lines;
+
+	/**
+	 * Commits the event with the amount of lines read or written
+	 *
+	 * @param lines	the amount of lines
+	 */
+	public void commit(long lines){
+		this.lines = lines;
+		this.commit();
+	}
+
+}
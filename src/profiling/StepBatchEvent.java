@@ -0,0 +1,48 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * StepBatchEvent summarizes a batch of consecutive annealing steps of a single re-ranking. The duration of the event is the duration of the batch.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+@Name("netter.StepBatch")
+@Label("Annealing Step Batch")
+@Category({"Netter", "Annealing"})
+@Description("A batch of consecutive annealing steps of a single re-ranking")
+public class StepBatchEvent extends Event {
+
+	@Label("Worker")
+	public String worker;
+
+	@Label("Moves")
+	public long moves;
+
+	@Label("Improved")
+	public long improved;
+
+	@Label("Accepted Worse")
+	public long acceptedWorse;
+
+	@Label("Rejected")
+	public long rejected;
+
+	@Label("Delta Fitness")
+	@Description("Fitness at the end of the batch minus the fitness at the start")
+	public double deltaFitness;
+
+	@Label("Fitness")
+	public double fitness;
+
+	@Label("Temperature")
+	public double temperature;
+
+}
@@ -0,0 +1,35 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * WorkerEvent marks a change in the life cycle of a re-ranking of the ensemble: launch, finish, crash or restart.
+ *
+ * @author      Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version     1.0
+ * @since      	1.0
+ */
+@Name("netter.Worker")
+@Label("Ensemble Worker")
+@Category({"Netter", "Ensemble"})
+@Description("Launch, finish, crash or restart of a re-ranking of the ensemble")
+public class WorkerEvent extends Event {
+
+	@Label("Action")
+	public String action;
+
+	@Label("Worker")
+	public String worker;
+
+	@Label("Completed Runs")
+	public int completedRuns;
+
+	@Label("Workers In Progress")
+	public int workers;
+
+}
@@ -0,0 +1,6 @@
+/**
+ * Profiling of Netter: Java Flight Recorder events, used to relate the phases of the re-ranking to GC and lock contention in flight recordings,
+ * and measurements of the allocations and the lock contention of the re-rankings.
+ * @since 1.0
+ */
+package profiling;
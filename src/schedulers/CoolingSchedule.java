@@ -0,0 +1,48 @@
+package schedulers;
+
+/**
+ *
+ * CoolingSchedule is an interface for all temperature schemes used by the simulated annealing procedure of a re-ranking.
+ *
+ * Implementations are called once every iteration and should not create objects while doing so.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CoolingSchedule {
+
+	/**
+	 * Prepares the schedule for a new re-ranking, should be called before the first iteration
+	 *
+	 * @param startTemperature	the start temperature of the procedure
+	 * @param endTemperature	the temperature which should be reached at the end of the procedure
+	 * @param maxIterations	the amount of iterations of the procedure
+	 */
+	public void init(double startTemperature, double endTemperature, long maxIterations);
+
+	/**
+	 * Returns the temperature of the next iteration
+	 *
+	 * @param temperature	the current temperature
+	 * @param iteration	the amount of iterations done so far, including the current one
+	 * @param fitness	the fitness of the current state of the re-ranking
+	 * @return	the temperature of the next iteration
+	 */
+	public double nextTemperature(double temperature, long iteration, double fitness);
+
+	/**
+	 * Makes a new copy of this schedule with the same settings, to be used by another re-ranking
+	 *
+	 * @return a new copy of the schedule
+	 */
+	public CoolingSchedule makeCopy();
+
+	/**
+	 * The schedule name, used for logging functionality
+	 *
+	 * @return	the schedule name
+	 */
+	public String getName();
+
+}
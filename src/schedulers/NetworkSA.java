@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import loggers.ManualLogger;
+import main.MBeans;
 import network.Network;
 import network.NetworkFileBackedWrapper;
 import network.modifiers.NetworkModifier;
@@ -11,6 +12,9 @@ import network.node.Node;
 import network.node.NodeCollection;
 import wrappers.EnsembleSA;
 import fitnessfunctions.PartitionFitnessFunction;
+import profiling.AllocationProfile;
+import profiling.Events;
+import profiling.StepBatchEvent;
 
 
 /**
@@ -23,7 +27,7 @@ import fitnessfunctions.PartitionFitnessFunction;
  * @version 1.0
  * @since 0.0
  */
-public class NetworkSA implements Runnable {
+public class NetworkSA implements Runnable, NetworkSAMXBean {
 	
 	/**
 	 * The network.
@@ -75,14 +79,14 @@ public class NetworkSA implements Runnable {
 	private volatile boolean restarting = false;
 	
 	/**
-	 * The current temperature
+	 * The current temperature, published through JMX
 	 */
-	private double T;			
+	private volatile double T;			
 	
 	/**
-	 * The current amount of iterations
+	 * The current amount of iterations, published through JMX
 	 */
-    private long iterations;
+    private volatile long iterations;
     
     /**
      * Possible outcomes of the last mutation
@@ -103,7 +107,7 @@ public class NetworkSA implements Runnable {
     /**
      * Random generator to be re-sued
      */
-    private static final Random random = new Random();    
+    private final Random random = new Random();    
     
     /**
      * Booleant to turn of annealing scheme
@@ -114,6 +118,92 @@ public class NetworkSA implements Runnable {
      * Registered loggers subscribed to the this re-ranking
      */
 	private ArrayList<ManualLogger> loggers ;
+	
+	/**
+	 * Amount of candidate mutations evaluated from the same state in a single step, 1 evaluates a single mutation per step
+	 */
+	private int batchCandidates = 1;
+	
+	/**
+	 * Indicates if a candidate of a batch is chosen by a Gibbs (heat bath) choice instead of the Metropolis rule on the best candidate
+	 */
+	private boolean gibbsSelection = false;
+	
+	/**
+	 * The seeds of the candidate mutations of the current batch
+	 */
+	private long[] candidateSeeds;
+	
+	/**
+	 * The fitness of the candidate mutations of the current batch
+	 */
+	private double[] candidateFitness;
+	
+	/**
+	 * The temperature scheme, if null the temperature is multiplied with the cooldown factor every iteration
+	 */
+	private CoolingSchedule coolingSchedule;
+	
+	/**
+	 * Amount of changes that improved the ranking, published through JMX
+	 */
+	private volatile long improved;
+	
+	/**
+	 * Amount of changes that worsened the ranking and were accepted, published through JMX
+	 */
+	private volatile long acceptedWorse;
+	
+	/**
+	 * Amount of changes that were reverted, published through JMX
+	 */
+	private volatile long rejected;
+	
+	/**
+	 * Fitness of the current ranking, published through JMX
+	 */
+	private volatile double currentFitness = Double.NaN;
+	
+	/**
+	 * Best fitness seen so far, published through JMX
+	 */
+	private volatile double bestFitness = Double.NaN;
+	
+	/**
+	 * Start time of the procedure and end time of the latest iteration in milliseconds
+	 */
+	private volatile long startTime, lastMoveTime;
+	
+	/**
+	 * Time spent in the annealing loop of the procedure in nanoseconds, set when the loop ends
+	 */
+	private volatile long annealingNanos;
+	
+	/**
+	 * The thread running the procedure
+	 */
+	private volatile Thread thread;
+	
+	/**
+	 * Flight recorder event of the current batch of steps, null if the events are turned off
+	 */
+	private StepBatchEvent stepEvent;
+	
+	/**
+	 * Steps in the current batch and the counters and fitness at the start of the batch
+	 */
+	private long stepsInBatch, batchImproved, batchAcceptedWorse, batchRejected;
+	private double batchFitness;
+	
+	/**
+	 * Turns measuring the bytes allocated per step and phase on or off
+	 */
+	private boolean allocationProfiling = false;
+	
+	/**
+	 * Bytes allocated per step and phase, null if allocation profiling is off
+	 */
+	private volatile AllocationProfile allocations;
 
 
 
@@ -156,8 +246,13 @@ public class NetworkSA implements Runnable {
 	 */
 	public void run(){
 		
+		this.thread = Thread.currentThread();
+		String bean = "type=NetworkSA,name="+this.thread.getName();
+		MBeans.register(this, bean);
 		try {
 			this.nextState();
+			// the ranking is read from the network once the procedure ends
+			this.modifier.flush();
 		}
 		catch (NullPointerException nu){
 			nu.printStackTrace();
@@ -172,6 +267,9 @@ public class NetworkSA implements Runnable {
 			this.ensemble.workerSignalingCrash(this);
 			return;
 		}
+		finally {
+			MBeans.unregister(bean);
+		}
 		
 		if (restarting){
 			this.ensemble.workerSignalingRestart(this);
@@ -183,6 +281,57 @@ public class NetworkSA implements Runnable {
 	}
 	
 	
+	/**
+	 * Turns on batched evaluation. Each step, a number of candidate mutations is generated from the same state, each is evaluated and reverted,
+	 * after which a single candidate is applied. The candidate is either the best one, accepted by the Metropolis rule, or one chosen by a Gibbs choice
+	 * among the candidates and the current state.
+	 * 
+	 * @param candidates	the amount of candidates per step, 1 turns batched evaluation off
+	 * @param gibbs	true to use a Gibbs choice, false to use the Metropolis rule on the best candidate
+	 */
+	public void setBatchedEvaluation(int candidates, boolean gibbs){
+		this.batchCandidates = Math.max(1, candidates);
+		this.gibbsSelection = gibbs;
+		this.candidateSeeds = new long[this.batchCandidates];
+		this.candidateFitness = new double[this.batchCandidates];
+	}
+	
+	
+	/**
+	 * Seeds the random generator of the acceptance decisions, so a re-ranking can be repeated
+	 * 
+	 * @param seed	the seed
+	 */
+	public void setSeed(long seed){
+		this.random.setSeed(seed);
+	}
+	
+	
+	/**
+	 * Turns allocation profiling on or off. The bytes allocated by the thread of the procedure are measured per step and per phase
+	 * (modify, fitness, loggers, revert, other) and reported when the procedure finishes.
+	 * 
+	 * @param allocationProfiling	true to measure the allocations
+	 */
+	public void setAllocationProfiling(boolean allocationProfiling){
+		this.allocationProfiling = allocationProfiling;
+	}
+	
+	
+	/**
+	 * Sets the temperature scheme of the procedure. The schedule is initialized with the temperature settings of this procedure when it starts.
+	 * 
+	 * @param coolingSchedule	the temperature scheme, null to cool with the cooldown factor
+	 */
+	public void setCoolingSchedule(CoolingSchedule coolingSchedule){
+		this.coolingSchedule = coolingSchedule;
+	}
+	
+	public CoolingSchedule getCoolingSchedule(){
+		return this.coolingSchedule;
+	}
+	
+	
 	/**
 	 * Indicates the ensemble procedure accepted a chance in the temperature parameters and is now asking for feedback
 	 */
@@ -315,6 +464,72 @@ public class NetworkSA implements Runnable {
 		this.ensemble = ensemble;
 	}
 
+	@Override
+	public long getIterations() {
+		return this.iterations;
+	}
+
+	/**
+	 * Returns the time spent in the annealing loop, without preparing the network and the final actions
+	 *
+	 * @return	the time in nanoseconds, 0 while the loop runs
+	 */
+	public long getAnnealingNanos() {
+		return this.annealingNanos;
+	}
+
+	@Override
+	public double getMovesPerSecond() {
+		long elapsed = System.currentTimeMillis() - this.startTime;
+		return this.startTime == 0 || elapsed == 0 ? 0 : this.iterations * 1000.0 / elapsed;
+	}
+
+	@Override
+	public long getMillisSinceLastMove() {
+		return this.lastMoveTime == 0 ? 0 : System.currentTimeMillis() - this.lastMoveTime;
+	}
+
+	@Override
+	public long getImproved() {
+		return this.improved;
+	}
+
+	@Override
+	public long getAcceptedWorse() {
+		return this.acceptedWorse;
+	}
+
+	@Override
+	public long getRejected() {
+		return this.rejected;
+	}
+
+	@Override
+	public double getTemperature() {
+		return this.T;
+	}
+
+	@Override
+	public double getCurrentFitness() {
+		return this.currentFitness;
+	}
+
+	@Override
+	public double getBestFitness() {
+		return this.bestFitness;
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return MBeans.getAllocatedBytes(this.thread);
+	}
+
+	@Override
+	public double getAllocatedBytesPerStep() {
+		AllocationProfile profile = this.allocations;
+		return profile == null ? -1 : profile.getBytesPerStep();
+	}
+	
 	public double getLastChance(){
 		return this.chanceAllowed;
 	}
@@ -336,15 +551,49 @@ public class NetworkSA implements Runnable {
 	private void nextState(){
 		System.out.println("This thread started: "+ Thread.currentThread().getName());
 		 	T=T0();
+		 	if (this.coolingSchedule != null){
+		 		this.coolingSchedule.init(T0, this.freezingTemperature, this.maxIterations);
+		 	}
 	        Network s=newInitialSolution();
 	        iterations=0;
 	        double lastf = f(s);
+	        this.startTime = System.currentTimeMillis();
+	        this.lastMoveTime = this.startTime;
+	        this.currentFitness = lastf;
+	        this.bestFitness = lastf;
+	        if (Events.isEnabled()){
+	        	startStepBatch(lastf);
+	        }
+	        if (this.allocationProfiling){
+	        	this.allocations = new AllocationProfile();
+	        	this.fitness.setAllocationProfile(this.allocations);
+	        }
+	        long annealingStart = System.nanoTime();
 	        while (!terminateCond()){
+	        	if (this.batchCandidates > 1){
+	        		if (null==newpickBatch(s)){
+	        			return ;
+	        		}
+	        		lastf = selectCandidate(s, lastf);
+	        		modifier.feedback(lastAction);
+	        		countAction(lastf);
+	        		iterations++;
+	        		updateT(lastf);
+	        		if(iterations==5){
+	        			endFirstTurn();
+	        		}
+	        		if (this.allocations != null){
+	        			this.allocations.step();
+	        		}
+	        		continue;
+	        	}
+	        	
 	            if (null==newpickAtRandom(s)){
 	            	return ;
 	            }
 	            
 	            double newf = f(s);
+	            allocated(AllocationProfile.FITNESS);
 	            double deltaf=newf-lastf;
 	            if (deltaf < 0 ){
 	            	lastf = newf;
@@ -362,16 +611,23 @@ public class NetworkSA implements Runnable {
 		            	lastAction = LastAction.ALLOWED;
 	            	}else{
 		            	reverseActions();
+		            	allocated(AllocationProfile.REVERT);
 		            	lastAction = LastAction.REVERTED;
 	            	}
 	            }
+	            modifier.feedback(lastAction);
+	            countAction(lastf);
 	            iterations++;
-	            updateT();
+	            updateT(lastf);
 	            if(iterations==5){
 	            	endFirstTurn();
 	            }
+	            if (this.allocations != null){
+	            	this.allocations.step();
+	            }
 	            
 	        }
+	        this.annealingNanos = System.nanoTime() - annealingStart;
 	        finalActions();
 	        return ;
 	}
@@ -407,6 +663,100 @@ public class NetworkSA implements Runnable {
 
 	private Network newpickAtRandom(Network s) {
 
+		if (!consultLoggers()){
+			return null;
+		}
+		allocated(AllocationProfile.LOGGERS);
+		
+		modifier.modify();
+		allocated(AllocationProfile.MODIFY);
+		return s;		
+	}
+	
+	// evaluates a batch of candidate mutations from the current state, every candidate is reverted after its evaluation
+	private Network newpickBatch(Network s) {
+		
+		if (!consultLoggers()){
+			return null;
+		}
+		allocated(AllocationProfile.LOGGERS);
+		
+		for (int k = 0 ; k < this.batchCandidates ; k++){
+			this.candidateSeeds[k] = random.nextLong();
+			modifier.modify(this.candidateSeeds[k]);
+			allocated(AllocationProfile.MODIFY);
+			this.candidateFitness[k] = f(s);
+			allocated(AllocationProfile.FITNESS);
+			modifier.revert();
+			allocated(AllocationProfile.REVERT);
+		}
+		return s;
+	}
+	
+	// chooses one candidate of the batch, applies it again if it is accepted and returns the fitness of the resulting state
+	private double selectCandidate(Network s, double lastf) {
+		
+		int chosen = 0;
+		for (int k = 1 ; k < this.batchCandidates ; k++){
+			if (this.candidateFitness[k] < this.candidateFitness[chosen]){
+				chosen = k;
+			}
+		}
+		
+		if (this.gibbsSelection){
+			// heat bath choice between the current state and all candidates, weights relative to the best one to avoid overflow
+			double best = Math.min(lastf, this.candidateFitness[chosen]);
+			double stay = chanceFunction(T, lastf - best);
+			double total = stay;
+			for (int k = 0 ; k < this.batchCandidates ; k++){
+				total += chanceFunction(T, this.candidateFitness[k] - best);
+			}
+			double pick = random.nextDouble() * total - stay;
+			if (pick < 0){
+				chanceAllowed = stay / total;
+				lastAction = LastAction.REVERTED;
+				return lastf;
+			}
+			for (chosen = 0 ; chosen < this.batchCandidates - 1 ; chosen++){
+				pick -= chanceFunction(T, this.candidateFitness[chosen] - best);
+				if (pick < 0){
+					break;
+				}
+			}
+			chanceAllowed = chanceFunction(T, this.candidateFitness[chosen] - best) / total;
+			lastAction = this.candidateFitness[chosen] - lastf < 0 ? LastAction.BETTER : LastAction.ALLOWED;
+		}
+		else{
+			double deltaf = this.candidateFitness[chosen] - lastf;
+			if (deltaf < 0){
+				lastAction = LastAction.BETTER;
+			}else{
+				chanceAllowed = chanceFunction(T,deltaf);
+				if ( !((random.nextDouble() < chanceAllowed) && allowWorse)) {
+					lastAction = LastAction.REVERTED;
+					return lastf;
+				}
+				lastAction = LastAction.ALLOWED;
+			}
+		}
+		
+		// the state was reverted after the evaluation, so apply the chosen candidate again
+		modifier.modify(this.candidateSeeds[chosen]);
+		allocated(AllocationProfile.MODIFY);
+		double fitness = f(s);
+		allocated(AllocationProfile.FITNESS);
+		return fitness;
+	}
+	
+	// adds the bytes allocated since the previous phase to the given phase, if allocation profiling is on
+	private void allocated(int phase) {
+		if (this.allocations != null){
+			this.allocations.phase(phase);
+		}
+	}
+	
+	// lets the loggers log the current state, returns false if a restart was approved and the procedure should stop
+	private boolean consultLoggers() {
 		
 		for (ManualLogger logger: this.loggers){
 			logger.log(this);
@@ -423,7 +773,7 @@ public class NetworkSA implements Runnable {
 				if (approved){
 					System.err.println("Restarting approved by ensemble.");
 					this.restarting = true;
-					return null;
+					return false;
 				}else{
 					System.err.println("Restarting was NOT approved by ensemble.");
 
@@ -432,9 +782,7 @@ public class NetworkSA implements Runnable {
 					
 			}
 		}
-		
-		modifier.modify();
-		return s;		
+		return true;
 	}
 	
 	private double chanceFunction(double T, double deltaf) {
@@ -442,8 +790,64 @@ public class NetworkSA implements Runnable {
 		return lastp;
 	}
 
-	private void updateT() {
-		T *= this.coolingMultiplier;
+	private void updateT(double fitness) {
+		if (this.coolingSchedule == null){
+			T *= this.coolingMultiplier;
+		}else{
+			T = this.coolingSchedule.nextTemperature(T, iterations, fitness);
+		}
+	}
+	
+	// updates the counters published through JMX after a step
+	private void countAction(double lastf) {
+		if (lastAction == LastAction.BETTER){
+			this.improved++;
+		}else if (lastAction == LastAction.ALLOWED){
+			this.acceptedWorse++;
+		}else{
+			this.rejected++;
+		}
+		this.currentFitness = lastf;
+		if (lastf < this.bestFitness){
+			this.bestFitness = lastf;
+		}
+		this.lastMoveTime = System.currentTimeMillis();
+		if (this.stepEvent != null && ++this.stepsInBatch >= Events.getStepBatch()){
+			commitStepBatch();
+			startStepBatch(lastf);
+		}
+	}
+	
+	// starts a new flight recorder event for the next batch of steps
+	private void startStepBatch(double fitness) {
+		this.stepEvent = new StepBatchEvent();
+		this.stepEvent.begin();
+		this.stepsInBatch = 0;
+		this.batchImproved = this.improved;
+		this.batchAcceptedWorse = this.acceptedWorse;
+		this.batchRejected = this.rejected;
+		this.batchFitness = fitness;
+	}
+	
+	// commits the flight recorder event of the current batch of steps
+	private void commitStepBatch() {
+		StepBatchEvent event = this.stepEvent;
+		this.stepEvent = null;
+		if (this.stepsInBatch == 0){
+			return;
+		}
+		event.end();
+		if (event.shouldCommit()){
+			event.worker = Thread.currentThread().getName();
+			event.moves = this.stepsInBatch;
+			event.improved = this.improved - this.batchImproved;
+			event.acceptedWorse = this.acceptedWorse - this.batchAcceptedWorse;
+			event.rejected = this.rejected - this.batchRejected;
+			event.fitness = this.currentFitness;
+			event.deltaFitness = this.currentFitness - this.batchFitness;
+			event.temperature = this.T;
+			event.commit();
+		}
 	}
 	
 	private void reverseActions() {
@@ -452,10 +856,17 @@ public class NetworkSA implements Runnable {
 
 	private void finalActions() {
 		
+		if (this.stepEvent != null){
+			commitStepBatch();
+		}
+		
 		// write to files
 		for (ManualLogger logger: this.loggers){
 			logger.toFile();
 		}
 		System.out.println("SA: iterated - "+iterations+" times");
+		if (this.allocations != null){
+			System.out.println(Thread.currentThread().getName()+" "+this.allocations.report());
+		}
 	}
 }
@@ -0,0 +1,97 @@
+package schedulers;
+
+/**
+ *
+ * NetworkSAMXBean is the JMX management interface of a single re-ranking, registered as netter:type=NetworkSA,name=(thread name) while the re-ranking runs.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface NetworkSAMXBean {
+
+	/**
+	 * Returns the amount of iterations (changes to the network) done so far
+	 *
+	 * @return	the iterations so far
+	 */
+	public long getIterations();
+
+	/**
+	 * Returns the maximum amount of iterations, 0 if the re-ranking stops at the end temperature
+	 *
+	 * @return	the maximum amount of iterations
+	 */
+	public long getMaxIterations();
+
+	/**
+	 * Returns the average amount of iterations per second since the start of the re-ranking
+	 *
+	 * @return	the iterations per second
+	 */
+	public double getMovesPerSecond();
+
+	/**
+	 * Returns the milliseconds since the latest iteration finished, a growing value indicates a stalled re-ranking
+	 *
+	 * @return	the milliseconds since the latest iteration
+	 */
+	public long getMillisSinceLastMove();
+
+	/**
+	 * Returns the amount of changes that improved the ranking
+	 *
+	 * @return	the amount of improving changes
+	 */
+	public long getImproved();
+
+	/**
+	 * Returns the amount of changes that worsened the ranking and were accepted
+	 *
+	 * @return	the amount of accepted worse changes
+	 */
+	public long getAcceptedWorse();
+
+	/**
+	 * Returns the amount of changes that were rejected and reverted
+	 *
+	 * @return	the amount of rejected changes
+	 */
+	public long getRejected();
+
+	/**
+	 * Returns the current temperature
+	 *
+	 * @return	the current temperature
+	 */
+	public double getTemperature();
+
+	/**
+	 * Returns the fitness of the current ranking
+	 *
+	 * @return	the current fitness
+	 */
+	public double getCurrentFitness();
+
+	/**
+	 * Returns the best fitness seen so far
+	 *
+	 * @return	the best fitness
+	 */
+	public double getBestFitness();
+
+	/**
+	 * Returns the amount of bytes allocated on the heap by the thread of this re-ranking
+	 *
+	 * @return	the allocated bytes, -1 if the virtual machine cannot measure it
+	 */
+	public long getAllocatedBytes();
+
+	/**
+	 * Returns the mean bytes allocated per iteration, measured when allocation profiling is on
+	 *
+	 * @return	the allocated bytes per iteration, -1 if allocation profiling is off
+	 */
+	public double getAllocatedBytesPerStep();
+
+}
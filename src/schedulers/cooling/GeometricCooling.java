@@ -0,0 +1,54 @@
+package schedulers.cooling;
+
+import schedulers.CoolingSchedule;
+
+/**
+ * GeometricCooling multiplies the temperature with a constant factor every iteration, so the end temperature is reached after the last iteration.
+ *
+ * This is the default schedule of Netter.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public class GeometricCooling implements CoolingSchedule {
+
+	/**
+	 * Name of the schedule
+	 */
+	private static final String NAME = "Geometric";
+
+	/**
+	 * Multiplier to decrease the temperature
+	 */
+	private double coolingMultiplier;
+
+
+	@Override
+	public void init(double startTemperature, double endTemperature, long maxIterations) {
+		this.coolingMultiplier = Math.pow(  (endTemperature/startTemperature),  1/((double)maxIterations) );
+	}
+
+	@Override
+	public double nextTemperature(double temperature, long iteration, double fitness) {
+		return temperature * this.coolingMultiplier;
+	}
+
+	@Override
+	public CoolingSchedule makeCopy() {
+		return new GeometricCooling();
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+
+	// getters and setters
+
+	public double getCoolingMultiplier() {
+		return coolingMultiplier;
+	}
+
+}
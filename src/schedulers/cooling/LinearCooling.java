@@ -0,0 +1,59 @@
+package schedulers.cooling;
+
+import javax.management.RuntimeErrorException;
+
+import schedulers.CoolingSchedule;
+
+/**
+ * LinearCooling decreases the temperature with a constant amount every iteration, so the end temperature is reached after the last iteration.
+ *
+ * Requires a fixed amount of iterations.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public class LinearCooling implements CoolingSchedule {
+
+	/**
+	 * Name of the schedule
+	 */
+	private static final String NAME = "Linear";
+
+	/**
+	 * Start temperature of the schedule
+	 */
+	private double startTemperature;
+
+	/**
+	 * Decrease of the temperature in a single iteration
+	 */
+	private double step;
+
+
+	@Override
+	public void init(double startTemperature, double endTemperature, long maxIterations) {
+		if (maxIterations <= 0){
+			throw new RuntimeErrorException(null, NAME+" cooling requires a fixed amount of iterations (maxIterations > 0).");
+		}
+		this.startTemperature = startTemperature;
+		this.step = (startTemperature - endTemperature) / maxIterations;
+	}
+
+	@Override
+	public double nextTemperature(double temperature, long iteration, double fitness) {
+		// calculated from the start temperature, so no rounding errors accumulate
+		return this.startTemperature - iteration * this.step;
+	}
+
+	@Override
+	public CoolingSchedule makeCopy() {
+		return new LinearCooling();
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+}
@@ -0,0 +1,58 @@
+package schedulers.cooling;
+
+import javax.management.RuntimeErrorException;
+
+import schedulers.CoolingSchedule;
+
+/**
+ * LogarithmicCooling sets the temperature at iteration k to T0 / (1 + c * ln(1+k)), with c chosen so the end temperature is reached after the last iteration.
+ *
+ * The temperature drops fast during the first iterations and the procedure spends most of its iterations at low temperatures. Requires a fixed amount of iterations.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public class LogarithmicCooling implements CoolingSchedule {
+
+	/**
+	 * Name of the schedule
+	 */
+	private static final String NAME = "Logarithmic";
+
+	/**
+	 * Start temperature of the schedule
+	 */
+	private double startTemperature;
+
+	/**
+	 * Scaling constant of the logarithm
+	 */
+	private double c;
+
+
+	@Override
+	public void init(double startTemperature, double endTemperature, long maxIterations) {
+		if (maxIterations <= 0){
+			throw new RuntimeErrorException(null, NAME+" cooling requires a fixed amount of iterations (maxIterations > 0).");
+		}
+		this.startTemperature = startTemperature;
+		this.c = (startTemperature/endTemperature - 1) / Math.log(1 + maxIterations);
+	}
+
+	@Override
+	public double nextTemperature(double temperature, long iteration, double fitness) {
+		return this.startTemperature / (1 + this.c * Math.log(1 + iteration));
+	}
+
+	@Override
+	public CoolingSchedule makeCopy() {
+		return new LogarithmicCooling();
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+}
@@ -0,0 +1,52 @@
+package schedulers.cooling;
+
+import javax.management.RuntimeErrorException;
+
+import schedulers.CoolingSchedule;
+
+/**
+ * LundyMeesCooling implements the schedule of Lundy and Mees: T(k+1) = T(k) / (1 + beta * T(k)), with beta chosen so the end temperature is reached after the last iteration.
+ *
+ * The decrease is large at high temperatures and small at low temperatures. Requires a fixed amount of iterations.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public class LundyMeesCooling implements CoolingSchedule {
+
+	/**
+	 * Name of the schedule
+	 */
+	private static final String NAME = "LundyMees";
+
+	/**
+	 * Cooling constant of the schedule
+	 */
+	private double beta;
+
+
+	@Override
+	public void init(double startTemperature, double endTemperature, long maxIterations) {
+		if (maxIterations <= 0){
+			throw new RuntimeErrorException(null, NAME+" cooling requires a fixed amount of iterations (maxIterations > 0).");
+		}
+		this.beta = (startTemperature - endTemperature) / (maxIterations * startTemperature * endTemperature);
+	}
+
+	@Override
+	public double nextTemperature(double temperature, long iteration, double fitness) {
+		return temperature / (1 + this.beta * temperature);
+	}
+
+	@Override
+	public CoolingSchedule makeCopy() {
+		return new LundyMeesCooling();
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+}
@@ -0,0 +1,109 @@
+package schedulers.cooling;
+
+import schedulers.CoolingSchedule;
+
+/**
+ * ReheatCooling cools geometrically like GeometricCooling, but raises the temperature when the best fitness found has not improved during a number of iterations.
+ * The temperature is multiplied with the reheat factor, but never exceeds the start temperature.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public class ReheatCooling implements CoolingSchedule {
+
+	/**
+	 * Name of the schedule
+	 */
+	private static final String NAME = "Reheat";
+
+	/**
+	 * Amount of iterations without improvement after which the temperature is raised
+	 */
+	private int window;
+
+	/**
+	 * Multiplier to raise the temperature
+	 */
+	private double reheatFactor;
+
+	/**
+	 * Multiplier to decrease the temperature
+	 */
+	private double coolingMultiplier;
+
+	/**
+	 * Start temperature of the schedule, the temperature is never raised above it
+	 */
+	private double startTemperature;
+
+	/**
+	 * Best fitness found so far
+	 */
+	private double bestFitness;
+
+	/**
+	 * Amount of iterations since the best fitness improved
+	 */
+	private int stagnating;
+
+
+	/**
+	 * Constructs a new ReheatCooling
+	 *
+	 * @param window	amount of iterations without improvement after which the temperature is raised
+	 * @param reheatFactor	multiplier to raise the temperature
+	 */
+	public ReheatCooling(int window, double reheatFactor){
+		this.window = window;
+		this.reheatFactor = reheatFactor;
+	}
+
+
+	@Override
+	public void init(double startTemperature, double endTemperature, long maxIterations) {
+		this.coolingMultiplier = Math.pow(  (endTemperature/startTemperature),  1/((double)maxIterations) );
+		this.startTemperature = startTemperature;
+		this.bestFitness = Double.MAX_VALUE;
+		this.stagnating = 0;
+	}
+
+	@Override
+	public double nextTemperature(double temperature, long iteration, double fitness) {
+
+		if (fitness < this.bestFitness){
+			this.bestFitness = fitness;
+			this.stagnating = 0;
+		}else{
+			this.stagnating++;
+		}
+
+		if (this.stagnating >= this.window){
+			this.stagnating = 0;
+			return Math.min(temperature * this.reheatFactor, this.startTemperature);
+		}
+		return temperature * this.coolingMultiplier;
+	}
+
+	@Override
+	public CoolingSchedule makeCopy() {
+		return new ReheatCooling(this.window, this.reheatFactor);
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+
+	// getters and setters
+
+	public int getWindow() {
+		return window;
+	}
+
+	public double getReheatFactor() {
+		return reheatFactor;
+	}
+
+}
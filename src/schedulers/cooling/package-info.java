@@ -0,0 +1,5 @@
+/**
+ * A group of classes that implement a cooling schedule
+ * @since 1.0
+ */
+package schedulers.cooling;
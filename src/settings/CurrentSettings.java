@@ -10,6 +10,13 @@ import java.util.ArrayList;
 import loggers.ManualLogger;
 import loggers.defined.AcceptanceLogger;
 import loggers.defined.PenaltiesLogger;
+import loggers.defined.PenaltyTimingLogger;
+import schedulers.CoolingSchedule;
+import schedulers.cooling.GeometricCooling;
+import schedulers.cooling.LinearCooling;
+import schedulers.cooling.LogarithmicCooling;
+import schedulers.cooling.LundyMeesCooling;
+import schedulers.cooling.ReheatCooling;
 
 
 /**
@@ -139,6 +146,131 @@ public class CurrentSettings {
 	 * Suffix to add to outputfilename
 	 */
 	private volatile String outputSuffix ;
+	
+	/**
+	 * Amount of candidate mutations evaluated from the same state in a single annealing step, 1 disables batched evaluation
+	 */
+	private volatile int batchCandidates = 1;
+	
+	/**
+	 * How a candidate of a batch is chosen: 'metropolis' (best candidate, Metropolis rule) or 'gibbs' (heat bath choice)
+	 */
+	private volatile String batchSelection = "metropolis";
+	
+	/**
+	 * Amount of threads a single re-ranking uses to evaluate the penalties of its subnetworks
+	 */
+	private volatile int evaluationThreads = 1;
+	
+	/**
+	 * Temperature scheme of the annealing procedure, every re-ranking uses its own copy
+	 */
+	private volatile CoolingSchedule coolingSchedule = new GeometricCooling();
+	
+	/**
+	 * Turns adaptive ranges of modifyEachTurn and moveEachTurn on or off
+	 */
+	private volatile boolean adaptiveMoves = false;
+	
+	/**
+	 * Amount of iterations over which the acceptance ratio is measured before the ranges are adapted
+	 */
+	private volatile int adaptationWindow = 100;
+	
+	/**
+	 * Acceptance ratio the adaptive ranges aim for
+	 */
+	private volatile double targetAcceptance = 0.3;
+	
+	/**
+	 * Lower bound of the adaptive range of modifyEachTurn
+	 */
+	private volatile int minModifyEachTurn = 2;
+	
+	/**
+	 * Lower bound of the adaptive range of moveEachTurn
+	 */
+	private volatile int minMoveEachTurn = 1;
+	
+	/**
+	 * Turns drawing the links to move by their hotspot weight on or off
+	 */
+	private volatile boolean hotspotMoves = false;
+	
+	/**
+	 * Importance of the node degrees in the hotspot weight of a link
+	 */
+	private volatile double hotspotWeight = 1.0;
+	
+	/**
+	 * Turns keeping the order of the links in a rank index on or off
+	 */
+	private volatile boolean rankIndex = false;
+	
+	/**
+	 * Turns timing every penalty call on or off
+	 */
+	private volatile boolean penaltyTimings = false;
+	
+	/**
+	 * Amount of evaluations between two flushes of the penalty timings of a re-ranking to the shared counters
+	 */
+	private volatile int penaltyTimingsFlushInterval = 1000;
+	
+	/**
+	 * Turns the Java Flight Recorder events on or off
+	 */
+	private volatile boolean flightRecorderEvents = false;
+	
+	/**
+	 * Amount of annealing steps summarized by a single flight recorder event
+	 */
+	private volatile int flightRecorderStepBatch = 1000;
+	
+	/**
+	 * Seed of all random decisions of the re-rankings, only used if seeded is set
+	 */
+	private volatile long seed;
+	
+	/**
+	 * Indicates if the re-rankings are seeded, otherwise every run is different
+	 */
+	private volatile boolean seeded = false;
+	
+	/**
+	 * Turns measuring the bytes allocated per annealing step and phase on or off
+	 */
+	private volatile boolean allocationProfiling = false;
+	
+	/**
+	 * Turns measuring the blocking of the threads on shared monitors on or off
+	 */
+	private volatile boolean contentionMonitoring = false;
+	
+	/**
+	 * Milliseconds between two samples of the blocked threads when contention monitoring is on
+	 */
+	private volatile int contentionSampleMillis = 10;
+	
+	/**
+	 * Ratio of changed links to links of a subnetwork from which the graphlet counts are recounted from scratch instead of updated incrementally, 0 to always update incrementally
+	 */
+	private volatile double graphletRecountRatio = 0.05;
+	
+	/**
+	 * Amount of threads counting the graphlets of a subnetwork from scratch, shared by all re-rankings
+	 */
+	private volatile int graphletCountThreads = 1;
+	
+	/**
+	 * Smallest amount of links of a subnetwork for which the G4 penalty estimates the graphlet frequencies from a sample of paths, 0 to always count exactly
+	 */
+	private volatile int graphletSampleLinks = 0;
+	
+	/**
+	 * Allowed standard error of the sampled graphlet fractions, sets the amount of sampled paths
+	 */
+	private volatile double graphletSampleError = 0.01;
 
 	
 	
@@ -363,6 +495,207 @@ public class CurrentSettings {
 		return this.outputSuffix;
 	}
 	
+	public int getBatchCandidates() {
+		return batchCandidates;
+	}
+
+	public void setBatchCandidates(int batchCandidates) {
+		this.batchCandidates = batchCandidates;
+	}
+
+	public String getBatchSelection() {
+		return batchSelection;
+	}
+
+	public void setBatchSelection(String batchSelection) {
+		this.batchSelection = batchSelection;
+	}
+	
+	public boolean isGibbsSelection() {
+		return "gibbs".equalsIgnoreCase(batchSelection);
+	}
+
+	public int getEvaluationThreads() {
+		return evaluationThreads;
+	}
+
+	public void setEvaluationThreads(int evaluationThreads) {
+		this.evaluationThreads = evaluationThreads;
+	}
+
+	public boolean isAdaptiveMoves() {
+		return adaptiveMoves;
+	}
+
+	public void setAdaptiveMoves(boolean adaptiveMoves) {
+		this.adaptiveMoves = adaptiveMoves;
+	}
+
+	public int getAdaptationWindow() {
+		return adaptationWindow;
+	}
+
+	public void setAdaptationWindow(int adaptationWindow) {
+		this.adaptationWindow = adaptationWindow;
+	}
+
+	public double getTargetAcceptance() {
+		return targetAcceptance;
+	}
+
+	public void setTargetAcceptance(double targetAcceptance) {
+		this.targetAcceptance = targetAcceptance;
+	}
+
+	public int getMinModifyEachTurn() {
+		return minModifyEachTurn;
+	}
+
+	public void setMinModifyEachTurn(int minModifyEachTurn) {
+		this.minModifyEachTurn = minModifyEachTurn;
+	}
+
+	public int getMinMoveEachTurn() {
+		return minMoveEachTurn;
+	}
+
+	public void setMinMoveEachTurn(int minMoveEachTurn) {
+		this.minMoveEachTurn = minMoveEachTurn;
+	}
+
+	public boolean isHotspotMoves() {
+		return hotspotMoves;
+	}
+
+	public void setHotspotMoves(boolean hotspotMoves) {
+		this.hotspotMoves = hotspotMoves;
+	}
+
+	public double getHotspotWeight() {
+		return hotspotWeight;
+	}
+
+	public void setHotspotWeight(double hotspotWeight) {
+		this.hotspotWeight = hotspotWeight;
+	}
+
+	public boolean isRankIndex() {
+		return rankIndex;
+	}
+
+	public void setRankIndex(boolean rankIndex) {
+		this.rankIndex = rankIndex;
+	}
+
+	public boolean isPenaltyTimings() {
+		return penaltyTimings;
+	}
+
+	public void setPenaltyTimings(boolean penaltyTimings) {
+		this.penaltyTimings = penaltyTimings;
+	}
+
+	public int getPenaltyTimingsFlushInterval() {
+		return penaltyTimingsFlushInterval;
+	}
+
+	public void setPenaltyTimingsFlushInterval(int penaltyTimingsFlushInterval) {
+		this.penaltyTimingsFlushInterval = penaltyTimingsFlushInterval;
+	}
+
+	public boolean isFlightRecorderEvents() {
+		return flightRecorderEvents;
+	}
+
+	public void setFlightRecorderEvents(boolean flightRecorderEvents) {
+		this.flightRecorderEvents = flightRecorderEvents;
+	}
+
+	public int getFlightRecorderStepBatch() {
+		return flightRecorderStepBatch;
+	}
+
+	public void setFlightRecorderStepBatch(int flightRecorderStepBatch) {
+		this.flightRecorderStepBatch = flightRecorderStepBatch;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.seeded = true;
+	}
+
+	public boolean isSeeded() {
+		return seeded;
+	}
+
+	public boolean isAllocationProfiling() {
+		return allocationProfiling;
+	}
+
+	public void setAllocationProfiling(boolean allocationProfiling) {
+		this.allocationProfiling = allocationProfiling;
+	}
+
+	public boolean isContentionMonitoring() {
+		return contentionMonitoring;
+	}
+
+	public void setContentionMonitoring(boolean contentionMonitoring) {
+		this.contentionMonitoring = contentionMonitoring;
+	}
+
+	public int getContentionSampleMillis() {
+		return contentionSampleMillis;
+	}
+
+	public void setContentionSampleMillis(int contentionSampleMillis) {
+		this.contentionSampleMillis = contentionSampleMillis;
+	}
+
+	public double getGraphletRecountRatio() {
+		return graphletRecountRatio;
+	}
+
+	public void setGraphletRecountRatio(double graphletRecountRatio) {
+		this.graphletRecountRatio = graphletRecountRatio;
+	}
+
+	public int getGraphletCountThreads() {
+		return graphletCountThreads;
+	}
+
+	public void setGraphletCountThreads(int graphletCountThreads) {
+		this.graphletCountThreads = graphletCountThreads;
+	}
+
+	public int getGraphletSampleLinks() {
+		return graphletSampleLinks;
+	}
+
+	public void setGraphletSampleLinks(int graphletSampleLinks) {
+		this.graphletSampleLinks = graphletSampleLinks;
+	}
+
+	public double getGraphletSampleError() {
+		return graphletSampleError;
+	}
+
+	public void setGraphletSampleError(double graphletSampleError) {
+		this.graphletSampleError = graphletSampleError;
+	}
+
+	public CoolingSchedule getCoolingSchedule() {
+		return coolingSchedule;
+	}
+
+	public void setCoolingSchedule(CoolingSchedule coolingSchedule) {
+		this.coolingSchedule = coolingSchedule;
+	}
+	
 	
 	//private methods
 	
@@ -390,6 +723,15 @@ public class CurrentSettings {
 	
 	}
 	
+	private void addPenaltyTimingLogger (int iterations, String suffix){
+
+		// the logger reports the penalty timings, so they have to be recorded
+		this.penaltyTimings = true;
+		PenaltyTimingLogger timingLogger = new PenaltyTimingLogger(iterations, "PenaltyTimings_logfile", this.outputDir);
+		loggers.add(timingLogger);
+	
+	}
+	
 	private void addAcceptanceLogger (int iterations, String suffix, int granularity){
 
 		
@@ -400,6 +742,33 @@ public class CurrentSettings {
 		
 	}
 
+	private void parseCoolingSchedule (String[] split){
+		
+		switch(split[1]){
+		case("Geometric"):
+			this.coolingSchedule = new GeometricCooling();
+			break;
+		case("Linear"):
+			this.coolingSchedule = new LinearCooling();
+			break;
+		case("Logarithmic"):
+			this.coolingSchedule = new LogarithmicCooling();
+			break;
+		case("LundyMees"):
+			this.coolingSchedule = new LundyMeesCooling();
+			break;
+		case("Reheat"):
+			// optional arguments: iterations without improvement before reheating and the reheat factor
+			int window = split.length > 2 ? Integer.parseInt(split[2]) : 50;
+			double reheatFactor = split.length > 3 ? Double.parseDouble(split[3]) : 2.0;
+			this.coolingSchedule = new ReheatCooling(window, reheatFactor);
+			break;
+		default:
+			System.err.println("Properties file contained unknown coolingSchedule: "+split[1]+" ABORTING");
+			System.exit(-1);
+		}
+	}
+
 	private void deleteFolder(File folder) {
 		File[] files = folder.listFiles();
 		if (files != null) {
@@ -501,6 +870,135 @@ public class CurrentSettings {
 				    System.out.println("PARAMETER SETTING: Setting temperatureAllowedDeviation parameter to: "+split[1]);
 					this.temperatureAllowedDeviation =(Double.parseDouble(split[1]));
 					break;
+				case("batchCandidates"):
+				    System.out.println("PARAMETER SETTING: Setting batchCandidates parameter to: "+split[1]);
+					this.batchCandidates = Integer.parseInt(split[1]);
+					break;
+				case("batchSelection"):
+				    System.out.println("PARAMETER SETTING: Setting batchSelection parameter to: "+split[1]);
+					this.batchSelection = split[1];
+					if (!this.batchSelection.equalsIgnoreCase("metropolis") && !this.batchSelection.equalsIgnoreCase("gibbs")){
+						System.err.println("Properties file contained unknown batchSelection: "+split[1]+" ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("evaluationThreads"):
+				    System.out.println("PARAMETER SETTING: Setting evaluationThreads parameter to: "+split[1]);
+					this.evaluationThreads = Integer.parseInt(split[1]);
+					break;
+				case("coolingSchedule"):
+				    System.out.println("PARAMETER SETTING: Setting coolingSchedule parameter to: "+split[1]);
+					this.parseCoolingSchedule(split);
+					break;
+				case("adaptiveMoves"):
+				    System.out.println("PARAMETER SETTING: Setting adaptiveMoves parameter to: "+split[1]);
+					this.adaptiveMoves = Boolean.parseBoolean(split[1]);
+					break;
+				case("adaptationWindow"):
+				    System.out.println("PARAMETER SETTING: Setting adaptationWindow parameter to: "+split[1]);
+					this.adaptationWindow = Integer.parseInt(split[1]);
+					break;
+				case("targetAcceptance"):
+				    System.out.println("PARAMETER SETTING: Setting targetAcceptance parameter to: "+split[1]);
+					this.targetAcceptance = Double.parseDouble(split[1]);
+					break;
+				case("minModifyEachTurn"):
+				    System.out.println("PARAMETER SETTING: Setting minModifyEachTurn parameter to: "+split[1]);
+					this.minModifyEachTurn = Integer.parseInt(split[1]);
+					break;
+				case("minMoveEachTurn"):
+				    System.out.println("PARAMETER SETTING: Setting minMoveEachTurn parameter to: "+split[1]);
+					this.minMoveEachTurn = Integer.parseInt(split[1]);
+					break;
+				case("hotspotMoves"):
+				    System.out.println("PARAMETER SETTING: Setting hotspotMoves parameter to: "+split[1]);
+					this.hotspotMoves = Boolean.parseBoolean(split[1]);
+					break;
+				case("hotspotWeight"):
+				    System.out.println("PARAMETER SETTING: Setting hotspotWeight parameter to: "+split[1]);
+					this.hotspotWeight = Double.parseDouble(split[1]);
+					break;
+				case("rankIndex"):
+				    System.out.println("PARAMETER SETTING: Setting rankIndex parameter to: "+split[1]);
+					this.rankIndex = Boolean.parseBoolean(split[1]);
+					break;
+				case("penaltyTimings"):
+				    System.out.println("PARAMETER SETTING: Setting penaltyTimings parameter to: "+split[1]);
+					this.penaltyTimings = Boolean.parseBoolean(split[1]);
+					break;
+				case("allocationProfiling"):
+				    System.out.println("PARAMETER SETTING: Setting allocationProfiling parameter to: "+split[1]);
+					this.allocationProfiling = Boolean.parseBoolean(split[1]);
+					break;
+				case("contentionMonitoring"):
+				    System.out.println("PARAMETER SETTING: Setting contentionMonitoring parameter to: "+split[1]);
+					this.contentionMonitoring = Boolean.parseBoolean(split[1]);
+					break;
+				case("graphletRecountRatio"):
+				    System.out.println("PARAMETER SETTING: Setting graphletRecountRatio parameter to: "+split[1]);
+					this.graphletRecountRatio = Double.parseDouble(split[1]);
+					if (this.graphletRecountRatio < 0){
+						System.err.println("graphletRecountRatio should be at least 0 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("graphletCountThreads"):
+				    System.out.println("PARAMETER SETTING: Setting graphletCountThreads parameter to: "+split[1]);
+					this.graphletCountThreads = Integer.parseInt(split[1]);
+					if (this.graphletCountThreads < 1){
+						System.err.println("graphletCountThreads should be at least 1 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("graphletSampleLinks"):
+				    System.out.println("PARAMETER SETTING: Setting graphletSampleLinks parameter to: "+split[1]);
+					this.graphletSampleLinks = Integer.parseInt(split[1]);
+					if (this.graphletSampleLinks < 0){
+						System.err.println("graphletSampleLinks should be at least 0 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("graphletSampleError"):
+				    System.out.println("PARAMETER SETTING: Setting graphletSampleError parameter to: "+split[1]);
+					this.graphletSampleError = Double.parseDouble(split[1]);
+					if (this.graphletSampleError <= 0 || this.graphletSampleError >= 0.5){
+						System.err.println("graphletSampleError should be larger than 0 and smaller than 0.5 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("contentionSampleMillis"):
+				    System.out.println("PARAMETER SETTING: Setting contentionSampleMillis parameter to: "+split[1]);
+					this.contentionSampleMillis = Integer.parseInt(split[1]);
+					if (this.contentionSampleMillis < 1){
+						System.err.println("contentionSampleMillis should be at least 1 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("seed"):
+				    System.out.println("PARAMETER SETTING: Setting seed parameter to: "+split[1]);
+					this.seed = Long.parseLong(split[1]);
+					this.seeded = true;
+					break;
+				case("flightRecorderEvents"):
+				    System.out.println("PARAMETER SETTING: Setting flightRecorderEvents parameter to: "+split[1]);
+					this.flightRecorderEvents = Boolean.parseBoolean(split[1]);
+					break;
+				case("flightRecorderStepBatch"):
+				    System.out.println("PARAMETER SETTING: Setting flightRecorderStepBatch parameter to: "+split[1]);
+					this.flightRecorderStepBatch = Integer.parseInt(split[1]);
+					if (this.flightRecorderStepBatch < 1){
+						System.err.println("flightRecorderStepBatch should be at least 1 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
+				case("penaltyTimingsFlushInterval"):
+				    System.out.println("PARAMETER SETTING: Setting penaltyTimingsFlushInterval parameter to: "+split[1]);
+					this.penaltyTimingsFlushInterval = Integer.parseInt(split[1]);
+					if (this.penaltyTimingsFlushInterval < 1){
+						System.err.println("penaltyTimingsFlushInterval should be at least 1 ...ABORTING");
+						System.exit(-1);
+					}
+					break;
 				case("preds"):
 					String[] preds = new String[split.length-1];
 			    	System.out.print("PARAMETER SETTING: Setting the allowed predictions to: ");
@@ -550,6 +1048,12 @@ public class CurrentSettings {
 							
 							
 							
+						}else if (split[0].equals("PenaltyTimingLogger")){
+						    System.out.println("PARAMETER SETTING: Creating a PenaltyTiminglogger with iteration interval: "+split[1] +" and  suffix "+split[2]);
+							int iter = Integer.parseInt(split[1]);
+							String suffix = split[2];
+							addPenaltyTimingLogger(iter, suffix);
+							
 						}else if (split[0].equals("AcceptanceLogger")){
 							
 						    System.out.println("PARAMETER SETTING: Creating a Acceptancelogger with iteration interval: "+split[1] +" and  suffix "+split[2]);
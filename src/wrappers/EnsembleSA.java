@@ -1,8 +1,10 @@
 package wrappers;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import loggers.ManualLogger;
+import main.MBeans;
 import main.Netter;
 import network.NetworkFileBackedWrapper;
 import network.modifiers.PredictionModifierOpt;
@@ -10,8 +12,10 @@ import network.postprocessing.RerankingResult;
 import schedulers.NetworkSA;
 import settings.CurrentSettings;
 import fitnessfunctions.PartitionFitnessFunction;
+import profiling.ContentionMonitor;
+import profiling.Events;
 
-public class EnsembleSA {
+public class EnsembleSA implements EnsembleSAMXBean {
 
 
 	/**
@@ -74,6 +78,26 @@ public class EnsembleSA {
 	 */
 	private volatile RerankingResult result ;
 	
+	/**
+	 * Amount of re-rankings of the ensemble
+	 */
+	private volatile int totalIterations;
+	
+	/**
+	 * Sum of the final fitness of the finished re-rankings
+	 */
+	private volatile double finalFitnessSum;
+	
+	/**
+	 * Sum of the iterations and of the time spent in the annealing loop of the finished re-rankings
+	 */
+	private volatile long annealingMoves, annealingNanos;
+	
+	/**
+	 * Measures the blocking on shared monitors during the re-ranking, null if contention monitoring is off
+	 */
+	private ContentionMonitor contention;
+	
 	
 	/**
 	 * Constructs a new EnsembleSa, started by the main class Netter
@@ -97,7 +121,13 @@ public class EnsembleSA {
 		
 
 		this.network = network;
+		this.totalIterations = totalIterations;
 		this.iterations =0;		// the amount of iterations we already did
+		MBeans.register(this, "type=EnsembleSA");
+		if (this.net.getCurrentSettings().isContentionMonitoring()){
+			this.contention = new ContentionMonitor(this.net.getCurrentSettings().getContentionSampleMillis());
+			this.contention.start();
+		}
 		long next = System.currentTimeMillis();		// start time measurement
 		this.restarting = false;		// at this moment we are not restarting
 		boolean entry = true;		// create a variable to enter the loop first time
@@ -111,6 +141,8 @@ public class EnsembleSA {
 			
 			if (stopping){
 				stopProcedure();
+				MBeans.unregister("type=EnsembleSA");
+				this.stopContentionMonitor();
 				// now all threads stopped, so just stop everything
 				return;
 			}
@@ -136,6 +168,9 @@ public class EnsembleSA {
 			// from now on we atleast visited this loop once and we will only return her in case we had to restart the thread
 			entry = false;
 			this.iterations = 0;
+			this.finalFitnessSum = 0;
+			this.annealingMoves = 0;
+			this.annealingNanos = 0;
 			this.restarting = false;
 			this.restartPossible = true;
 			// this should be thread safe, as no other thread can be active at this moment
@@ -223,6 +258,8 @@ public class EnsembleSA {
 		this.result.resultToTSV(this.net.getCurrentSettings().getOutputDirString()+ this.net.getCurrentSettings().getOutputSuffix()+"--"+ "-ENSEMBLE-second.txt");	
 		long current = System.currentTimeMillis();
 		this.finished = true;
+		MBeans.unregister("type=EnsembleSA");
+		this.stopContentionMonitor();
 		System.out.println("Finished ensembleSA in "+ (current-next)+" ms");
 		
 		
@@ -242,6 +279,9 @@ public class EnsembleSA {
 		this.result.addResult(wrapper);
 		
 		// increase the amount of iterations
+		this.finalFitnessSum += worker.getCurrentFitness();
+		this.annealingMoves += worker.getIterations();
+		this.annealingNanos += worker.getAnnealingNanos();
 		this.iterations++;
 		
 		//clear the worker
@@ -251,6 +291,7 @@ public class EnsembleSA {
 		
 		// free a processor core
 		this.getOrSetWorkersInProgress(-1, false);
+		Events.worker("finish", Thread.currentThread().getName(), this.iterations, this.workersInProgress);
 	}
 	
 	
@@ -263,6 +304,7 @@ public class EnsembleSA {
 
 		
 		this.getOrSetWorkersInProgress(-1, false);
+		Events.worker("crash", Thread.currentThread().getName(), this.iterations, this.workersInProgress);
 		System.err.println("Thread failed for unknown reason. Rebooting thread.");
 		
 	}
@@ -306,6 +348,7 @@ public class EnsembleSA {
 	 */
 	public synchronized void workerSignalingRestart(NetworkSA networkSA) {
 		this.getOrSetWorkersInProgress(-1, false);
+		Events.worker("restart", Thread.currentThread().getName(), this.iterations, this.workersInProgress);
 	}
 	
 	/**
@@ -434,6 +477,65 @@ public class EnsembleSA {
 	public void setThreadPool(ArrayList<NetworkSA> threadPool) {
 		this.threadPool = threadPool;
 	}
+	
+	@Override
+	public int getCompletedRuns() {
+		return this.iterations;
+	}
+
+	@Override
+	public int getTotalRuns() {
+		return this.totalIterations;
+	}
+
+	@Override
+	public int getWorkers() {
+		return this.workersInProgress;
+	}
+
+	@Override
+	public int getWorkersAvailable() {
+		return this.net.getCurrentSettings().getWorkersAvailable();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return Math.max(0, this.totalIterations - this.iterations - this.workersInProgress);
+	}
+
+	@Override
+	public synchronized double getMovesPerSecond() {
+		double sum = 0;
+		for (NetworkSA sa : this.threadPool){
+			sum += sa.getMovesPerSecond();
+		}
+		return sum;
+	}
+
+	@Override
+	public long getAnnealingMoves() {
+		return this.annealingMoves;
+	}
+
+	@Override
+	public long getAnnealingMillis() {
+		return this.annealingNanos / 1000000;
+	}
+
+	@Override
+	public double getMeanFinalFitness() {
+		return this.iterations == 0 ? Double.NaN : this.finalFitnessSum / this.iterations;
+	}
+
+	@Override
+	public long getHeapUsed() {
+		return MBeans.getHeapUsage().getUsed();
+	}
+
+	@Override
+	public long getHeapMax() {
+		return MBeans.getHeapUsage().getMax();
+	}
 
 
 
@@ -449,10 +551,23 @@ public class EnsembleSA {
 		networkCopy.setOutputFileName(cs.getOutputDirString()+"/"+"/"+ (this.iterations+this.getOrSetWorkersInProgress(-1,true))+ "--"+(this.iterations+"-"+this.getOrSetWorkersInProgress(-1, true)));
 		// create a new modifier
 		PredictionModifierOpt modifier = new PredictionModifierOpt(networkCopy,cs.getModifyEachTurn(),cs.getMoveEachTurn());
+		if (cs.isAdaptiveMoves()){
+			modifier.setAdaptive(cs.getAdaptationWindow(), cs.getTargetAcceptance(), cs.getMinModifyEachTurn(), cs.getMinMoveEachTurn());
+		}
+		if (cs.isHotspotMoves()){
+			modifier.setHotspots(cs.getHotspotWeight());
+		}
+		if (cs.isRankIndex()){
+			modifier.setRankIndex();
+		}
 		// create a new fitnessfunction
 		
 
 		PartitionFitnessFunction fitnessFunction = new PartitionFitnessFunction(cs.getPenalties(),networkCopy,modifier);
+		fitnessFunction.setEvaluationThreads(cs.getEvaluationThreads());
+		if (cs.isPenaltyTimings()){
+			fitnessFunction.setPenaltyTiming(cs.getPenaltyTimingsFlushInterval());
+		}
 		modifier.setFitnessIncrementFunction(fitnessFunction);
 		
 		ArrayList<ManualLogger> nLoggers = new ArrayList<ManualLogger>();
@@ -467,6 +582,16 @@ public class EnsembleSA {
 
 		
 			NetworkSA sa =new NetworkSA(cs.getStartTemperature(),cs.getAnnealingMultiplier(), cs.getEndTemperature(), modifier, fitnessFunction, true,cs.getMaxIterations(),nLoggers,networkCopy,  this);
+			sa.setBatchedEvaluation(cs.getBatchCandidates(), cs.isGibbsSelection());
+			sa.setCoolingSchedule(cs.getCoolingSchedule().makeCopy());
+			sa.setAllocationProfiling(cs.isAllocationProfiling());
+			if (cs.isSeeded()){
+				// every re-ranking gets its own seeds, derived from the seed and the order in which the re-rankings are started
+				Random seeds = new Random(cs.getSeed() + this.iterations + this.getOrSetWorkersInProgress(-1, true));
+				modifier.setSeed(seeds.nextLong());
+				sa.setSeed(seeds.nextLong());
+				fitnessFunction.setSeed(seeds.nextLong());
+			}
 			this.threadPool.add(sa);
 			
 			System.out.println("Starting another thread:"+ 	this.getOrSetWorkersInProgress(-1,true )+" in progress. Threadpool size: "+threadPool.size());
@@ -474,7 +599,9 @@ public class EnsembleSA {
 	
 			this.getOrSetWorkersInProgress(1, false);
 			this.eligbleForStart = false;
-			new Thread(sa).start();
+			Thread thread = new Thread(sa);
+			Events.worker("launch", thread.getName(), this.iterations, this.workersInProgress);
+			thread.start();
 		
 		}
 	}
@@ -495,6 +622,15 @@ public class EnsembleSA {
 		
 	}
 	
+	// writes the contention report of this re-ranking next to its result
+	private void stopContentionMonitor(){
+		if (this.contention != null){
+			CurrentSettings cs = this.net.getCurrentSettings();
+			this.contention.stop(cs.getOutputDirString()+ cs.getOutputSuffix()+"--"+ "-CONTENTION.txt");
+			this.contention = null;
+		}
+	}
+	
 	private void stopProcedure (){
 		
 		System.out.println("Stopping command being executed.");
@@ -0,0 +1,104 @@
+package wrappers;
+
+/**
+ *
+ * EnsembleSAMXBean is the JMX management interface of the ensemble re-ranking a single prediction file, registered as netter:type=EnsembleSA while it runs.
+ *
+ * @author Joeri Ruyssinck (joeri.ruysssinck@intec.ugent.be)
+ * @version 1.0
+ * @since 1.0
+ */
+public interface EnsembleSAMXBean {
+
+	/**
+	 * Returns the amount of finished re-rankings
+	 *
+	 * @return	the finished re-rankings
+	 */
+	public int getCompletedRuns();
+
+	/**
+	 * Returns the amount of re-rankings of the ensemble
+	 *
+	 * @return	the total amount of re-rankings
+	 */
+	public int getTotalRuns();
+
+	/**
+	 * Returns the amount of re-rankings in progress
+	 *
+	 * @return	the running re-rankings
+	 */
+	public int getWorkers();
+
+	/**
+	 * Returns the maximum amount of re-rankings running at the same time
+	 *
+	 * @return	the available workers
+	 */
+	public int getWorkersAvailable();
+
+	/**
+	 * Returns the amount of re-rankings that still have to be started
+	 *
+	 * @return	the waiting re-rankings
+	 */
+	public int getQueueDepth();
+
+	/**
+	 * Returns the sum of the iterations per second of all running re-rankings
+	 *
+	 * @return	the iterations per second
+	 */
+	public double getMovesPerSecond();
+
+	/**
+	 * Returns the sum of the iterations of the finished re-rankings
+	 *
+	 * @return	the iterations
+	 */
+	public long getAnnealingMoves();
+
+	/**
+	 * Returns the sum of the time the finished re-rankings spent annealing, without reading, partitioning and writing the rankings
+	 *
+	 * @return	the annealing time in milliseconds
+	 */
+	public long getAnnealingMillis();
+
+	/**
+	 * Returns the mean fitness of the finished re-rankings at the end of their procedure
+	 *
+	 * @return	the mean final fitness, NaN if no re-ranking finished
+	 */
+	public double getMeanFinalFitness();
+
+	/**
+	 * Returns the used heap of the virtual machine
+	 *
+	 * @return	the used heap in bytes
+	 */
+	public long getHeapUsed();
+
+	/**
+	 * Returns the maximum heap of the virtual machine
+	 *
+	 * @return	the maximum heap in bytes, -1 if undefined
+	 */
+	public long getHeapMax();
+
+	/**
+	 * Indicates the ensemble is restarting with new temperature settings
+	 *
+	 * @return	true if restarting
+	 */
+	public boolean isRestarting();
+
+	/**
+	 * Indicates all re-rankings finished
+	 *
+	 * @return	true if finished
+	 */
+	public boolean isFinished();
+
+}